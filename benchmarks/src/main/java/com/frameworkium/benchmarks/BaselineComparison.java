@@ -0,0 +1,152 @@
+package com.frameworkium.benchmarks;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Compares a JMH JSON result file with a baseline result file, taken on
+ * the same machine.
+ * <p>
+ * Fails, with a non-zero exit code, if any benchmark's normalised allocation
+ * rate has regressed by more than the tolerance, a fraction given by the
+ * <code>tolerance</code> system property (default 0.25). Allocation per
+ * operation is stable between runs, whereas scores depend on the machine
+ * and its load, so score changes are only reported.
+ * <p>
+ * Fails if there is no baseline. Only when the <code>updateBaseline</code>
+ * system property is true are the results copied to become the baseline.
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION_METRIC = "\u00b7gc.alloc.rate.norm";
+    private static final String THROUGHPUT_MODE = "thrpt";
+    /** Allocation changes smaller than this are noise e.g. from escape analysis */
+    private static final double MIN_ALLOCATION_CHANGE_BYTES = 64;
+
+    private BaselineComparison() {
+        // main only
+    }
+
+    /**
+     * @param args the result file then the baseline file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(
+                    "Usage: BaselineComparison <jmh-result.json> <jmh-baseline.json>");
+        }
+        Path result = Paths.get(args[0]);
+        Path baseline = Paths.get(args[1]);
+        double tolerance = Double.parseDouble(System.getProperty("tolerance", "0.25"));
+
+        if (Boolean.getBoolean("updateBaseline")) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline written to " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No baseline at " + baseline
+                    + ", record one on this machine with -DupdateBaseline=true");
+            System.exit(1);
+        }
+
+        List<String> regressions = compare(read(result), read(baseline), tolerance);
+        if (!regressions.isEmpty()) {
+            System.out.println("Benchmarks allocate more than "
+                    + percent(tolerance) + " over " + baseline + ":");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints the score and allocation changes of every benchmark.
+     *
+     * @return a description of each allocation regression, empty if none
+     */
+    static List<String> compare(
+            Map<String, JSONObject> results,
+            Map<String, JSONObject> baselines,
+            double tolerance) {
+
+        List<String> regressions = new ArrayList<>();
+        System.out.println(String.format("%-90s %15s %15s %9s %9s",
+                "Benchmark", "Score", "Baseline", "Change", "Alloc"));
+
+        results.forEach((key, result) -> {
+            JSONObject baseline = baselines.get(key);
+            if (baseline == null) {
+                System.out.println(String.format("%-90s %15.3f %15s", key, score(result), "new"));
+                return;
+            }
+            boolean higherIsBetter = THROUGHPUT_MODE.equals(result.getString("mode"));
+            double scoreChange = change(score(baseline), score(result));
+            double allocChange = change(allocation(baseline), allocation(result));
+            double scoreRegression = higherIsBetter ? -scoreChange : scoreChange;
+
+            // score changes are reported, not failed, as they depend on the machine
+            System.out.println(String.format("%-90s %15.3f %15.3f %9s %9s%s",
+                    key, score(result), score(baseline),
+                    percent(scoreChange), percent(allocChange),
+                    scoreRegression > tolerance ? " slower" : ""));
+
+            if (allocChange > tolerance
+                    && allocation(result) - allocation(baseline) > MIN_ALLOCATION_CHANGE_BYTES) {
+                regressions.add(String.format("%s allocation %s B/op", key, percent(allocChange)));
+            }
+        });
+        return regressions;
+    }
+
+    /** @return benchmark name and parameters to the JMH result */
+    private static Map<String, JSONObject> read(Path path) throws IOException {
+        String json = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        JSONArray array = new JSONArray(json);
+        Map<String, JSONObject> byKey = new TreeMap<>();
+        for (int i = 0; i < array.length(); i++) {
+            JSONObject result = array.getJSONObject(i);
+            byKey.put(key(result), result);
+        }
+        return byKey;
+    }
+
+    private static String key(JSONObject result) {
+        StringBuilder key = new StringBuilder(result.getString("benchmark")
+                .replace("com.frameworkium.core.", ""));
+        JSONObject params = result.optJSONObject("params");
+        if (params != null) {
+            new TreeSet<>(params.keySet()).forEach(name ->
+                    key.append(' ').append(name).append('=').append(params.get(name)));
+        }
+        return key.toString();
+    }
+
+    private static double score(JSONObject result) {
+        return result.getJSONObject("primaryMetric").getDouble("score");
+    }
+
+    private static double allocation(JSONObject result) {
+        JSONObject secondary = result.optJSONObject("secondaryMetrics");
+        if (secondary == null || !secondary.has(ALLOCATION_METRIC)) {
+            return Double.NaN;
+        }
+        return secondary.getJSONObject(ALLOCATION_METRIC).getDouble("score");
+    }
+
+    private static double change(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after) || before == 0) {
+            return 0;
+        }
+        return (after - before) / before;
+    }
+
+    private static String percent(double fraction) {
+        return String.format("%+.1f%%", fraction * 100);
+    }
+}
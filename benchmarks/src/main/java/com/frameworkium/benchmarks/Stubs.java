@@ -0,0 +1,79 @@
+package com.frameworkium.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal interface implementations for benchmarks, avoiding a mocking
+ * library whose own overhead would dominate the measurements.
+ */
+public final class Stubs {
+
+    /** Computes a return value from the method's arguments. */
+    @FunctionalInterface
+    public interface Answer {
+        Object answer(Object[] args);
+    }
+
+    private Stubs() {
+        // utility class
+    }
+
+    /**
+     * @param type         the interface to implement
+     * @param returnValues method name to the value, or {@link Answer}, it returns
+     * @param <T>          the interface type
+     * @return an implementation returning the given values, else the
+     *         default value for the method's return type
+     */
+    public static <T> T stub(Class<T> type, Map<String, Object> returnValues) {
+        String description = type.getSimpleName() + returnValues.keySet();
+        Object proxy = Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (self, method, args) -> {
+                    Object value = returnValues.get(method.getName());
+                    if (value instanceof Answer) {
+                        return ((Answer) value).answer(args);
+                    } else if (value != null) {
+                        return value;
+                    }
+                    switch (method.getName()) {
+                        case "toString":
+                            return description;
+                        case "hashCode":
+                            return System.identityHashCode(self);
+                        case "equals":
+                            return self == args[0];
+                        default:
+                            return defaultValue(method.getReturnType());
+                    }
+                });
+        return type.cast(proxy);
+    }
+
+    /** @return a map of alternating method names and return values */
+    public static Map<String, Object> returning(Object... namesAndValues) {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            map.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    private static Object defaultValue(Class<?> returnType) {
+        if (returnType == boolean.class) {
+            return false;
+        } else if (returnType == int.class) {
+            return 0;
+        } else if (returnType == long.class) {
+            return 0L;
+        } else if (returnType == String.class) {
+            return "";
+        } else if (returnType.isPrimitive() && returnType != void.class) {
+            throw new UnsupportedOperationException("No default for " + returnType);
+        }
+        return null;
+    }
+}
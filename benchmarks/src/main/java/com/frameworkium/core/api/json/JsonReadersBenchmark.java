@@ -0,0 +1,108 @@
+package com.frameworkium.core.api.json;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.restassured.RestAssured;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialising a large, journey planner like, response with RestAssured
+ * compared with {@link JsonReaders}, for the whole body and for a single
+ * value. Run with <code>-prof gc</code> to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonReadersBenchmark {
+
+    @Param({"10", "100"})
+    public int journeys;
+
+    private Response response;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Itinerary {
+        public List<Journey> journeys;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Journey {
+        public int duration;
+        public List<Leg> legs;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Leg {
+        public int duration;
+        public String summary;
+    }
+
+    @Setup
+    public void setUp() {
+        response = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType("application/json")
+                .setBody(createJson(journeys).getBytes(StandardCharsets.UTF_8))
+                .build();
+        // ResponseBuilder in RestAssured 3.0 does not set the config
+        ((RestAssuredResponseOptionsImpl) response).setConfig(RestAssured.config());
+    }
+
+    @Benchmark
+    public Itinerary restAssuredAs() {
+        return response.as(Itinerary.class);
+    }
+
+    @Benchmark
+    public Itinerary jsonReadersRead() {
+        return JsonReaders.read(response.asInputStream(), Itinerary.class);
+    }
+
+    @Benchmark
+    public int restAssuredJsonPathValue() {
+        return response.jsonPath().getInt("journeys[0].legs[0].duration");
+    }
+
+    @Benchmark
+    public Integer jsonReadersPointerValue() {
+        return JsonReaders.read(
+                response.asInputStream(), "/journeys/0/legs/0/duration", Integer.class);
+    }
+
+    /** Each journey has legs with a summary and a long path, which is unused. */
+    private static String createJson(int journeys) {
+        StringBuilder json = new StringBuilder("{\"$type\":\"ItineraryResult\",\"journeys\":[");
+        for (int j = 0; j < journeys; j++) {
+            if (j > 0) {
+                json.append(',');
+            }
+            json.append("{\"startDateTime\":\"2017-06-01T09:00:00\",\"duration\":")
+                    .append(20 + j)
+                    .append(",\"legs\":[");
+            for (int l = 0; l < 4; l++) {
+                if (l > 0) {
+                    json.append(',');
+                }
+                json.append("{\"duration\":").append(5 + l)
+                        .append(",\"summary\":\"Leg ").append(l).append(" of journey ").append(j)
+                        .append("\",\"path\":{\"lineString\":\"[");
+                for (int p = 0; p < 50; p++) {
+                    json.append(p > 0 ? "," : "")
+                            .append("[51.50").append(p).append(",-0.11").append(p).append(']');
+                }
+                json.append("]\",\"stopPoints\":[]}}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+}
@@ -0,0 +1,159 @@
+package com.frameworkium.core.api.services;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.ResponseSpecification;
+import org.openjdk.jmh.annotations.*;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.KeyStore;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second of {@link BaseService#request(String)} against a local
+ * stub server, with the pooled keep-alive client and with RestAssured's
+ * default client, which opens a new connection per request.
+ * <p>
+ * Over plain HTTP on loopback a new connection is almost free, so the
+ * <code>https</code> scheme, where every new connection costs a TLS
+ * handshake, is closer to a remote API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BaseServiceBenchmark {
+
+    private static final byte[] BODY =
+            "{\"id\":1,\"name\":\"Frameworkium\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final char[] PASSWORD = "benchmark".toCharArray();
+
+    @Param({"true", "false"})
+    public boolean pooled;
+
+    @Param({"http", "https"})
+    public String scheme;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private StubService service;
+
+    @Setup
+    public void setUp() throws Exception {
+        // respond without waiting for delayed ACKs on keep-alive connections
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 0);
+        if ("https".equals(scheme)) {
+            HttpsServer httpsServer = HttpsServer.create(address, 0);
+            httpsServer.setHttpsConfigurator(new HttpsConfigurator(createSslContext()));
+            server = httpsServer;
+        } else {
+            server = HttpServer.create(address, 0);
+        }
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(BODY);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        service = new StubService(
+                scheme + "://127.0.0.1:" + server.getAddress().getPort(), pooled);
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public String request() {
+        return service.request("/items/1").asString();
+    }
+
+    /** Uses the JDK's keytool to create a self-signed certificate. */
+    private static SSLContext createSslContext() throws Exception {
+        File keyStoreFile = File.createTempFile("benchmark", ".jks");
+        Files.delete(keyStoreFile.toPath());
+        keyStoreFile.deleteOnExit();
+        String keytool = Paths.get(System.getProperty("java.home"), "bin", "keytool").toString();
+        Process process = new ProcessBuilder(keytool,
+                "-genkeypair", "-alias", "benchmark", "-keyalg", "RSA", "-keysize", "2048",
+                "-dname", "CN=127.0.0.1", "-validity", "1",
+                "-keystore", keyStoreFile.getPath(), "-storetype", "JKS",
+                "-storepass", new String(PASSWORD), "-keypass", new String(PASSWORD))
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("keytool failed: " + process.exitValue());
+        }
+
+        KeyStore keyStore = KeyStore.getInstance("JKS");
+        try (InputStream in = new FileInputStream(keyStoreFile)) {
+            keyStore.load(in, PASSWORD);
+        }
+        KeyManagerFactory keyManagerFactory =
+                KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagerFactory.init(keyStore, PASSWORD);
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+        return sslContext;
+    }
+
+    private static class StubService extends BaseService {
+
+        private final RequestSpecification requestSpec;
+        private final ResponseSpecification responseSpec =
+                new ResponseSpecBuilder().expectStatusCode(200).build();
+        private final boolean pooled;
+
+        StubService(String baseUri, boolean pooled) {
+            this.requestSpec = new RequestSpecBuilder()
+                    .setBaseUri(baseUri)
+                    .setRelaxedHTTPSValidation()
+                    .build();
+            this.pooled = pooled;
+        }
+
+        @Override
+        protected RequestSpecification getRequestSpec() {
+            return requestSpec;
+        }
+
+        @Override
+        protected ResponseSpecification getResponseSpec() {
+            return responseSpec;
+        }
+
+        @Override
+        protected RestAssuredConfig getConfig() {
+            return pooled ? super.getConfig() : RestAssured.config();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.frameworkium.core.common.listeners;
+
+import com.frameworkium.core.common.reporting.TestIdUtilsBenchmark.SampleTests;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.testng.IMethodInstance;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.frameworkium.core.common.reporting.TestIdUtilsBenchmark.methodInstance;
+
+/**
+ * {@link MethodInterceptor#intercept(List, org.testng.ITestContext)} on a
+ * suite of 10,000 test methods, with and without JQL filtering.
+ * <p>
+ * JQL filtering queries a local stub of the JIRA search API returning
+ * 1,000 issues, as the properties are read once per JVM and JMH forks a
+ * JVM per parameter value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInterceptorBenchmark {
+
+    private static final int METHOD_COUNT = 10_000;
+    private static final int JIRA_ISSUE_COUNT = 1_000;
+
+    @Param({"NONE", "JQL"})
+    public String filter;
+
+    private final MethodInterceptor interceptor = new MethodInterceptor();
+    private List<IMethodInstance> methods;
+    private HttpServer jira;
+
+    @Setup
+    public void setUp() throws IOException {
+        if ("JQL".equals(filter)) {
+            jira = startStubJira();
+            System.setProperty("jiraURL", "http://127.0.0.1:" + jira.getAddress().getPort());
+            System.setProperty("jqlQuery", "project = BENCH");
+            System.setProperty("jiraUsername", "benchmark");
+            System.setProperty("jiraPassword", "benchmark");
+        }
+
+        Method[] sampleMethods = SampleTests.class.getDeclaredMethods();
+        methods = new ArrayList<>(METHOD_COUNT);
+        for (int i = 0; i < METHOD_COUNT; i++) {
+            methods.add(methodInstance(sampleMethods[i % sampleMethods.length]));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (jira != null) {
+            jira.stop(0);
+        }
+    }
+
+    @Benchmark
+    public List<IMethodInstance> intercept() {
+        return interceptor.intercept(methods, null);
+    }
+
+    /** Matching issue keys are last, the worst case for searching the keys. */
+    private static HttpServer startStubJira() throws IOException {
+        JSONArray issues = new JSONArray();
+        for (int i = 0; i < JIRA_ISSUE_COUNT - 3; i++) {
+            issues.put(new JSONObject().put("key", "OTHER-" + i));
+        }
+        for (int i = 1; i <= 3; i++) {
+            issues.put(new JSONObject().put("key", "BENCH-" + i));
+        }
+        byte[] body = new JSONObject().put("issues", issues).toString()
+                .getBytes(StandardCharsets.UTF_8);
+
+        HttpServer server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/rest/api/latest/search", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,65 @@
+package com.frameworkium.core.common.listeners;
+
+import com.frameworkium.core.common.events.TestEvent;
+import org.openjdk.jmh.annotations.*;
+import org.testng.ITestClass;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.internal.ConstructorOrMethod;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.frameworkium.benchmarks.Stubs.returning;
+import static com.frameworkium.benchmarks.Stubs.stub;
+
+/**
+ * {@link ResultLoggerListener#baseComment(TestEvent)}, built for every
+ * result logged to JIRA, ZAPI or Spira, for passing and failing tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultLoggerListenerBenchmark {
+
+    @Param({"PASS", "FAIL"})
+    public String outcome;
+
+    private final ResultLoggerListener listener = new ResultLoggerListener();
+    private TestEvent event;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Throwable throwable = "FAIL".equals(outcome)
+                ? new AssertionError("expected [true] but found [false]")
+                : null;
+        ITestResult result = stub(ITestResult.class, returning(
+                "getInstanceName", "com.example.tests.SearchTests",
+                "getTestClass", stub(ITestClass.class,
+                        returning("getName", "com.example.tests.SearchTests")),
+                "getMethod", stub(ITestNGMethod.class, returning(
+                        "getMethodName", "searchReturnsResults",
+                        "getConstructorOrMethod", new ConstructorOrMethod(
+                                SearchTests.class.getMethod("searchReturnsResults")))),
+                "getStartMillis", 1_000L,
+                "getEndMillis", 13_500L,
+                "getThrowable", throwable));
+        event = TestEvent.of(
+                throwable == null ? TestEvent.Type.SUCCESS : TestEvent.Type.FAILURE,
+                result);
+    }
+
+    @Benchmark
+    public String baseComment() {
+        return listener.baseComment(event);
+    }
+
+    /** The test the benchmarked results are for. */
+    public static class SearchTests {
+
+        public void searchReturnsResults() {
+        }
+    }
+}
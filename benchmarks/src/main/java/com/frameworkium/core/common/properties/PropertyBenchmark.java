@@ -0,0 +1,41 @@
+package com.frameworkium.core.common.properties;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Property} lookups, as made throughout a test run
+ * e.g. on every driver creation and every test result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dbrowser=chrome", "-DsutName=benchmark"})
+public class PropertyBenchmark {
+
+    @Param({"BROWSER", "GRID_URL"})
+    public Property property;
+
+    @Benchmark
+    public boolean isSpecified() {
+        return property.isSpecified();
+    }
+
+    @Benchmark
+    public String getValue() {
+        return property.getValue();
+    }
+
+    @Benchmark
+    public boolean wantToMaximise() {
+        return Property.wantToMaximise();
+    }
+
+    @Benchmark
+    public boolean allCapturePropertiesSpecified() {
+        return Property.allCapturePropertiesSpecified();
+    }
+}
@@ -0,0 +1,75 @@
+package com.frameworkium.core.common.reporting;
+
+import org.openjdk.jmh.annotations.*;
+import org.testng.IMethodInstance;
+import org.testng.ITestNGMethod;
+import org.testng.internal.ConstructorOrMethod;
+import ru.yandex.qatools.allure.annotations.Issue;
+import ru.yandex.qatools.allure.annotations.TestCaseId;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.frameworkium.benchmarks.Stubs.returning;
+import static com.frameworkium.benchmarks.Stubs.stub;
+
+/**
+ * {@link TestIdUtils#getIssueOrTestCaseIdValue(IMethodInstance)},
+ * called for every test method by listeners and the method interceptor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestIdUtilsBenchmark {
+
+    @Param({"issue", "testCaseId", "both", "none"})
+    public String annotations;
+
+    private IMethodInstance methodInstance;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        methodInstance = methodInstance(SampleTests.class.getMethod(annotations));
+    }
+
+    @Benchmark
+    public Optional<String> getIssueOrTestCaseIdValue() {
+        return TestIdUtils.getIssueOrTestCaseIdValue(methodInstance);
+    }
+
+    /**
+     * @param method the test method
+     * @return an {@link IMethodInstance} of the method, as TestNG would provide
+     */
+    public static IMethodInstance methodInstance(Method method) {
+        ITestNGMethod testNGMethod = stub(ITestNGMethod.class, returning(
+                "getConstructorOrMethod", new ConstructorOrMethod(method),
+                "getRealClass", method.getDeclaringClass(),
+                "getMethodName", method.getName()));
+        return stub(IMethodInstance.class, returning("getMethod", testNGMethod));
+    }
+
+    /** Test methods with each combination of test ID annotations. */
+    public static class SampleTests {
+
+        @Issue("BENCH-1")
+        public void issue() {
+        }
+
+        @TestCaseId("BENCH-2")
+        public void testCaseId() {
+        }
+
+        @Issue("BENCH-3")
+        @TestCaseId("BENCH-3")
+        public void both() {
+        }
+
+        public void none() {
+        }
+    }
+}
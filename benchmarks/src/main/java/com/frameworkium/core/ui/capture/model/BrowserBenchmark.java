@@ -0,0 +1,43 @@
+package com.frameworkium.core.ui.capture.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a user agent for each Capture execution compared with the cached
+ * {@link Browser#fromUserAgent(String)}, run with <code>-prof gc</code> to
+ * compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrowserBenchmark {
+
+    @Param({
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+                    + "(KHTML, like Gecko) Chrome/59.0.3071.115 Safari/537.36",
+            "Mozilla/5.0 (X11; Ubuntu; Linux x86_64; rv:54.0) Gecko/20100101 Firefox/54.0",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 10_3_2 like Mac OS X) AppleWebKit/603.2.4 "
+                    + "(KHTML, like Gecko) Version/10.0 Mobile/14F89 Safari/602.1"})
+    public String userAgent;
+
+    @Setup
+    public void setUp() {
+        // the parser's database is loaded once per JVM, not per test
+        Browser.parse(userAgent);
+    }
+
+    @Benchmark
+    public Browser parse() {
+        return Browser.parse(userAgent);
+    }
+
+    @Benchmark
+    public Browser fromUserAgent() {
+        return Browser.fromUserAgent(userAgent);
+    }
+}
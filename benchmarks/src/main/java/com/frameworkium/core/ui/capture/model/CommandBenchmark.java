@@ -0,0 +1,50 @@
+package com.frameworkium.core.ui.capture.model;
+
+import com.frameworkium.benchmarks.Stubs.Answer;
+import org.openjdk.jmh.annotations.*;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.frameworkium.benchmarks.Stubs.returning;
+import static com.frameworkium.benchmarks.Stubs.stub;
+
+/**
+ * {@link Command#Command(String, WebElement)} for elements identified by id,
+ * by link text and by tag name and class.
+ * <p>
+ * Each {@link WebElement} call is a remote call with a real driver,
+ * so the stub elements only measure the local overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBenchmark {
+
+    private final WebElement elementWithId = stub(WebElement.class,
+            returning("getAttribute", "search-box", "getText", "", "getTagName", "input"));
+    private final WebElement elementWithText = stub(WebElement.class,
+            returning("getAttribute", "", "getText", "Sign in", "getTagName", "a"));
+    private final WebElement elementWithClass = stub(WebElement.class,
+            returning("getAttribute", (Answer) args -> "class".equals(args[0])
+                            ? "btn btn-primary large" : "",
+                    "getText", "", "getTagName", "button"));
+
+    @Benchmark
+    public Command byId() {
+        return new Command("click", elementWithId);
+    }
+
+    @Benchmark
+    public Command byLinkText() {
+        return new Command("click", elementWithText);
+    }
+
+    @Benchmark
+    public Command byTagAndClass() {
+        return new Command("click", elementWithClass);
+    }
+}
@@ -0,0 +1,71 @@
+package com.frameworkium.core.ui.driver;
+
+import com.frameworkium.core.ui.driver.drivers.*;
+import com.frameworkium.core.ui.driver.stub.StubDom;
+import com.frameworkium.core.ui.driver.stub.StubWebDriverServer;
+import org.openjdk.jmh.annotations.*;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to start, and quit, a {@link Driver} per browser type.
+ * <p>
+ * By default only the in-JVM stub is measured, i.e. the framework's own
+ * driver set-up overhead. Real browsers, which must be installed, can be
+ * compared with e.g. <code>-Djmh.args="-p browser=CHROME,CHROME_HEADLESS"</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DriverStartupBenchmark {
+
+    @Param({"STUB"})
+    public String browser;
+
+    private StubWebDriverServer server;
+
+    @Setup
+    public void setUp() {
+        if ("STUB".equals(browser)) {
+            server = new StubWebDriverServer(new StubDom()).start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    @Benchmark
+    public Driver startAndQuit() {
+        Driver driver = createDriver();
+        driver.resetBrowser();
+        driver.tearDown();
+        return driver;
+    }
+
+    private Driver createDriver() {
+        switch (browser) {
+            case "STUB":
+                return new GridImpl(server.getUrl(), DesiredCapabilities.firefox());
+            case "FIREFOX":
+                return new FirefoxImpl();
+            case "FIREFOX_HEADLESS":
+                return new FirefoxHeadlessImpl();
+            case "CHROME":
+                return new ChromeImpl();
+            case "CHROME_HEADLESS":
+                return new ChromeHeadlessImpl();
+            case "PHANTOMJS":
+                return new PhantomJSImpl();
+            default:
+                throw new IllegalArgumentException("Unsupported browser: " + browser);
+        }
+    }
+}
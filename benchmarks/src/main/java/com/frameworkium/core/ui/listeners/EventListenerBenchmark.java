@@ -0,0 +1,63 @@
+package com.frameworkium.core.ui.listeners;
+
+import org.openjdk.jmh.annotations.*;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.frameworkium.benchmarks.Stubs.returning;
+import static com.frameworkium.benchmarks.Stubs.stub;
+
+/**
+ * {@link EventListener} callbacks, which run before and after every
+ * WebDriver command. Logging is at the default level, i.e. debug is off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventListenerBenchmark {
+
+    private static final String SCRIPT =
+            "arguments[0].scrollIntoView(true); return arguments[0].getBoundingClientRect();";
+
+    private final EventListener listener = new EventListener();
+    private final WebDriver driver = stub(WebDriver.class, returning());
+    private final WebElement element = stub(WebElement.class, returning("toString",
+            "[[RemoteWebDriver: firefox on LINUX (5f1b2c)] -> css selector: #search]"));
+    private final By by = By.cssSelector("#search");
+
+    @Benchmark
+    public void clickOn() {
+        listener.beforeClickOn(element, driver);
+        listener.afterClickOn(element, driver);
+    }
+
+    @Benchmark
+    public void changeValueOf() {
+        listener.beforeChangeValueOf(element, driver);
+        listener.afterChangeValueOf(element, driver);
+    }
+
+    @Benchmark
+    public void findBy() {
+        listener.beforeFindBy(by, null, driver);
+        listener.afterFindBy(by, null, driver);
+    }
+
+    @Benchmark
+    public void navigateTo() {
+        listener.beforeNavigateTo("http://example.com", driver);
+        listener.afterNavigateTo("http://example.com", driver);
+    }
+
+    @Benchmark
+    public void script() {
+        listener.beforeScript(SCRIPT, driver);
+        listener.afterScript(SCRIPT, driver);
+    }
+}
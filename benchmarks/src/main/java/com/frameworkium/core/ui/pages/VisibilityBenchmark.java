@@ -0,0 +1,94 @@
+package com.frameworkium.core.ui.pages;
+
+import com.frameworkium.core.ui.annotations.ForceVisible;
+import com.frameworkium.core.ui.annotations.Invisible;
+import com.frameworkium.core.ui.annotations.Visible;
+import com.google.common.base.Function;
+import org.openjdk.jmh.annotations.*;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Wait;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.frameworkium.benchmarks.Stubs.returning;
+import static com.frameworkium.benchmarks.Stubs.stub;
+
+/**
+ * {@link Visibility#waitForAnnotatedElementVisibility(Object)} on page
+ * objects whose elements are already in the expected state, i.e. the
+ * framework's own reflection and annotation overhead per page load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisibilityBenchmark {
+
+    private static final WebElement DISPLAYED =
+            stub(WebElement.class, returning("isDisplayed", true));
+    private static final WebElement HIDDEN =
+            stub(WebElement.class, returning("isDisplayed", false));
+
+    /** A typical page object: mostly un-annotated with a few visibility checks. */
+    public static class TypicalPage {
+        @Visible
+        WebElement header = DISPLAYED;
+        @Visible
+        WebElement search = DISPLAYED;
+        @Visible
+        List<WebElement> links = Arrays.asList(DISPLAYED, DISPLAYED, DISPLAYED);
+        @Invisible
+        WebElement spinner = HIDDEN;
+        @ForceVisible
+        WebElement menu = DISPLAYED;
+        WebElement footer = DISPLAYED;
+        WebElement sidebar = DISPLAYED;
+        WebElement submit = DISPLAYED;
+        List<WebElement> rows = Arrays.asList(DISPLAYED, DISPLAYED);
+        String title = "not an element";
+    }
+
+    /** A page object without any visibility annotations. */
+    public static class UnannotatedPage {
+        WebElement header = DISPLAYED;
+        WebElement search = DISPLAYED;
+        WebElement footer = DISPLAYED;
+        List<WebElement> links = Arrays.asList(DISPLAYED, DISPLAYED);
+    }
+
+    private final TypicalPage typicalPage = new TypicalPage();
+    private final UnannotatedPage unannotatedPage = new UnannotatedPage();
+    private Visibility visibility;
+
+    @Setup
+    public void setUp() {
+        visibility = new Visibility(new ImmediateWait(),
+                stub(JavascriptExecutor.class, returning()));
+    }
+
+    @Benchmark
+    public Object typicalPage() {
+        visibility.waitForAnnotatedElementVisibility(typicalPage);
+        return typicalPage;
+    }
+
+    @Benchmark
+    public Object unannotatedPage() {
+        visibility.waitForAnnotatedElementVisibility(unannotatedPage);
+        return unannotatedPage;
+    }
+
+    /** Evaluates the condition once, without polling or sleeping. */
+    private static class ImmediateWait implements Wait<WebDriver> {
+        @Override
+        public <T> T until(Function<? super WebDriver, T> isTrue) {
+            return isTrue.apply(null);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.frameworkium.core.api.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.frameworkium.core.common.properties.Property.*;
+
+/**
+ * Records, replays or caches responses of API requests, selected by the
+ * <code>apiCache</code> property:
+ * <ul>
+ * <li><code>record</code> requests are sent and their responses written to
+ * <code>apiCacheFile</code>, default <code>api-cache.bin</code></li>
+ * <li><code>replay</code> responses are read from <code>apiCacheFile</code>,
+ * no requests are sent</li>
+ * <li><code>cache</code> responses to GET requests are kept in memory and
+ * reused for <code>apiCacheTtl</code> seconds, default 300, up to
+ * <code>apiCacheMaxEntries</code> responses, default 1000</li>
+ * </ul>
+ * Requests are matched by method, URI including query parameters, form
+ * parameters and a hash of the body.
+ * <p>
+ * The recording file is closed by {@link #close()}, or when the JVM exits.
+ */
+public final class RecordReplayFilter implements Filter {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String DEFAULT_FILE = "api-cache.bin";
+    private static final long DEFAULT_TTL_SECONDS = 300;
+    private static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    public enum Mode {
+        OFF, RECORD, REPLAY, CACHE
+    }
+
+    private final Mode mode;
+    private final ResponseStore store;
+    private final Cache<String, RecordedResponse> memoryCache;
+
+    /**
+     * @param mode      how responses are recorded, replayed or cached
+     * @param file      the file to record to or replay from
+     * @param ttlMillis how long GET responses are cached in memory
+     */
+    public RecordReplayFilter(Mode mode, Path file, long ttlMillis) {
+        this(mode, file, ttlMillis, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param mode       how responses are recorded, replayed or cached
+     * @param file       the file to record to or replay from
+     * @param ttlMillis  how long GET responses are cached in memory
+     * @param maxEntries the most GET responses cached in memory
+     */
+    public RecordReplayFilter(Mode mode, Path file, long ttlMillis, int maxEntries) {
+        this.mode = mode;
+        this.memoryCache = CacheBuilder.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .build();
+        try {
+            switch (mode) {
+                case RECORD:
+                    store = ResponseStore.createForRecording(file);
+                    logger.info("Recording API responses to {}", file);
+                    break;
+                case REPLAY:
+                    store = ResponseStore.openForReplay(file);
+                    logger.info("Replaying {} API responses from {}", store.size(), file);
+                    break;
+                default:
+                    store = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open API cache " + file, e);
+        }
+    }
+
+    /** @return true if the <code>apiCache</code> property enables the filter */
+    public static boolean isEnabled() {
+        return Holder.INSTANCE.mode != Mode.OFF;
+    }
+
+    /** @return the filter configured by the <code>apiCache</code> properties */
+    public static RecordReplayFilter getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /** Closes the recording file, after which no more responses can be recorded. */
+    public void close() {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close API cache " + store.getPath(), e);
+        }
+    }
+
+    @Override
+    public Response filter(
+            FilterableRequestSpecification requestSpec,
+            FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+
+        switch (mode) {
+            case RECORD:
+                return record(requestSpec, responseSpec, ctx);
+            case REPLAY:
+                return replay(requestSpec);
+            case CACHE:
+                return cache(requestSpec, responseSpec, ctx);
+            default:
+                return ctx.next(requestSpec, responseSpec);
+        }
+    }
+
+    private Response record(
+            FilterableRequestSpecification requestSpec,
+            FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+
+        Response response = ctx.next(requestSpec, responseSpec);
+        RecordedResponse recorded = RecordedResponse.of(response);
+        try {
+            store.put(key(requestSpec), recorded);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to record response to " + store.getPath(), e);
+        }
+        return recorded.toResponse(requestSpec.getConfig());
+    }
+
+    private Response replay(FilterableRequestSpecification requestSpec) {
+        return store.get(key(requestSpec))
+                .map(recorded -> recorded.toResponse(requestSpec.getConfig()))
+                .orElseThrow(() -> new IllegalStateException(String.format(
+                        "No recorded response for %s %s in %s",
+                        requestSpec.getMethod(), requestSpec.getURI(), store.getPath())));
+    }
+
+    private Response cache(
+            FilterableRequestSpecification requestSpec,
+            FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+
+        if (!"GET".equalsIgnoreCase(requestSpec.getMethod())) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        String key = key(requestSpec);
+        RecordedResponse cached = memoryCache.getIfPresent(key);
+        if (cached != null) {
+            return cached.toResponse(requestSpec.getConfig());
+        }
+        RecordedResponse recorded = RecordedResponse.of(ctx.next(requestSpec, responseSpec));
+        memoryCache.put(key, recorded);
+        return recorded.toResponse(requestSpec.getConfig());
+    }
+
+    /**
+     * @return a hash of method, URI, form params and body identifying the
+     * request
+     */
+    static String key(FilterableRequestSpecification requestSpec) {
+        StringBuilder key = new StringBuilder()
+                .append(requestSpec.getMethod().toUpperCase()).append('\n')
+                .append(requestSpec.getURI()).append('\n');
+        Map<String, String> formParams = new TreeMap<>(requestSpec.getFormParams());
+        formParams.forEach((name, value) ->
+                key.append(name).append('=').append(value).append('&'));
+        key.append('\n');
+        Object body = requestSpec.getBody();
+        if (body instanceof byte[]) {
+            key.append(Hashing.sha256().hashBytes((byte[]) body));
+        } else if (body != null) {
+            key.append(Hashing.sha256().hashString(body.toString(), StandardCharsets.UTF_8));
+        }
+        return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * @param value the <code>apiCache</code> property, in any case
+     * @return the mode, or OFF, with a warning, if the value is not a mode
+     */
+    static Mode parseMode(String value) {
+        try {
+            return Mode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown apiCache '{}', expected one of {}, so the API cache is off",
+                    value, Arrays.toString(Mode.values()));
+            return Mode.OFF;
+        }
+    }
+
+    private static long parseLong(String name, String value, long defaultValue) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("{} '{}' is not a number, using {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /** Created, from the properties, on first use. */
+    private static final class Holder {
+
+        private static final RecordReplayFilter INSTANCE = fromProperties();
+
+        static {
+            if (INSTANCE.mode == Mode.RECORD) {
+                Runtime.getRuntime().addShutdownHook(
+                        new Thread(Holder::close, "api-cache-close"));
+            }
+        }
+
+        private static RecordReplayFilter fromProperties() {
+            Mode mode = API_CACHE.isSpecified()
+                    ? parseMode(API_CACHE.getValue())
+                    : Mode.OFF;
+            Path file = Paths.get(API_CACHE_FILE.isSpecified()
+                    ? API_CACHE_FILE.getValue()
+                    : DEFAULT_FILE);
+            long ttlSeconds = API_CACHE_TTL.isSpecified()
+                    ? parseLong("apiCacheTtl", API_CACHE_TTL.getValue(), DEFAULT_TTL_SECONDS)
+                    : DEFAULT_TTL_SECONDS;
+            long maxEntries = API_CACHE_MAX_ENTRIES.isSpecified()
+                    ? parseLong("apiCacheMaxEntries", API_CACHE_MAX_ENTRIES.getValue(),
+                    DEFAULT_MAX_ENTRIES)
+                    : DEFAULT_MAX_ENTRIES;
+            return new RecordReplayFilter(
+                    mode, file, TimeUnit.SECONDS.toMillis(ttlSeconds), (int) maxEntries);
+        }
+
+        private static void close() {
+            try {
+                INSTANCE.close();
+            } catch (UncheckedIOException e) {
+                logger.warn("Recorded API responses may be incomplete", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.frameworkium.core.api.cache;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.response.Response;
+
+import java.util.List;
+
+/** An immutable copy of a response, which can be rebuilt any number of times. */
+final class RecordedResponse {
+
+    private final long recordedAt;
+    private final int statusCode;
+    private final String statusLine;
+    private final List<Header> headers;
+    private final byte[] body;
+
+    RecordedResponse(
+            long recordedAt,
+            int statusCode,
+            String statusLine,
+            List<Header> headers,
+            byte[] body) {
+
+        this.recordedAt = recordedAt;
+        this.statusCode = statusCode;
+        this.statusLine = statusLine;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    static RecordedResponse of(Response response) {
+        return new RecordedResponse(
+                System.currentTimeMillis(),
+                response.getStatusCode(),
+                response.getStatusLine(),
+                response.getHeaders().asList(),
+                response.asByteArray());
+    }
+
+    /**
+     * @param config the config of the request, used to e.g. deserialise
+     * @return a new response with the recorded status, headers and body
+     */
+    Response toResponse(RestAssuredConfig config) {
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(statusCode)
+                .setStatusLine(statusLine)
+                .setHeaders(new Headers(headers))
+                .setBody(body);
+        String contentType = new Headers(headers).getValue("Content-Type");
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        Response response = builder.build();
+        // ResponseBuilder in RestAssured 3.0 does not set the config
+        if (response instanceof RestAssuredResponseOptionsImpl) {
+            RestAssuredResponseOptionsImpl<?> options = (RestAssuredResponseOptionsImpl<?>) response;
+            options.setConfig(config);
+            options.setDecoderConfig(config.getDecoderConfig());
+        }
+        return response;
+    }
+
+    long getRecordedAt() {
+        return recordedAt;
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    String getStatusLine() {
+        return statusLine;
+    }
+
+    List<Header> getHeaders() {
+        return headers;
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,196 @@
+package com.frameworkium.core.api.cache;
+
+import io.restassured.http.Header;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * An append-only file of recorded responses.
+ * <p>
+ * The file starts with a header, followed by records of:
+ * <pre>
+ * int length, of the rest of the record
+ * string key
+ * long recordedAt, int statusCode, string statusLine
+ * int headerCount, (string name, string value) * headerCount
+ * int bodyLength, byte[] body
+ * </pre>
+ * where a string is an int length followed by UTF-8 bytes.
+ * <p>
+ * For replay, the file is memory-mapped and indexed by key once, then
+ * responses are decoded from the mapped file as requested. The last record
+ * for a key wins.
+ * <p>
+ * A recording store must be closed, so the file is forced to disk.
+ */
+final class ResponseStore implements Closeable {
+
+    private static final int MAGIC = 0x46574B43; // FWKC
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer mapped;
+    private final Map<String, Integer> index;
+
+    private ResponseStore(
+            Path path, FileChannel channel, ByteBuffer mapped, Map<String, Integer> index) {
+
+        this.path = path;
+        this.channel = channel;
+        this.mapped = mapped;
+        this.index = index;
+    }
+
+    /**
+     * Creates a new, empty, store replacing any existing file.
+     *
+     * @param path the file to write
+     * @return a store to which responses can be written
+     * @throws IOException if the file cannot be created
+     */
+    static ResponseStore createForRecording(Path path) throws IOException {
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        FileChannel channel = FileChannel.open(path, CREATE, TRUNCATE_EXISTING, WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        channel.write(header);
+        return new ResponseStore(path, channel, null, null);
+    }
+
+    /**
+     * Maps and indexes an existing store.
+     *
+     * @param path the file previously recorded
+     * @return a store from which responses can be read
+     * @throws IOException if the file cannot be read or is not a store
+     */
+    static ResponseStore openForReplay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.remaining() < HEADER_BYTES
+                    || mapped.getInt() != MAGIC
+                    || mapped.getInt() != VERSION) {
+                throw new IOException("Not a recorded response file: " + path);
+            }
+            Map<String, Integer> index = new HashMap<>();
+            while (mapped.hasRemaining()) {
+                int offset = mapped.position();
+                int length = mapped.getInt();
+                index.put(readString(mapped), offset);
+                mapped.position(offset + Integer.BYTES + length);
+            }
+            return new ResponseStore(path, null, mapped, index);
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /** @return the number of distinct recorded keys, when replaying */
+    int size() {
+        return index.size();
+    }
+
+    /**
+     * @param key the request key
+     * @return the recorded response, if any
+     */
+    Optional<RecordedResponse> get(String key) {
+        Integer offset = index.get(key);
+        if (offset == null) {
+            return Optional.empty();
+        }
+        // duplicate so concurrent reads have independent positions
+        ByteBuffer buffer = mapped.duplicate();
+        buffer.position(offset + Integer.BYTES);
+        readString(buffer); // key
+        long recordedAt = buffer.getLong();
+        int statusCode = buffer.getInt();
+        String statusLine = readString(buffer);
+        int headerCount = buffer.getInt();
+        List<Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new Header(readString(buffer), readString(buffer)));
+        }
+        byte[] body = new byte[buffer.getInt()];
+        buffer.get(body);
+        return Optional.of(new RecordedResponse(
+                recordedAt, statusCode, statusLine, headers, body));
+    }
+
+    /**
+     * Appends the response to the file.
+     *
+     * @param key      the request key
+     * @param response the response to record
+     * @throws IOException if the response cannot be written
+     */
+    synchronized void put(String key, RecordedResponse response) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                response.getBody().length + 512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length, set below
+        writeString(out, key);
+        out.writeLong(response.getRecordedAt());
+        out.writeInt(response.getStatusCode());
+        writeString(out, response.getStatusLine());
+        out.writeInt(response.getHeaders().size());
+        for (Header header : response.getHeaders()) {
+            writeString(out, header.getName());
+            writeString(out, header.getValue());
+        }
+        out.writeInt(response.getBody().length);
+        out.write(response.getBody());
+
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        record.putInt(0, record.remaining() - Integer.BYTES);
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * Forces the recorded responses to disk and closes the file. Does nothing
+     * when replaying, as the mapped file needs no closing.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            try {
+                channel.force(true);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value == null
+                ? new byte[0]
+                : value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
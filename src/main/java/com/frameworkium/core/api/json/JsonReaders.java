@@ -0,0 +1,127 @@
+package com.frameworkium.core.api.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Deserialises JSON directly from a stream, without first reading it into a
+ * String or tree, using a Jackson {@link ObjectReader} cached per type.
+ */
+public final class JsonReaders {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ConcurrentMap<Class<?>, ObjectReader> READERS =
+            new ConcurrentHashMap<>();
+
+    private JsonReaders() {
+        // static only
+    }
+
+    /**
+     * @param type the type to read
+     * @return the shared, thread-safe, reader for the type
+     */
+    public static ObjectReader readerFor(Class<?> type) {
+        return READERS.computeIfAbsent(type, MAPPER::readerFor);
+    }
+
+    /**
+     * Reads the whole stream as the given type and closes it.
+     *
+     * @param json the JSON stream
+     * @param type the type to read
+     * @param <T>  the type to read
+     * @return the deserialised object
+     */
+    public static <T> T read(InputStream json, Class<T> type) {
+        try (InputStream in = json) {
+            return readerFor(type).readValue(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads only the value at the <a href="https://tools.ietf.org/html/rfc6901">
+     * JSON Pointer</a>, e.g. <code>/journeys/0/duration</code>, and closes the
+     * stream. Subtrees before the value are skipped without being deserialised
+     * and the rest of the stream is not parsed.
+     *
+     * @param json        the JSON stream
+     * @param jsonPointer the JSON Pointer of the value to read
+     * @param type        the type to read
+     * @param <T>         the type to read
+     * @return the deserialised value or null if there is no value at the pointer
+     */
+    public static <T> T read(InputStream json, String jsonPointer, Class<T> type) {
+        JsonPointer pointer = JsonPointer.compile(jsonPointer);
+        try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            parser.nextToken();
+            return moveTo(parser, pointer)
+                    ? readerFor(type).readValue(parser)
+                    : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Advances the parser, from the current token, to the first token of
+     * the value at the pointer.
+     *
+     * @return false if there is no value at the pointer
+     */
+    private static boolean moveTo(JsonParser parser, JsonPointer pointer) throws IOException {
+        for (JsonPointer segment = pointer; !segment.matches(); segment = segment.tail()) {
+            JsonToken token = parser.getCurrentToken();
+            if (token == JsonToken.START_OBJECT) {
+                if (!moveToField(parser, segment.getMatchingProperty())) {
+                    return false;
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                if (!moveToIndex(parser, segment.getMatchingIndex())) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean moveToField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            boolean matches = name.equals(parser.getCurrentName());
+            parser.nextToken();
+            if (matches) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static boolean moveToIndex(JsonParser parser, int index) throws IOException {
+        if (index < 0) {
+            return false;
+        }
+        JsonToken token;
+        for (int i = 0; (token = parser.nextToken()) != null && token != JsonToken.END_ARRAY; i++) {
+            if (i == index) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+}
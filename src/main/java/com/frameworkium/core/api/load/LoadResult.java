@@ -0,0 +1,146 @@
+package com.frameworkium.core.api.load;
+
+import org.HdrHistogram.Histogram;
+import ru.yandex.qatools.allure.annotations.Attachment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/** The latency, in microseconds, and throughput of a {@link LoadRunner} run. */
+public class LoadResult {
+
+    static final String CSV_HEADER = "name,model,count,errors,dropped,throughput_per_s,"
+            + "min_ms,mean_ms,p50_ms,p90_ms,p99_ms,p99.9_ms,max_ms";
+
+    private final String name;
+    private final String model;
+    private final Histogram histogram;
+    private final long errors;
+    private final long dropped;
+    private final long durationNanos;
+
+    LoadResult(String name, String model, Histogram histogram,
+            long errors, long dropped, long durationNanos) {
+        this.name = name;
+        this.model = model;
+        this.histogram = histogram.copy();
+        this.errors = errors;
+        this.dropped = dropped;
+        this.durationNanos = durationNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** @return a copy of the latencies of successful operations, in microseconds */
+    public Histogram getHistogram() {
+        return histogram.copy();
+    }
+
+    /** @return the number of successful operations recorded */
+    public long getCount() {
+        return histogram.getTotalCount();
+    }
+
+    /** @return the number of operations which failed, including those dropped */
+    public long getErrorCount() {
+        return errors;
+    }
+
+    /** @return the number of operations which had not completed by the completion timeout */
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    /** @return successful operations per second */
+    public double getThroughput() {
+        return histogram.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / durationNanos;
+    }
+
+    /**
+     * @param percentile the percentile, e.g. 99.9
+     * @return the latency at the percentile in milliseconds
+     */
+    public double getLatencyMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /** @return a CSV row of the summary, see {@link #CSV_HEADER} */
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                name, model, getCount(), errors, dropped, getThroughput(),
+                histogram.getMinValue() / 1000.0,
+                histogram.getMean() / 1000.0,
+                getLatencyMillis(50),
+                getLatencyMillis(90),
+                getLatencyMillis(99),
+                getLatencyMillis(99.9),
+                histogram.getMaxValue() / 1000.0);
+    }
+
+    /**
+     * Appends the summary to the CSV file, writing the header if the file is
+     * new, so results of several runs can be collected in one file.
+     *
+     * @param csv the file to append to
+     */
+    public void appendTo(Path csv) {
+        try {
+            boolean exists = Files.exists(csv) && Files.size(csv) > 0;
+            String rows = (exists ? "" : CSV_HEADER + "\n") + toCsvRow() + "\n";
+            Files.write(csv, rows.getBytes(StandardCharsets.UTF_8), CREATE, APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write " + csv, e);
+        }
+    }
+
+    /**
+     * Attaches the summary CSV and the HdrHistogram percentile distribution,
+     * which can be plotted with HdrHistogram's plotter, to the Allure report.
+     */
+    public void attachToAllure() {
+        attachSummary(name, CSV_HEADER + "\n" + toCsvRow() + "\n");
+        attachDistribution(name, getPercentileDistribution());
+    }
+
+    /** @return the percentile distribution in milliseconds */
+    public String getPercentileDistribution() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(bytes, false, "UTF-8")) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+            out.flush();
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Attachment(value = "Load {0} summary", type = "text/csv")
+    private static String attachSummary(String name, String csv) {
+        return csv;
+    }
+
+    @Attachment(value = "Load {0} latency distribution", type = "text/plain")
+    private static String attachDistribution(String name, String distribution) {
+        return distribution;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s (%s): %d ok, %d errors, %d dropped, %.1f/s, p50 %.1fms, p99 %.1fms, max %.1fms",
+                name, model, getCount(), errors, dropped, getThroughput(),
+                getLatencyMillis(50), getLatencyMillis(99), histogram.getMaxValue() / 1000.0);
+    }
+}
@@ -0,0 +1,300 @@
+package com.frameworkium.core.api.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives an operation, typically a method of a
+ * {@link com.frameworkium.core.api.services.BaseService}, for a duration and
+ * records its latency. For example:
+ * <pre><code>
+ * LoadResult result = new LoadRunner("itinerary",
+ *         () -&gt; new ItineraryService().getNationalItinerary(from, to))
+ *         .atRate(20)
+ *         .forDuration(30, TimeUnit.SECONDS)
+ *         .run();
+ * </code></pre>
+ * <ul>
+ * <li>Open model, {@link #atRate(double)}: operations start at a fixed rate,
+ * regardless of how long earlier operations take. Latency is measured from
+ * when each operation should have started, so queueing behind slow
+ * operations is included, i.e. it is free of coordinated omission.</li>
+ * <li>Closed model, {@link #withConcurrency(int)}: a fixed number of threads
+ * each start the next operation as soon as the previous one completes.</li>
+ * </ul>
+ * Operations which throw are counted as errors, and not recorded as latency.
+ * Operations which have not completed within the completion timeout, default
+ * 30s, after the duration are dropped and also counted as errors.
+ */
+public class LoadRunner {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int DEFAULT_MAX_CONCURRENCY = 64;
+    private static final long DEFAULT_COMPLETION_TIMEOUT_SECONDS = 30;
+
+    private final String name;
+    private final Callable<?> operation;
+
+    private double ratePerSecond;
+    private int concurrency = 1;
+    private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+    private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+    private long warmupNanos;
+    private long completionTimeoutNanos =
+            TimeUnit.SECONDS.toNanos(DEFAULT_COMPLETION_TIMEOUT_SECONDS);
+
+    /**
+     * @param name      the name of the operation, used in results
+     * @param operation the operation to run, e.g. a service method
+     */
+    public LoadRunner(String name, Callable<?> operation) {
+        this.name = name;
+        this.operation = operation;
+    }
+
+    /**
+     * Use the open model, starting operations at the given rate.
+     *
+     * @param ratePerSecond the number of operations to start per second
+     * @return this
+     */
+    public LoadRunner atRate(double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    /**
+     * Use the closed model, running the given number of operations at once.
+     *
+     * @param concurrency the number of concurrent operations
+     * @return this
+     */
+    public LoadRunner withConcurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        this.ratePerSecond = 0;
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * For the open model, the most operations which may run at once, others
+     * wait, counting towards their latency. Default 64.
+     *
+     * @param maxConcurrency the number of threads running operations
+     * @return this
+     */
+    public LoadRunner withMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * @param duration how long to start operations for, excluding warm-up
+     * @param unit     the unit of duration
+     * @return this
+     */
+    public LoadRunner forDuration(long duration, TimeUnit unit) {
+        this.durationNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * @param warmup how long to run operations before recording latency
+     * @param unit   the unit of warmup
+     * @return this
+     */
+    public LoadRunner withWarmup(long warmup, TimeUnit unit) {
+        this.warmupNanos = unit.toNanos(warmup);
+        return this;
+    }
+
+    /**
+     * How long to wait, after the duration, for started operations to
+     * complete. Operations still running or queued then are dropped and
+     * counted as errors. Default 30s.
+     *
+     * @param timeout the most time to wait for operations to complete
+     * @param unit    the unit of timeout
+     * @return this
+     */
+    public LoadRunner withCompletionTimeout(long timeout, TimeUnit unit) {
+        this.completionTimeoutNanos = unit.toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * Runs the operation, blocking until the duration has elapsed and
+     * started operations have completed, or have been dropped.
+     *
+     * @return the recorded latencies and throughput
+     */
+    public LoadResult run() {
+        Stats stats = new Stats();
+        long start = System.nanoTime();
+        long recordFrom = start + warmupNanos;
+        long end = recordFrom + durationNanos;
+
+        if (ratePerSecond > 0) {
+            runOpenModel(stats, start, recordFrom, end);
+        } else {
+            runClosedModel(stats, recordFrom, end);
+        }
+
+        LoadResult result = new LoadResult(name, describeModel(), stats.histogram,
+                stats.errors.get(), stats.dropped.get(), durationNanos);
+        logger.info(result);
+        return result;
+    }
+
+    private void runOpenModel(Stats stats, long start, long recordFrom, long end) {
+
+        ExecutorService workers = Executors.newFixedThreadPool(
+                maxConcurrency, new LoadThreadFactory(name));
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        try {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart >= end) {
+                    break;
+                }
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean record = intendedStart >= recordFrom;
+                workers.execute(new Operation(stats, intendedStart, record));
+            }
+        } finally {
+            awaitCompletion(workers, stats);
+        }
+    }
+
+    private void runClosedModel(Stats stats, long recordFrom, long end) {
+
+        ExecutorService workers = Executors.newFixedThreadPool(
+                concurrency, new LoadThreadFactory(name));
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(() -> {
+                    long operationStart;
+                    while ((operationStart = System.nanoTime()) < end) {
+                        new Operation(stats, operationStart, operationStart >= recordFrom)
+                                .run();
+                    }
+                });
+            }
+        } finally {
+            awaitCompletion(workers, stats);
+        }
+    }
+
+    private void awaitCompletion(ExecutorService workers, Stats stats) {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(completionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                drop(workers.shutdownNow(), stats);
+            }
+        } catch (InterruptedException e) {
+            drop(workers.shutdownNow(), stats);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Counts the queued and running operations as dropped, so as errors. */
+    private void drop(List<Runnable> queued, Stats stats) {
+        long dropped = queued.stream()
+                .filter(runnable -> runnable instanceof Operation
+                        && ((Operation) runnable).record)
+                .count();
+        for (Operation running : stats.running) {
+            // whichever of this and the operation removes it, records it
+            if (stats.running.remove(running)) {
+                dropped++;
+            }
+        }
+        stats.dropped.addAndGet(dropped);
+        stats.errors.addAndGet(dropped);
+        logger.warn("{} operations of {} did not complete within {}ms, counted as errors",
+                dropped, name, TimeUnit.NANOSECONDS.toMillis(completionTimeoutNanos));
+    }
+
+    private String describeModel() {
+        return ratePerSecond > 0
+                ? String.format("open %s/s", ratePerSecond)
+                : String.format("closed %d", concurrency);
+    }
+
+    /** The results of one run, shared by the threads running operations. */
+    private static final class Stats {
+
+        private final Histogram histogram = new ConcurrentHistogram(3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final Set<Operation> running = ConcurrentHashMap.newKeySet();
+    }
+
+    /** One call of the operation, recorded once, unless it is dropped. */
+    private final class Operation implements Runnable {
+
+        private final Stats stats;
+        private final long startNanos;
+        private final boolean record;
+
+        private Operation(Stats stats, long startNanos, boolean record) {
+            this.stats = stats;
+            this.startNanos = startNanos;
+            this.record = record;
+        }
+
+        @Override
+        public void run() {
+            if (record) {
+                stats.running.add(this);
+            }
+            try {
+                operation.call();
+                if (record && stats.running.remove(this)) {
+                    stats.histogram.recordValue(
+                            TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+                }
+            } catch (Exception | AssertionError e) {
+                if (record && stats.running.remove(this)) {
+                    stats.errors.incrementAndGet();
+                }
+                logger.debug("Operation {} failed", name, e);
+            }
+        }
+    }
+
+    private static final class LoadThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private LoadThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "load-" + name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package com.frameworkium.core.api.services;
 
+import com.frameworkium.core.api.cache.RecordReplayFilter;
+import com.frameworkium.core.api.json.JsonReaders;
+import com.frameworkium.core.common.http.PooledHttpClient;
+import com.frameworkium.core.common.reporting.allure.DeferredSteps;
 import com.google.common.collect.ImmutableMap;
+import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.Method;
 import io.restassured.response.ExtractableResponse;
 import io.restassured.specification.RequestSpecification;
@@ -8,32 +14,83 @@ import io.restassured.specification.ResponseSpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
 
 public abstract class BaseService {
 
+    private static final int MAX_CONNECTIONS_PER_HOST = 20;
+    private static final int MAX_CONNECTIONS = 100;
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 0;
+
+    /** One connection pool per service class, shared between threads. */
+    private static final ConcurrentMap<Class<?>, PooledHttpClient> CLIENTS =
+            new ConcurrentHashMap<>();
+
+    /** Bounded so asynchronous requests do not wait for pooled connections. */
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            MAX_CONNECTIONS_PER_HOST, new RequestThreadFactory());
+
     protected final Logger logger = LogManager.getLogger();
 
     /**
      * Used to define the RequestSpecification common to all operations
      * defined in the given service. For example:
-     * <pre><code>RestAssured.given().proxy(...)</code></pre>
+     * <pre><code>new RequestSpecBuilder().setBaseUri(...).build()</code></pre>
+     * <p>
+     * The specification is only read, never modified, so an immutable
+     * specification built once may be returned and shared between threads.
      *
      * @return the RestAssured RequestSpecification with appropriate defaults
      */
     protected abstract RequestSpecification getRequestSpec();
 
     /**
-     * Used to define the RequestSpecification common to all operations
+     * Used to define the ResponseSpecification common to all operations
      * defined in the given service. For example:
-     * <pre>
-     *     <code>getDefaultRequestSpecification().then().response().statusCode(200);</code>
-     * </pre>
+     * <pre><code>new ResponseSpecBuilder().expectStatusCode(200).build()</code></pre>
+     * <p>
+     * As with {@link #getRequestSpec()}, this may be built once and shared.
      *
      * @return the RestAssured ResponseSpecification with appropriate defaults
      */
     protected abstract ResponseSpecification getResponseSpec();
 
+    /**
+     * The config used for every request of this service. By default, a
+     * keep-alive connection pool is shared by all instances of the service
+     * class, so tests running in parallel reuse connections.
+     *
+     * @return the RestAssured config to use for requests
+     */
+    protected RestAssuredConfig getConfig() {
+        return CLIENTS.computeIfAbsent(getClass(), serviceClass ->
+                new PooledHttpClient(
+                        MAX_CONNECTIONS_PER_HOST,
+                        MAX_CONNECTIONS,
+                        CONNECT_TIMEOUT_MILLIS,
+                        READ_TIMEOUT_MILLIS,
+                        false))
+                .getConfig();
+    }
+
+    /**
+     * The executor used for asynchronous requests. By default, a bounded
+     * thread pool shared by all services.
+     *
+     * @return the executor to run asynchronous requests
+     */
+    protected Executor getExecutor() {
+        return EXECUTOR;
+    }
+
     /**
      * Performs GET request of the URL.
      *
@@ -64,7 +121,156 @@ public abstract class BaseService {
      * @return The response from the request
      */
     protected ExtractableResponse request(Method method, Map<String, ?> params, String url) {
-        return getRequestSpec()
+        DeferredSteps.log();
+        return send(method, params, url);
+    }
+
+    /**
+     * Performs GET request of the URL on another thread.
+     *
+     * @param url the url to get
+     * @return a future of the response from the request
+     * @see #requestAsync(Method, Map, String)
+     */
+    protected CompletableFuture<ExtractableResponse> requestAsync(String url) {
+        return requestAsync(ImmutableMap.of(), url);
+    }
+
+    /**
+     * Performs GET request of the URL with parameters on another thread.
+     *
+     * @param params the GET parameters
+     * @param url    the URL to GET
+     * @return a future of the response from the request
+     * @see #requestAsync(Method, Map, String)
+     */
+    protected CompletableFuture<ExtractableResponse> requestAsync(
+            Map<String, ?> params, String url) {
+        return requestAsync(Method.GET, params, url);
+    }
+
+    /**
+     * Performs specified HTTP verb request of the URL with parameters on
+     * another thread, see {@link #getExecutor()}.
+     * <p>
+     * The response is validated against {@link #getResponseSpec()}, if it
+     * fails the future completes exceptionally.
+     * <p>
+     * Allure steps are per thread, so the request is logged to Allure, with
+     * its timing, by this thread when it calls <code>join()</code> or
+     * <code>get()</code> of the returned future, makes another request, or,
+     * at the latest, when the test ends, see {@link DeferredSteps}.
+     *
+     * @param method the HTTP method to request
+     * @param params the request parameters
+     * @param url    the URL to request
+     * @return a future of the response from the request
+     */
+    protected CompletableFuture<ExtractableResponse> requestAsync(
+            Method method, Map<String, ?> params, String url) {
+
+        DeferredSteps.log();
+        DeferredSteps.Recorder recorder = DeferredSteps.recorder();
+        LoggingFuture<ExtractableResponse> future = new LoggingFuture<>();
+        getExecutor().execute(() -> {
+            long start = System.currentTimeMillis();
+            ExtractableResponse response = null;
+            Throwable failure = null;
+            try {
+                response = send(method, params, url);
+            } catch (Throwable t) {
+                failure = t;
+            }
+            // record before completing, so the timing is logged by join()
+            recorder.record(method + " " + url, start, System.currentTimeMillis());
+            if (failure == null) {
+                future.complete(response);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Performs GET requests of all the URLs in parallel.
+     *
+     * @param urls the URLs to get
+     * @return the responses, in the same order as the URLs
+     * @see #requestAll(Collection, Function)
+     */
+    protected List<ExtractableResponse> requestAll(Collection<String> urls) {
+        return requestAll(urls, this::requestAsync);
+    }
+
+    /**
+     * Performs a request for each of the inputs in parallel and waits for all
+     * of them to complete. For example:
+     * <pre><code>requestAll(stations, s -&gt; requestAsync(STOP_POINT.getUrl(s)))</code></pre>
+     * All requests are logged to Allure. If any request fails, the first
+     * failure, e.g. the {@link AssertionError} from response validation,
+     * is thrown.
+     *
+     * @param inputs  the inputs from which to make requests
+     * @param request makes an asynchronous request for an input
+     * @param <T>     the type of the inputs
+     * @return the responses, in the same order as the inputs
+     */
+    protected <T> List<ExtractableResponse> requestAll(
+            Collection<T> inputs,
+            Function<? super T, CompletableFuture<ExtractableResponse>> request) {
+
+        List<CompletableFuture<ExtractableResponse>> futures = inputs.stream()
+                .map(request)
+                .collect(toList());
+        // wait for all, including after a failure, so every timing is logged
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .handle((result, throwable) -> null)
+                .join();
+        DeferredSteps.log();
+        return futures.stream()
+                .map(BaseService::getResponse)
+                .collect(toList());
+    }
+
+    /**
+     * Deserialises the response body directly from its stream, with a
+     * cached Jackson reader, rather than via a String like
+     * {@link ExtractableResponse#as(Class)}. For example:
+     * <pre><code>readAs(request(url), Itinerary.class)</code></pre>
+     *
+     * @param response the response to read
+     * @param type     the type of the body
+     * @param <T>      the type of the body
+     * @return the deserialised body
+     */
+    protected <T> T readAs(ExtractableResponse response, Class<T> type) {
+        return JsonReaders.read(response.asInputStream(), type);
+    }
+
+    /**
+     * Deserialises only the value of the response body at the JSON Pointer,
+     * skipping the rest of the body. For example:
+     * <pre><code>readAt(request(url), "/journeys/0/duration", Integer.class)</code></pre>
+     *
+     * @param response    the response to read
+     * @param jsonPointer the JSON Pointer of the value, e.g. /journeys/0
+     * @param type        the type of the value
+     * @param <T>         the type of the value
+     * @return the deserialised value or null if there is no value at the pointer
+     */
+    protected <T> T readAt(ExtractableResponse response, String jsonPointer, Class<T> type) {
+        return JsonReaders.read(response.asInputStream(), jsonPointer, type);
+    }
+
+    private ExtractableResponse send(Method method, Map<String, ?> params, String url) {
+        RequestSpecification requestSpec = RestAssured.given()
+                .config(getConfig())
+                .spec(getRequestSpec());
+        if (RecordReplayFilter.isEnabled()) {
+            requestSpec.filter(RecordReplayFilter.getInstance());
+        }
+        return requestSpec
                 .params(params)
                 .when()
                 .request(method, url)
@@ -73,4 +279,66 @@ public abstract class BaseService {
                 .extract();
     }
 
+    private static ExtractableResponse getResponse(
+            CompletableFuture<ExtractableResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Logs the requests recorded for the calling thread once it has waited
+     * for the response. Futures derived from it, e.g. by thenApply, do not.
+     */
+    private static final class LoggingFuture<T> extends CompletableFuture<T> {
+
+        @Override
+        public T join() {
+            try {
+                return super.join();
+            } finally {
+                DeferredSteps.log();
+            }
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            try {
+                return super.get();
+            } finally {
+                DeferredSteps.log();
+            }
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            try {
+                return super.get(timeout, unit);
+            } finally {
+                DeferredSteps.log();
+            }
+        }
+    }
+
+    private static final class RequestThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "api-request-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
 }
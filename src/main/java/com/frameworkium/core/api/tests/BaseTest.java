@@ -1,19 +1,34 @@
 package com.frameworkium.core.api.tests;
 
+import com.frameworkium.core.common.events.TestEventBus;
 import com.frameworkium.core.common.listeners.*;
 import com.frameworkium.core.common.reporting.allure.AllureProperties;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.testng.annotations.AfterSuite;
+import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Listeners;
 
-@Listeners({MethodInterceptor.class,
-        TestListener.class,
-        ResultLoggerListener.class})
+@Listeners({TestContextListener.class,
+        MethodInterceptor.class,
+        EventBusListener.class,
+        TimelineListener.class})
 public abstract class BaseTest {
 
     protected final Logger logger = LogManager.getLogger();
 
+    /**
+     * Subscribes the {@link TestListener} and {@link ResultLoggerListener} to
+     * the {@link TestEventBus}, which the {@link EventBusListener} publishes to,
+     * before the first test. Override to subscribe others, or none of these.
+     */
+    @BeforeSuite(alwaysRun = true)
+    public void subscribeToTestEvents() {
+        TestEventBus bus = TestEventBus.getInstance();
+        bus.subscribeIfAbsent(new TestListener());
+        bus.subscribeIfAbsent(new ResultLoggerListener());
+    }
+
     /** Creates the allure properties for the report, after the test run */
     @AfterSuite(alwaysRun = true)
     public static void createAllureProperties() {
@@ -0,0 +1,71 @@
+package com.frameworkium.core.common.context;
+
+import com.frameworkium.core.common.reporting.TestMetadata;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * The test or configuration method running on the current thread, set by
+ * {@link com.frameworkium.core.common.listeners.TestContextListener} for the
+ * duration of each invocation.
+ */
+public final class TestContext {
+
+    private static final ThreadLocal<TestContext> CURRENT = new ThreadLocal<>();
+
+    private final Method method;
+    private final ITestResult result;
+
+    TestContext(Method method, ITestResult result) {
+        this.method = method;
+        this.result = result;
+    }
+
+    /**
+     * @param method the method about to be invoked on this thread
+     * @param result the result of the invocation
+     */
+    public static void begin(Method method, ITestResult result) {
+        CURRENT.set(new TestContext(method, result));
+    }
+
+    /** Clears the context once the method has been invoked. */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the context of the method running on this thread
+     * @throws IllegalStateException if no TestNG method is running
+     */
+    public static TestContext get() {
+        TestContext context = CURRENT.get();
+        if (context == null) {
+            throw new IllegalStateException(
+                    "No test or configuration method is running on this thread");
+        }
+        return context;
+    }
+
+    /** @return the method running, e.g. a test or a @BeforeClass method */
+    public Method getMethod() {
+        return method;
+    }
+
+    /** @return the result of the running method */
+    public ITestResult getResult() {
+        return result;
+    }
+
+    /** @return the test id, features, stories and groups of the running method */
+    public TestMetadata getMetadata() {
+        return TestMetadata.of(method);
+    }
+
+    /** @return the test id of the running method */
+    public Optional<String> getTestId() {
+        return getMetadata().getTestId();
+    }
+}
@@ -0,0 +1,130 @@
+package com.frameworkium.core.common.events;
+
+import com.frameworkium.core.common.reporting.TestMetadata;
+import com.frameworkium.core.ui.driver.BrowserEnvironment;
+import org.testng.ITestResult;
+
+import java.util.Optional;
+
+/**
+ * A TestNG test lifecycle event, with the details every subscriber needs
+ * looked up once, on the test thread, when the event is published.
+ */
+public final class TestEvent {
+
+    public enum Type {
+        START, SUCCESS, FAILURE, SKIP
+    }
+
+    private final Type type;
+    private final ITestResult result;
+    private final String name;
+    private final String className;
+    private final String methodName;
+    private final TestMetadata metadata;
+    private final long startMillis;
+    private final long endMillis;
+    private final Throwable throwable;
+    private final String threadName;
+    private final String userAgent;
+
+    private TestEvent(Type type, ITestResult result) {
+        this.type = type;
+        this.result = result;
+        this.name = result.getInstanceName() + "." + result.getMethod().getMethodName();
+        this.className = result.getTestClass().getName();
+        this.methodName = result.getMethod().getMethodName();
+        this.metadata = TestMetadata.of(result.getMethod().getConstructorOrMethod().getMethod());
+        this.startMillis = result.getStartMillis();
+        this.endMillis = result.getEndMillis();
+        this.throwable = result.getThrowable();
+        this.threadName = Thread.currentThread().getName();
+        this.userAgent = BrowserEnvironment.getProbedOnThisThread()
+                .flatMap(BrowserEnvironment::getUserAgent)
+                .orElse(null);
+    }
+
+    /**
+     * @param type   what happened to the test
+     * @param result the result of the test, as passed to the TestNG listener
+     * @return the event
+     */
+    public static TestEvent of(Type type, ITestResult result) {
+        return new TestEvent(type, result);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the result, which TestNG may still be changing, so asynchronous
+     * subscribers should use the other getters, set when the event was published
+     */
+    public ITestResult getResult() {
+        return result;
+    }
+
+    /** @return the test instance name and method name, e.g. <code>MyTest.login</code> */
+    public String getName() {
+        return name;
+    }
+
+    /** @return the name of the test class */
+    public String getClassName() {
+        return className;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /** @return the test id, features, stories and groups of the test */
+    public TestMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * @return the {@link ru.yandex.qatools.allure.annotations.TestCaseId} or
+     * {@link ru.yandex.qatools.allure.annotations.Issue} value of the test
+     */
+    public Optional<String> getTestId() {
+        return metadata.getTestId();
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /** @return the end time, which is the start time for a START event */
+    public long getEndMillis() {
+        return endMillis;
+    }
+
+    public long getDurationMillis() {
+        return Math.max(0, endMillis - startMillis);
+    }
+
+    /** @return what failed or skipped the test, if anything */
+    public Optional<Throwable> getThrowable() {
+        return Optional.ofNullable(throwable);
+    }
+
+    /** @return the name of the thread the test ran on */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return the user agent of the test thread's browser session, empty for
+     * API tests or if no session has been probed on the thread
+     */
+    public Optional<String> getUserAgent() {
+        return Optional.ofNullable(userAgent);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + name;
+    }
+}
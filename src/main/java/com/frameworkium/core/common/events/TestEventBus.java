@@ -0,0 +1,172 @@
+package com.frameworkium.core.common.events;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Dispatches each {@link TestEvent}, published once by
+ * {@link com.frameworkium.core.common.listeners.EventBusListener}, to every
+ * subscriber, rather than each listener receiving and enriching the TestNG
+ * callback itself.
+ * <p>
+ * Synchronous subscribers are called in the order they subscribed.
+ * Each asynchronous subscriber has its own background thread, so it sees
+ * events in the order they were published, and one slow subscriber does not
+ * hold up another. Subscribers which throw are logged, not failed.
+ */
+public final class TestEventBus {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * A bus of its own, e.g. for a listener used without the shared bus.
+     * Use {@link #getInstance()} for the shared bus.
+     */
+    public TestEventBus() {
+    }
+
+    /** @return the bus used by {@link com.frameworkium.core.common.listeners.EventBusListener} */
+    public static TestEventBus getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /** @param subscriber receives every event published from now on */
+    public void subscribe(TestEventSubscriber subscriber) {
+        subscriptions.add(new Subscription(subscriber));
+    }
+
+    /**
+     * Subscribes the subscriber unless one of the same class already is,
+     * e.g. subscribed by an earlier suite run in the same JVM.
+     *
+     * @param subscriber receives every event published from now on
+     * @return true if the subscriber was subscribed
+     */
+    public synchronized boolean subscribeIfAbsent(TestEventSubscriber subscriber) {
+        boolean absent = subscriptions.stream()
+                .noneMatch(subscription -> subscription.subscriber.getClass()
+                        == subscriber.getClass());
+        if (absent) {
+            subscribe(subscriber);
+        }
+        return absent;
+    }
+
+    /**
+     * Calls the synchronous subscribers and queues the event for the
+     * asynchronous ones.
+     *
+     * @param event the event
+     */
+    public void publish(TestEvent event) {
+        for (Subscription subscription : subscriptions) {
+            subscription.dispatch(event);
+        }
+    }
+
+    /**
+     * Waits for the asynchronous subscribers to handle the events published
+     * so far, then calls {@link TestEventSubscriber#onFinish()} of each.
+     *
+     * @param timeout the most time to wait for all subscribers
+     * @param unit    the unit of timeout
+     * @return true if every subscriber finished in time
+     */
+    public boolean finish(long timeout, TimeUnit unit) {
+        List<Future<?>> pending = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            pending.add(subscription.finish());
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        boolean finished = true;
+        for (Future<?> future : pending) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                // logged by the subscription
+            } catch (TimeoutException e) {
+                finished = false;
+            }
+        }
+        if (!finished) {
+            logger.warn("Test event subscribers did not finish within {} {}", timeout, unit);
+        }
+        return finished;
+    }
+
+    private static final class Subscription {
+
+        private final TestEventSubscriber subscriber;
+        private final ExecutorService executor;
+
+        private Subscription(TestEventSubscriber subscriber) {
+            this.subscriber = subscriber;
+            this.executor = subscriber.isAsynchronous()
+                    ? Executors.newSingleThreadExecutor(
+                    new SubscriberThreadFactory(subscriber.getClass().getSimpleName()))
+                    : null;
+        }
+
+        private void dispatch(TestEvent event) {
+            if (executor == null) {
+                handle(event);
+            } else {
+                executor.execute(() -> handle(event));
+            }
+        }
+
+        private void handle(TestEvent event) {
+            try {
+                subscriber.onEvent(event);
+            } catch (Exception e) {
+                logger.warn("{} failed to handle {}", subscriber.getClass().getSimpleName(),
+                        event, e);
+            }
+        }
+
+        private Future<?> finish() {
+            Runnable onFinish = () -> {
+                try {
+                    subscriber.onFinish();
+                } catch (Exception e) {
+                    logger.warn("{} failed to finish", subscriber.getClass().getSimpleName(), e);
+                }
+            };
+            if (executor == null) {
+                onFinish.run();
+                return CompletableFuture.completedFuture(null);
+            }
+            return executor.submit(onFinish);
+        }
+    }
+
+    private static final class SubscriberThreadFactory implements ThreadFactory {
+
+        private final String name;
+
+        private SubscriberThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "test-events-" + name);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static final class Holder {
+
+        private static final TestEventBus INSTANCE = new TestEventBus();
+    }
+}
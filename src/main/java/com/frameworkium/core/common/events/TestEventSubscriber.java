@@ -0,0 +1,24 @@
+package com.frameworkium.core.common.events;
+
+/**
+ * Receives {@link TestEvent}s from the {@link TestEventBus}.
+ * <p>
+ * Synchronous subscribers handle each event on the test thread, before the
+ * test proceeds. Asynchronous subscribers handle events in order on their own
+ * background thread, so slow work, e.g. publishing results, does not delay
+ * the tests.
+ */
+public interface TestEventSubscriber {
+
+    /** @param event the event, exceptions thrown are logged and ignored */
+    void onEvent(TestEvent event);
+
+    /** Called once all events of a TestNG &lt;test&gt; have been handled. */
+    default void onFinish() {
+    }
+
+    /** @return true to handle events on a background thread, default false */
+    default boolean isAsynchronous() {
+        return false;
+    }
+}
@@ -0,0 +1,138 @@
+package com.frameworkium.core.common.http;
+
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import org.apache.http.*;
+import org.apache.http.client.entity.GzipCompressingEntity;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A RestAssured HTTP client with a bounded, keep-alive connection pool.
+ * <p>
+ * The {@link RestAssuredConfig} reuses a single client, which is thread-safe,
+ * so may be shared between threads e.g. when running with
+ * <code>parallel=methods</code>.
+ * <p>
+ * Response bodies are buffered so connections are released to the pool
+ * even when the response is ignored, as such it is not suitable for very
+ * large responses.
+ */
+@SuppressWarnings("deprecation") // RestAssured 3.0 requires an AbstractHttpClient
+public final class PooledHttpClient {
+
+    private static final int IDLE_CONNECTION_SECONDS = 30;
+    private static final long GZIP_MIN_BYTES = 1024;
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final RestAssuredConfig config;
+    private final boolean gzipRequests;
+
+    /**
+     * @param maxConnectionsPerHost the maximum connections to each host
+     * @param maxConnections        the maximum connections to all hosts
+     * @param connectTimeoutMillis  connect, and pool lease, timeout, 0 for none
+     * @param readTimeoutMillis     socket read timeout, 0 for none
+     * @param gzipRequests          whether to gzip JSON request bodies over 1KB
+     */
+    public PooledHttpClient(
+            int maxConnectionsPerHost,
+            int maxConnections,
+            int connectTimeoutMillis,
+            int readTimeoutMillis,
+            boolean gzipRequests) {
+
+        this.gzipRequests = gzipRequests;
+        this.connectionManager = new PoolingClientConnectionManager(
+                SchemeRegistryFactory.createDefault(),
+                IDLE_CONNECTION_SECONDS, TimeUnit.SECONDS);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+        connectionManager.setMaxTotal(maxConnections);
+
+        this.config = RestAssuredConfig.config()
+                .httpClient(HttpClientConfig.httpClientConfig()
+                        .reuseHttpClientInstance()
+                        .httpClientFactory(this::createHttpClient)
+                        .setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, connectTimeoutMillis)
+                        .setParam(CoreConnectionPNames.SO_TIMEOUT, readTimeoutMillis)
+                        .setParam(ClientPNames.CONN_MANAGER_TIMEOUT, (long) connectTimeoutMillis));
+    }
+
+    /** @return the {@link RestAssuredConfig} using this pool */
+    public RestAssuredConfig getConfig() {
+        return config;
+    }
+
+    /** @return leased, pending, available and max connections of the pool */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * @param uri any URI of the host
+     * @return leased, pending, available and max connections for the host
+     */
+    public PoolStats getStats(URI uri) {
+        HttpHost host = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
+        return connectionManager.getStats(
+                new HttpRoute(host, null, "https".equalsIgnoreCase(uri.getScheme())));
+    }
+
+    /** Closes connections which are not currently in use. */
+    public void closeIdleConnections() {
+        connectionManager.closeIdleConnections(0, TimeUnit.SECONDS);
+    }
+
+    private DefaultHttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+        client.addResponseInterceptor(PooledHttpClient::bufferResponseBody);
+        if (gzipRequests) {
+            // must run before the standard interceptors set Content-Length
+            client.addRequestInterceptor(PooledHttpClient::gzipLargeJsonBody, 0);
+        }
+        return client;
+    }
+
+    /**
+     * Reads the response body so the connection is released to the pool
+     * even when the caller ignores the response.
+     */
+    private static void bufferResponseBody(HttpResponse response, HttpContext context)
+            throws IOException {
+
+        HttpEntity entity = response.getEntity();
+        if (entity != null && entity.isStreaming()) {
+            response.setEntity(new BufferedHttpEntity(entity));
+        }
+    }
+
+    private static void gzipLargeJsonBody(HttpRequest request, HttpContext context) {
+        if (!(request instanceof HttpEntityEnclosingRequest)) {
+            return;
+        }
+        HttpEntityEnclosingRequest entityRequest = (HttpEntityEnclosingRequest) request;
+        HttpEntity entity = entityRequest.getEntity();
+        if (entity == null
+                || entity.getContentEncoding() != null
+                || entity.getContentLength() <= GZIP_MIN_BYTES) {
+            return;
+        }
+        Header contentType = entity.getContentType() != null
+                ? entity.getContentType()
+                : request.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        if (contentType != null && contentType.getValue().contains("json")) {
+            entityRequest.setEntity(new GzipCompressingEntity(entity));
+        }
+    }
+}
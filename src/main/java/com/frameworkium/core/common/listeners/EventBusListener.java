@@ -0,0 +1,59 @@
+package com.frameworkium.core.common.listeners;
+
+import com.frameworkium.core.common.events.TestEvent;
+import com.frameworkium.core.common.events.TestEventBus;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes each TestNG test callback once to the shared {@link TestEventBus}.
+ * It subscribes nothing itself: subscribe with
+ * {@link TestEventBus#subscribe(com.frameworkium.core.common.events.TestEventSubscriber)}
+ * before the first test, as the BaseTests do for the {@link TestListener},
+ * synchronous, and the {@link ResultLoggerListener}, asynchronous.
+ * <p>
+ * At the end of each &lt;test&gt; it waits for asynchronous subscribers,
+ * e.g. for results to be published, before TestNG continues.
+ */
+public class EventBusListener implements ITestListener {
+
+    private static final long FINISH_TIMEOUT_MINUTES = 5;
+
+    private static final TestEventBus BUS = TestEventBus.getInstance();
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        BUS.publish(TestEvent.of(TestEvent.Type.START, result));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        BUS.publish(TestEvent.of(TestEvent.Type.SUCCESS, result));
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        BUS.publish(TestEvent.of(TestEvent.Type.FAILURE, result));
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        BUS.publish(TestEvent.of(TestEvent.Type.SKIP, result));
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        BUS.finish(FINISH_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    }
+}
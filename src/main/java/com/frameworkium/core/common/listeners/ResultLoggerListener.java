@@ -1,241 +1,275 @@
 package com.frameworkium.core.common.listeners;
 
+import com.frameworkium.core.common.events.TestEvent;
+import com.frameworkium.core.common.events.TestEventBus;
 import com.frameworkium.core.common.properties.Property;
-import com.frameworkium.core.common.reporting.TestIdUtils;
+import com.frameworkium.core.common.reporting.CircuitBreaker;
+import com.frameworkium.core.common.reporting.CircuitOpenException;
+import com.frameworkium.core.common.reporting.ReportingHttpClient;
 import com.frameworkium.core.common.reporting.jira.JiraConfig;
 import com.frameworkium.core.common.reporting.jira.api.JiraTest;
 import com.frameworkium.core.common.reporting.jira.zapi.Execution;
 import com.frameworkium.core.common.reporting.spira.SpiraExecution;
+import com.frameworkium.core.common.reporting.timeline.Timeline;
 import com.frameworkium.core.ui.capture.ScreenshotCapture;
-import com.frameworkium.core.ui.tests.BaseTest;
 import com.google.common.base.Throwables;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.testng.*;
-
-import java.lang.reflect.Method;
 
 import static com.frameworkium.core.common.properties.Property.CAPTURE_URL;
 import static java.util.Objects.isNull;
 import static org.apache.commons.lang3.time.DateUtils.MILLIS_PER_SECOND;
 
-public class ResultLoggerListener implements ITestListener {
+/**
+ * Publishes results to JIRA, ZAPI and Spira, asynchronously, from the
+ * {@link TestEventBus}, so tests do not wait for the integrations.
+ * Subscribe it to the bus or list it as a TestNG listener.
+ */
+public class ResultLoggerListener extends TestEventListener {
 
     private final Logger logger = LogManager.getLogger();
 
     @Override
-    public void onTestStart(ITestResult result) {
+    public boolean isAsynchronous() {
+        return true;
+    }
 
-        if (!getIssueOrTestCaseIdAnnotation(result).isEmpty()) {
+    @Override
+    public void onEvent(TestEvent event) {
+        String issueOrTestCaseId = event.getTestId().orElse("");
+        if (issueOrTestCaseId.isEmpty()) {
+            return;
+        }
+        try (Timeline.Span ignored = Timeline.span("publish result", "reporting")) {
+            switch (event.getType()) {
+                case START:
+                    onTestStart(event, issueOrTestCaseId);
+                    break;
+                case SUCCESS:
+                    onTestSuccess(event, issueOrTestCaseId);
+                    break;
+                case FAILURE:
+                    onTestFailure(event, issueOrTestCaseId);
+                    break;
+                case SKIP:
+                    markAsBlocked(event, issueOrTestCaseId);
+                    break;
+            }
+        }
+    }
 
-            String comment = String.format(
-                    "Starting %s.%s",
-                    result.getTestClass().getName(), result.getMethod().getMethodName());
+    private void onTestStart(TestEvent event, String issueOrTestCaseId) {
+        String comment = String.format(
+                "Starting %s.%s",
+                event.getClassName(), event.getMethodName());
 
-            if (zapiLoggingParamsProvided(result)) {
-                logger.info("Logging WIP to zapi");
-                new Execution(getIssueOrTestCaseIdAnnotation(result))
-                        .update(JiraConfig.ZapiStatus.ZAPI_STATUS_WIP, comment, null);
-            }
-            if (jiraTransitionLoggingParamsProvided(result)) {
-                logger.info("Logging WIP to Jira using issue transitions");
-                moveThroughTransitions(getIssueOrTestCaseIdAnnotation(result),
-                        JiraConfig.JiraTransition.JIRA_TRANSITION_WIP);
-                JiraTest.addComment(getIssueOrTestCaseIdAnnotation(result), comment);
-            }
-            if (jiraFieldLoggingParamsProvided(result)) {
-                logger.info("Logging WIP to jira by updating the specified field - "
-                        + Property.JIRA_RESULT_FIELDNAME.getValue());
-                JiraTest.changeIssueFieldValue(
-                        getIssueOrTestCaseIdAnnotation(result),
-                        Property.JIRA_RESULT_FIELDNAME.getValue(),
-                        JiraConfig.JiraFieldStatus.JIRA_STATUS_WIP);
-                JiraTest.addComment(getIssueOrTestCaseIdAnnotation(result), comment);
-            }
+        if (zapiLoggingParamsProvided()) {
+            logger.info("Logging WIP to zapi");
+            updateZapi(issueOrTestCaseId, JiraConfig.ZapiStatus.ZAPI_STATUS_WIP, comment);
+        }
+        if (jiraTransitionLoggingParamsProvided()) {
+            logger.info("Logging WIP to Jira using issue transitions");
+            moveThroughTransitions(issueOrTestCaseId,
+                    JiraConfig.JiraTransition.JIRA_TRANSITION_WIP);
+            addComment(issueOrTestCaseId, comment);
+        }
+        if (jiraFieldLoggingParamsProvided()) {
+            logger.info("Logging WIP to jira by updating the specified field - "
+                    + Property.JIRA_RESULT_FIELDNAME.getValue());
+            report(Property.JIRA_URL, "Jira field " + issueOrTestCaseId,
+                    () -> JiraTest.changeIssueFieldValue(
+                            issueOrTestCaseId,
+                            Property.JIRA_RESULT_FIELDNAME.getValue(),
+                            JiraConfig.JiraFieldStatus.JIRA_STATUS_WIP));
+            addComment(issueOrTestCaseId, comment);
         }
     }
 
+    /** Reports each transition on its own, so none is repeated if another is buffered */
     private void moveThroughTransitions(String issueAnnotation, String[] jiraTransitions) {
         for (String jiraTransition : jiraTransitions) {
-            try {
-                JiraTest.transitionIssue(issueAnnotation, jiraTransition);
-                logger.debug(
-                        "Performed transition '{}' on '{}'",
-                        jiraTransition,
-                        issueAnnotation);
-            } catch (Exception e) {
-                logger.warn(
-                        "Failed to perform transition '{}' on '{}'- maybe not possible given the state?",
-                        jiraTransition,
-                        issueAnnotation);
-            }
+            report(Property.JIRA_URL, "Jira transition " + jiraTransition + " " + issueAnnotation,
+                    () -> transition(issueAnnotation, jiraTransition));
         }
     }
 
-    @Override
-    public void onTestSuccess(ITestResult result) {
-
-        if (!getIssueOrTestCaseIdAnnotation(result).isEmpty()) {
-
-            String comment = "PASS" + System.lineSeparator() + this.baseComment(result);
-
-            if (zapiLoggingParamsProvided(result)) {
-                logger.info("Logging PASS to zapi");
-                new Execution(getIssueOrTestCaseIdAnnotation(result))
-                        .update(JiraConfig.ZapiStatus.ZAPI_STATUS_PASS, comment, null);
-            }
-            if (jiraTransitionLoggingParamsProvided(result)) {
-                logger.info("Logging PASS to Jira using issue transitions");
-                moveThroughTransitions(getIssueOrTestCaseIdAnnotation(result),
-                        JiraConfig.JiraTransition.JIRA_TRANSITION_PASS);
-                JiraTest.addComment(getIssueOrTestCaseIdAnnotation(result), comment);
-            }
-            if (jiraFieldLoggingParamsProvided(result)) {
-                logger.info("Logging PASS to jira by updating the specified field - "
-                        + Property.JIRA_RESULT_FIELDNAME.getValue());
-                JiraTest.changeIssueFieldValue(
-                        getIssueOrTestCaseIdAnnotation(result),
-                        Property.JIRA_RESULT_FIELDNAME.getValue(),
-                        JiraConfig.JiraFieldStatus.JIRA_STATUS_PASS);
-                JiraTest.addComment(getIssueOrTestCaseIdAnnotation(result), comment);
-            }
-            if (spiraLoggingParamsProvided(result)) {
-                new SpiraExecution().recordTestResult(
-                        getIssueOrTestCaseIdAnnotation(result),
-                        JiraConfig.SpiraStatus.SPIRA_STATUS_PASS,
-                        comment,
-                        result);
-            }
+    private void transition(String issueAnnotation, String jiraTransition) {
+        try {
+            JiraTest.transitionIssue(issueAnnotation, jiraTransition);
+            logger.debug(
+                    "Performed transition '{}' on '{}'",
+                    jiraTransition,
+                    issueAnnotation);
+        } catch (CircuitOpenException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.warn(
+                    "Failed to perform transition '{}' on '{}'- maybe not possible given the state?",
+                    jiraTransition,
+                    issueAnnotation);
         }
     }
 
-    @Override
-    public void onTestFailure(ITestResult result) {
-
-        if (!(result.getThrowable() instanceof AssertionError)) {
-            markAsBlocked(result);
-        } else if (!getIssueOrTestCaseIdAnnotation(result).isEmpty()) {
-
-            String comment = "FAIL" + System.lineSeparator() + this.baseComment(result);
+    private void addComment(String issue, String comment) {
+        report(Property.JIRA_URL, "Jira comment " + issue,
+                () -> JiraTest.addComment(issue, comment));
+    }
 
-            if (zapiLoggingParamsProvided(result)) {
-                logger.info("Logging FAIL to zapi");
-                new Execution(getIssueOrTestCaseIdAnnotation(result))
-                        .update(JiraConfig.ZapiStatus.ZAPI_STATUS_FAIL, comment, null);
-            }
-            if (jiraTransitionLoggingParamsProvided(result)) {
-                logger.info("Logging FAIL to Jira using issue transitions");
-                moveThroughTransitions(getIssueOrTestCaseIdAnnotation(result),
-                        JiraConfig.JiraTransition.JIRA_TRANSITION_FAIL);
-                JiraTest.addComment(getIssueOrTestCaseIdAnnotation(result), comment);
-            }
-            if (jiraFieldLoggingParamsProvided(result)) {
-                logger.info("Logging FAIL to jira by updating the specified field - "
-                        + Property.JIRA_RESULT_FIELDNAME.getValue());
-                JiraTest.changeIssueFieldValue(
-                        getIssueOrTestCaseIdAnnotation(result),
-                        Property.JIRA_RESULT_FIELDNAME.getValue(),
-                        JiraConfig.JiraFieldStatus.JIRA_STATUS_FAIL);
-                JiraTest.addComment(getIssueOrTestCaseIdAnnotation(result), comment);
-            }
-            if (spiraLoggingParamsProvided(result)) {
-                new SpiraExecution().recordTestResult(
-                        getIssueOrTestCaseIdAnnotation(result),
-                        JiraConfig.SpiraStatus.SPIRA_STATUS_FAIL,
-                        comment,
-                        result);
+    /**
+     * Searches for the executions of the issue, then reports the update of
+     * each execution on its own, so updates already made are not repeated
+     * if the circuit opens part way through.
+     */
+    private void updateZapi(String issue, int status, String comment) {
+        report(Property.JIRA_URL, "zapi search " + issue, () -> {
+            Execution execution = new Execution(issue);
+            for (Integer executionId : execution.getExecutionIds()) {
+                report(Property.JIRA_URL, "zapi " + status + " " + issue,
+                        () -> execution.update(executionId, status, comment, null));
             }
-        }
+        });
     }
 
-    @Override
-    public void onTestSkipped(ITestResult result) {
-        markAsBlocked(result);
-    }
+    private void onTestSuccess(TestEvent event, String issueOrTestCaseId) {
+        String comment = "PASS" + System.lineSeparator() + this.baseComment(event);
 
-    private void markAsBlocked(ITestResult result) {
+        if (zapiLoggingParamsProvided()) {
+            logger.info("Logging PASS to zapi");
+            updateZapi(issueOrTestCaseId, JiraConfig.ZapiStatus.ZAPI_STATUS_PASS, comment);
+        }
+        if (jiraTransitionLoggingParamsProvided()) {
+            logger.info("Logging PASS to Jira using issue transitions");
+            moveThroughTransitions(issueOrTestCaseId,
+                    JiraConfig.JiraTransition.JIRA_TRANSITION_PASS);
+            addComment(issueOrTestCaseId, comment);
+        }
+        if (jiraFieldLoggingParamsProvided()) {
+            logger.info("Logging PASS to jira by updating the specified field - "
+                    + Property.JIRA_RESULT_FIELDNAME.getValue());
+            report(Property.JIRA_URL, "Jira field " + issueOrTestCaseId,
+                    () -> JiraTest.changeIssueFieldValue(
+                            issueOrTestCaseId,
+                            Property.JIRA_RESULT_FIELDNAME.getValue(),
+                            JiraConfig.JiraFieldStatus.JIRA_STATUS_PASS));
+            addComment(issueOrTestCaseId, comment);
+        }
+        if (spiraLoggingParamsProvided()) {
+            report(Property.SPIRA_URL, "Spira " + issueOrTestCaseId,
+                    () -> new SpiraExecution().recordTestResult(
+                            issueOrTestCaseId,
+                            JiraConfig.SpiraStatus.SPIRA_STATUS_PASS,
+                            comment,
+                            event.getStartMillis(),
+                            event.getMethodName()));
+        }
+    }
 
-        String issueOrTestCaseId = getIssueOrTestCaseIdAnnotation(result);
-        if (!issueOrTestCaseId.isEmpty()) {
+    private void onTestFailure(TestEvent event, String issueOrTestCaseId) {
+        if (!(event.getThrowable().orElse(null) instanceof AssertionError)) {
+            markAsBlocked(event, issueOrTestCaseId);
+            return;
+        }
 
-            String comment = "BLOCKED" + System.lineSeparator() + this.baseComment(result);
+        String comment = "FAIL" + System.lineSeparator() + this.baseComment(event);
 
-            if (zapiLoggingParamsProvided(result)) {
-                logger.info("Logging BLOCKED to zapi");
-                new Execution(issueOrTestCaseId)
-                        .update(JiraConfig.ZapiStatus.ZAPI_STATUS_BLOCKED, comment, null);
-            }
-            if (jiraTransitionLoggingParamsProvided(result)) {
-                logger.info("Logging BLOCKED to Jira using issue transitions");
-                moveThroughTransitions(issueOrTestCaseId,
-                        JiraConfig.JiraTransition.JIRA_TRANSITION_BLOCKED);
-                JiraTest.addComment(issueOrTestCaseId, comment);
-            }
-            if (jiraFieldLoggingParamsProvided(result)) {
-                logger.info("Logging BLOCKED to jira by updating the specified field - "
-                        + Property.JIRA_RESULT_FIELDNAME.getValue());
-                JiraTest.changeIssueFieldValue(
-                        issueOrTestCaseId,
-                        Property.JIRA_RESULT_FIELDNAME.getValue(),
-                        JiraConfig.JiraFieldStatus.JIRA_STATUS_BLOCKED);
-                JiraTest.addComment(issueOrTestCaseId, comment);
-            }
-            if (spiraLoggingParamsProvided(result)) {
-                new SpiraExecution().recordTestResult(
-                        issueOrTestCaseId,
-                        JiraConfig.SpiraStatus.SPIRA_STATUS_BLOCKED,
-                        comment,
-                        result);
-            }
+        if (zapiLoggingParamsProvided()) {
+            logger.info("Logging FAIL to zapi");
+            updateZapi(issueOrTestCaseId, JiraConfig.ZapiStatus.ZAPI_STATUS_FAIL, comment);
+        }
+        if (jiraTransitionLoggingParamsProvided()) {
+            logger.info("Logging FAIL to Jira using issue transitions");
+            moveThroughTransitions(issueOrTestCaseId,
+                    JiraConfig.JiraTransition.JIRA_TRANSITION_FAIL);
+            addComment(issueOrTestCaseId, comment);
+        }
+        if (jiraFieldLoggingParamsProvided()) {
+            logger.info("Logging FAIL to jira by updating the specified field - "
+                    + Property.JIRA_RESULT_FIELDNAME.getValue());
+            report(Property.JIRA_URL, "Jira field " + issueOrTestCaseId,
+                    () -> JiraTest.changeIssueFieldValue(
+                            issueOrTestCaseId,
+                            Property.JIRA_RESULT_FIELDNAME.getValue(),
+                            JiraConfig.JiraFieldStatus.JIRA_STATUS_FAIL));
+            addComment(issueOrTestCaseId, comment);
+        }
+        if (spiraLoggingParamsProvided()) {
+            report(Property.SPIRA_URL, "Spira " + issueOrTestCaseId,
+                    () -> new SpiraExecution().recordTestResult(
+                            issueOrTestCaseId,
+                            JiraConfig.SpiraStatus.SPIRA_STATUS_FAIL,
+                            comment,
+                            event.getStartMillis(),
+                            event.getMethodName()));
         }
     }
 
-    @Override
-    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
-    }
+    private void markAsBlocked(TestEvent event, String issueOrTestCaseId) {
+        String comment = "BLOCKED" + System.lineSeparator() + this.baseComment(event);
 
-    @Override
-    public void onStart(ITestContext context) {
+        if (zapiLoggingParamsProvided()) {
+            logger.info("Logging BLOCKED to zapi");
+            updateZapi(issueOrTestCaseId, JiraConfig.ZapiStatus.ZAPI_STATUS_BLOCKED, comment);
+        }
+        if (jiraTransitionLoggingParamsProvided()) {
+            logger.info("Logging BLOCKED to Jira using issue transitions");
+            moveThroughTransitions(issueOrTestCaseId,
+                    JiraConfig.JiraTransition.JIRA_TRANSITION_BLOCKED);
+            addComment(issueOrTestCaseId, comment);
+        }
+        if (jiraFieldLoggingParamsProvided()) {
+            logger.info("Logging BLOCKED to jira by updating the specified field - "
+                    + Property.JIRA_RESULT_FIELDNAME.getValue());
+            report(Property.JIRA_URL, "Jira field " + issueOrTestCaseId,
+                    () -> JiraTest.changeIssueFieldValue(
+                            issueOrTestCaseId,
+                            Property.JIRA_RESULT_FIELDNAME.getValue(),
+                            JiraConfig.JiraFieldStatus.JIRA_STATUS_BLOCKED));
+            addComment(issueOrTestCaseId, comment);
+        }
+        if (spiraLoggingParamsProvided()) {
+            report(Property.SPIRA_URL, "Spira " + issueOrTestCaseId,
+                    () -> new SpiraExecution().recordTestResult(
+                            issueOrTestCaseId,
+                            JiraConfig.SpiraStatus.SPIRA_STATUS_BLOCKED,
+                            comment,
+                            event.getStartMillis(),
+                            event.getMethodName()));
+        }
     }
 
     @Override
-    public void onFinish(ITestContext context) {
+    public void onFinish() {
+        CircuitBreaker.replayAll();
+        ReportingHttpClient.logAndCloseIdleConnections();
     }
 
-    private Boolean zapiLoggingParamsProvided(ITestResult result) {
-        return Property.JIRA_URL.isSpecified()
-                && Property.RESULT_VERSION.isSpecified()
-                && !getIssueOrTestCaseIdAnnotation(result).isEmpty();
+    /**
+     * Reports through the {@link CircuitBreaker} of the integration, so
+     * results are buffered while it is down, rather than waiting for timeouts.
+     * Each report should make a single change, so replaying it after the
+     * circuit opens does not repeat changes already made, e.g. comments.
+     */
+    private void report(Property url, String description, Runnable report) {
+        CircuitBreaker.forUrl(url.getValue()).submit(description, report);
     }
 
-    private Boolean jiraTransitionLoggingParamsProvided(ITestResult result) {
+    private Boolean zapiLoggingParamsProvided() {
         return Property.JIRA_URL.isSpecified()
-                && Property.JIRA_RESULT_TRANSITION.isSpecified()
-                && !getIssueOrTestCaseIdAnnotation(result).isEmpty();
+                && Property.RESULT_VERSION.isSpecified();
     }
 
-    private Boolean jiraFieldLoggingParamsProvided(ITestResult result) {
+    private Boolean jiraTransitionLoggingParamsProvided() {
         return Property.JIRA_URL.isSpecified()
-                && Property.JIRA_RESULT_FIELDNAME.isSpecified()
-                && !getIssueOrTestCaseIdAnnotation(result).isEmpty();
+                && Property.JIRA_RESULT_TRANSITION.isSpecified();
     }
 
-    private Boolean spiraLoggingParamsProvided(ITestResult result) {
-        return Property.SPIRA_URL.isSpecified()
-                && !getIssueOrTestCaseIdAnnotation(result).isEmpty();
+    private Boolean jiraFieldLoggingParamsProvided() {
+        return Property.JIRA_URL.isSpecified()
+                && Property.JIRA_RESULT_FIELDNAME.isSpecified();
     }
 
-    /**
-     * @return the value of either the @Issue or @TestCaseId annotation for the
-     * provided test result.
-     * If both are specified but if their values are not equal an
-     * {@link IllegalStateException} will be thrown, otherwise, their value will
-     * be returned.
-     * If neither are specified then the empty string will be returned.
-     */
-    private String getIssueOrTestCaseIdAnnotation(ITestResult result) {
-        Method method = result.getMethod().getConstructorOrMethod().getMethod();
-        return TestIdUtils.getIssueOrTestCaseIdValue(method).orElse("");
+    private Boolean spiraLoggingParamsProvided() {
+        return Property.SPIRA_URL.isSpecified();
     }
 
     private String getOSInfo() {
@@ -246,17 +280,17 @@ public class ResultLoggerListener implements ITestListener {
                 System.getProperty("os.arch"));
     }
 
-    private String baseComment(ITestResult result) {
+    String baseComment(TestEvent event) {
 
         StringBuilder comment = new StringBuilder();
 
         comment.append("Test: ")
-                .append(result.getTestClass().getName())
+                .append(event.getClassName())
                 .append(".")
-                .append(result.getMethod().getMethodName())
+                .append(event.getMethodName())
                 .append(System.lineSeparator())
                 .append("Duration: ")
-                .append(((result.getEndMillis() - result.getStartMillis()) / MILLIS_PER_SECOND))
+                .append(event.getDurationMillis() / MILLIS_PER_SECOND)
                 .append("seconds")
                 .append(System.lineSeparator());
 
@@ -274,13 +308,12 @@ public class ResultLoggerListener implements ITestListener {
                 .append(getOSInfo())
                 .append(System.lineSeparator())
                 .append("UserAgent: ")
-                .append(BaseTest.getUserAgent());
+                .append(event.getUserAgent().orElse("unknown"));
 
-        if (!isNull(result.getThrowable())) {
-            comment.append(System.lineSeparator())
-                    .append("Stacktrace: ")
-                    .append(Throwables.getStackTraceAsString(result.getThrowable()));
-        }
+        event.getThrowable().ifPresent(throwable ->
+                comment.append(System.lineSeparator())
+                        .append("Stacktrace: ")
+                        .append(Throwables.getStackTraceAsString(throwable)));
 
         return comment.toString();
     }
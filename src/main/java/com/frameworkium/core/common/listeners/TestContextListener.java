@@ -0,0 +1,26 @@
+package com.frameworkium.core.common.listeners;
+
+import com.frameworkium.core.common.context.TestContext;
+import com.frameworkium.core.common.reporting.allure.DeferredSteps;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Sets the {@link TestContext} of each test and configuration method and
+ * logs its {@link DeferredSteps} once it has been invoked.
+ */
+public class TestContextListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        TestContext.begin(
+                method.getTestMethod().getConstructorOrMethod().getMethod(), testResult);
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        DeferredSteps.end();
+        TestContext.end();
+    }
+}
@@ -0,0 +1,69 @@
+package com.frameworkium.core.common.listeners;
+
+import com.frameworkium.core.common.events.TestEvent;
+import com.frameworkium.core.common.events.TestEventBus;
+import com.frameworkium.core.common.events.TestEventSubscriber;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TestEventSubscriber} which can also be listed as a TestNG listener,
+ * e.g. in testng.xml or <code>@Listeners</code>, without the
+ * {@link EventBusListener}.
+ * <p>
+ * As a listener, it publishes each callback to a bus of its own, with only
+ * itself subscribed, so it handles events as it would on the shared bus.
+ * Subscribe it to the shared bus or list it as a listener, not both,
+ * else it handles each event twice.
+ */
+public abstract class TestEventListener implements TestEventSubscriber, ITestListener {
+
+    private static final long FINISH_TIMEOUT_MINUTES = 5;
+
+    private TestEventBus bus;
+
+    /** Created on the first callback, so subscribers of the shared bus have no thread */
+    private synchronized TestEventBus bus() {
+        if (bus == null) {
+            bus = new TestEventBus();
+            bus.subscribe(this);
+        }
+        return bus;
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        bus().publish(TestEvent.of(TestEvent.Type.START, result));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        bus().publish(TestEvent.of(TestEvent.Type.SUCCESS, result));
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        bus().publish(TestEvent.of(TestEvent.Type.FAILURE, result));
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        bus().publish(TestEvent.of(TestEvent.Type.SKIP, result));
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+    }
+
+    @Override
+    public void onStart(ITestContext context) {
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        bus().finish(FINISH_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    }
+}
@@ -1,60 +1,42 @@
 package com.frameworkium.core.common.listeners;
 
+import com.frameworkium.core.common.events.TestEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.testng.*;
+import org.testng.SkipException;
 import ru.yandex.qatools.allure.annotations.Step;
 
-public class TestListener implements ITestListener {
+/**
+ * Logs the start and result of each test, synchronously, on the test thread.
+ * Subscribe it to the {@link com.frameworkium.core.common.events.TestEventBus}
+ * or list it as a TestNG listener.
+ */
+public class TestListener extends TestEventListener {
 
     private final Logger logger = LogManager.getLogger();
 
     @Override
-    public void onTestStart(ITestResult result) {
-        logger.info("START {}", getTestIdentifier(result));
-    }
-
-    @Override
-    public void onTestSuccess(ITestResult result) {
-        logger.info("PASS  {}", getTestIdentifier(result));
-    }
-
-    @Override
-    public void onTestFailure(ITestResult result) {
-        logger.error("FAIL  {}", getTestIdentifier(result));
-        Throwable cause = result.getThrowable();
-        if (null != cause) {
-            logger.error(cause.getMessage(), cause);
+    public void onEvent(TestEvent event) {
+        switch (event.getType()) {
+            case START:
+                logger.info("START {}", event.getName());
+                break;
+            case SUCCESS:
+                logger.info("PASS  {}", event.getName());
+                break;
+            case FAILURE:
+                logger.error("FAIL  {}", event.getName());
+                event.getThrowable().ifPresent(cause -> logger.error(cause.getMessage(), cause));
+                break;
+            case SKIP:
+                logger.warn("SKIP  {}", event.getName());
+                event.getThrowable()
+                        .filter(cause -> SkipException.class.isAssignableFrom(cause.getClass()))
+                        .ifPresent(cause -> logger.warn(cause.getMessage()));
+                break;
         }
     }
 
-    @Override
-    public void onTestSkipped(ITestResult result) {
-        logger.warn("SKIP  {}", getTestIdentifier(result));
-        Throwable cause = result.getThrowable();
-        if (cause != null && SkipException.class.isAssignableFrom(cause.getClass())) {
-            logger.warn(cause.getMessage());
-        }
-    }
-
-    private String getTestIdentifier(ITestResult result) {
-        return String.format("%s.%s",
-                result.getInstanceName(),
-                result.getMethod().getMethodName());
-    }
-
-    @Override
-    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
-    }
-
-    @Override
-    public void onStart(ITestContext context) {
-    }
-
-    @Override
-    public void onFinish(ITestContext context) {
-    }
-
     @Step("{0}")
     private void stepLogger(String toLog) {
         logger.info(toLog);
@@ -0,0 +1,56 @@
+package com.frameworkium.core.common.listeners;
+
+import com.frameworkium.core.common.reporting.timeline.Timeline;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Records a {@link Timeline} span for each test and configuration method and
+ * writes the timeline of each suite to <code>target/timeline/[suite].json</code>
+ * when the <code>timeline</code> property is true.
+ */
+public class TimelineListener implements IInvokedMethodListener, ISuiteListener {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final ThreadLocal<Deque<Timeline.Span>> METHOD_SPANS =
+            ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (Timeline.isEnabled()) {
+            ITestNGMethod testMethod = method.getTestMethod();
+            METHOD_SPANS.get().push(Timeline.span(
+                    testMethod.getRealClass().getSimpleName() + "." + testMethod.getMethodName(),
+                    method.isTestMethod() ? "test" : "configuration"));
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        Timeline.Span span = METHOD_SPANS.get().poll();
+        if (span != null) {
+            span.close();
+        }
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (Timeline.isEnabled()) {
+            Path file = Paths.get("target", "timeline",
+                    suite.getName().replaceAll("[^\\w.-]", "_") + ".json");
+            Timeline.write(file, suite.getName());
+            logger.info("Timeline of suite '{}' written to {}", suite.getName(), file);
+        }
+    }
+}
@@ -21,6 +21,19 @@ public enum Property {
     JIRA_RESULT_TRANSITION("jiraResultTransition"),
     PROXY("proxy"),
     MAX_RETRY_COUNT("maxRetryCount"),
+    REPORTING_CONNECT_TIMEOUT("reportingConnectTimeout"),
+    REPORTING_READ_TIMEOUT("reportingReadTimeout"),
+    REPORTING_MAX_CONNECTIONS("reportingMaxConnections"),
+    REPORTING_GZIP("reportingGzip"),
+    REPORTING_BREAKER_FAILURES("reportingBreakerFailures"),
+    REPORTING_BREAKER_SLOW_MILLIS("reportingBreakerSlowMillis"),
+    REPORTING_BREAKER_OPEN_SECONDS("reportingBreakerOpenSeconds"),
+    TIMELINE("timeline"),
+    // API specific
+    API_CACHE("apiCache"),
+    API_CACHE_FILE("apiCacheFile"),
+    API_CACHE_TTL("apiCacheTtl"),
+    API_CACHE_MAX_ENTRIES("apiCacheMaxEntries"),
     // UI specific
     BROWSER("browser"),
     BROWSER_VERSION("browserVersion"),
@@ -34,7 +47,23 @@ public enum Property {
     BROWSER_STACK("browserStack"),
     MAXIMISE("maximise"),
     RESOLUTION("resolution"),
-    FIREFOX_PROFILE("firefoxProfile");
+    FIREFOX_PROFILE("firefoxProfile"),
+    SCREENSHOT_DIRECTORY("screenshotDirectory"),
+    SCREENSHOT_QUOTA_MB("screenshotQuotaMB"),
+    SCREENSHOT_RECOMPRESS("screenshotRecompress"),
+    SCREENSHOT_MODE("screenshotMode"),
+    SCREENSHOT_SCALE("screenshotScale"),
+    SCREENSHOT_FORMAT("screenshotFormat"),
+    SCREENSHOT_QUALITY("screenshotQuality"),
+    FAILURE_ARTIFACT("failureArtifact"),
+    DOM_SNAPSHOT_MAX_KB("domSnapshotMaxKB"),
+    DOM_SNAPSHOT_TIMEOUT_MILLIS("domSnapshotTimeoutMillis"),
+    COMMAND_HISTORY_SIZE("commandHistorySize"),
+    PAGE_TIMING("pageTiming"),
+    PROXY_CACHE_DIRECTORY("proxyCacheDirectory"),
+    PROXY_CACHE_TTL("proxyCacheTtl"),
+    PROXY_BLOCKLIST("proxyBlocklist"),
+    NETWORK_IDLE("networkIdle");
 
     private static Map configMap = null;
     private String value;
@@ -0,0 +1,294 @@
+package com.frameworkium.core.common.reporting;
+
+import com.frameworkium.core.common.properties.Property;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static com.frameworkium.core.common.properties.Property.*;
+
+/**
+ * Stops a reporting integration which is down, or slow, from slowing every
+ * test, one breaker per host, see {@link #forUrl(String)}.
+ * <ul>
+ * <li>Closed: requests are sent. After <code>reportingBreakerFailures</code>,
+ * default 3, consecutive failures, i.e. exceptions, 5xx responses or
+ * responses slower than <code>reportingBreakerSlowMillis</code>, default
+ * 5000, it opens.</li>
+ * <li>Open: requests fail immediately with {@link CircuitOpenException}.
+ * After <code>reportingBreakerOpenSeconds</code>, default 30, it is half
+ * open.</li>
+ * <li>Half open: a single request is sent as a probe, it closes if that
+ * succeeds, otherwise it opens again.</li>
+ * </ul>
+ * Results {@link #submit(String, Runnable) submitted} while open are
+ * buffered, in order, and replayed once it closes.
+ */
+public final class CircuitBreaker {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int DEFAULT_FAILURES = 3;
+    private static final long DEFAULT_SLOW_MILLIS = 5_000;
+    private static final long DEFAULT_OPEN_SECONDS = 30;
+    /** The oldest buffered results are dropped beyond this */
+    static final int MAX_BUFFERED = 1_000;
+
+    private static final ConcurrentMap<String, CircuitBreaker> BREAKERS =
+            new ConcurrentHashMap<>();
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long slowNanos;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    private final Deque<Buffered> buffer = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean replaying = new AtomicBoolean();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong slowCalls = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param name             the name, e.g. the host
+     * @param failureThreshold consecutive failures to open after
+     * @param slowMillis       calls slower than this count as failures
+     * @param openMillis       how long to stay open before probing
+     * @param nanoClock        the time, e.g. System::nanoTime
+     */
+    CircuitBreaker(String name, int failureThreshold, long slowMillis, long openMillis,
+            LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMillis);
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @param url any URL of the integration, e.g. the JIRA URL
+     * @return the breaker shared by every request to the URL's host
+     */
+    public static CircuitBreaker forUrl(String url) {
+        String host = URI.create(url).getHost();
+        return BREAKERS.computeIfAbsent(host == null ? url : host, name -> new CircuitBreaker(
+                name,
+                (int) longProperty(REPORTING_BREAKER_FAILURES, DEFAULT_FAILURES),
+                longProperty(REPORTING_BREAKER_SLOW_MILLIS, DEFAULT_SLOW_MILLIS),
+                TimeUnit.SECONDS.toMillis(
+                        longProperty(REPORTING_BREAKER_OPEN_SECONDS, DEFAULT_OPEN_SECONDS)),
+                System::nanoTime));
+    }
+
+    /** @return every breaker used so far */
+    public static Collection<CircuitBreaker> getAll() {
+        return new ArrayList<>(BREAKERS.values());
+    }
+
+    /**
+     * Probes every open breaker, replaying its buffered results if the
+     * integration is back, e.g. at the end of a suite.
+     */
+    public static void replayAll() {
+        BREAKERS.values().forEach(CircuitBreaker::replayNow);
+    }
+
+    private static long longProperty(Property property, long defaultValue) {
+        return property.isSpecified()
+                ? Long.parseLong(property.getValue())
+                : defaultValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Called before each request, a half open breaker allows one probe.
+     *
+     * @return whether the request may be sent
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+            state = State.HALF_OPEN;
+            return true;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /** @param elapsedNanos how long the successful request took */
+    public void onSuccess(long elapsedNanos) {
+        if (elapsedNanos > slowNanos) {
+            slowCalls.incrementAndGet();
+            onFailure();
+            return;
+        }
+        calls.incrementAndGet();
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state != State.CLOSED) {
+                logger.info("Reporting to {} recovered, circuit closed", name);
+                state = State.CLOSED;
+            }
+        }
+    }
+
+    /** Called when a request throws, returns a 5xx status or is slow. */
+    public void onFailure() {
+        calls.incrementAndGet();
+        failures.incrementAndGet();
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN
+                    || state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+                state = State.OPEN;
+                openedAtNanos = nanoClock.getAsLong();
+                opened.incrementAndGet();
+                logger.warn("Reporting to {} failed {} times in a row, circuit open for {}s",
+                        name, consecutiveFailures, TimeUnit.NANOSECONDS.toSeconds(openNanos));
+            }
+        }
+    }
+
+    /** @return whether requests would be rejected without a probe */
+    private synchronized boolean isRejecting() {
+        return state == State.HALF_OPEN
+                || state == State.OPEN && nanoClock.getAsLong() - openedAtNanos < openNanos;
+    }
+
+    /**
+     * Reports the result now, unless the breaker is open, or results are
+     * already buffered, in which case it is buffered to keep results in order.
+     * Exceptions are logged, not thrown, so reporting never fails a test.
+     *
+     * @param description describes the result, for logging
+     * @param report      reports the result, throwing {@link CircuitOpenException}
+     *                    if rejected by the breaker
+     */
+    public void submit(String description, Runnable report) {
+        if (buffer.isEmpty() && !isRejecting()) {
+            if (run(new Buffered(description, report))) {
+                return;
+            }
+        } else {
+            buffer(new Buffered(description, report));
+        }
+        replay();
+    }
+
+    private void buffer(Buffered result) {
+        buffer.addLast(result);
+        while (buffer.size() > MAX_BUFFERED) {
+            Buffered oldest = buffer.pollFirst();
+            if (oldest != null) {
+                dropped.incrementAndGet();
+                logger.warn("Dropped buffered result for {}: {}", name, oldest.description);
+            }
+        }
+    }
+
+    /** @return false if the breaker rejected the result, which is then buffered */
+    private boolean run(Buffered result) {
+        try {
+            result.report.run();
+        } catch (CircuitOpenException e) {
+            logger.debug("Buffering result for {}: {}", name, result.description);
+            buffer(result);
+            return false;
+        } catch (Exception e) {
+            logger.warn("Failed to report {}", result.description, e);
+        }
+        return true;
+    }
+
+    /** Replays buffered results, in order, on one thread at a time. */
+    private void replay() {
+        while (!buffer.isEmpty() && !isRejecting() && replaying.compareAndSet(false, true)) {
+            try {
+                Buffered next;
+                while (!isRejecting() && (next = buffer.pollFirst()) != null) {
+                    try {
+                        next.report.run();
+                        replayed.incrementAndGet();
+                    } catch (CircuitOpenException e) {
+                        buffer.addFirst(next);
+                    } catch (Exception e) {
+                        logger.warn("Failed to replay {}", next.description, e);
+                    }
+                }
+            } finally {
+                replaying.set(false);
+            }
+        }
+    }
+
+    /** Allows a probe immediately, then replays if the probe succeeds. */
+    void replayNow() {
+        synchronized (this) {
+            if (state == State.OPEN) {
+                openedAtNanos = nanoClock.getAsLong() - openNanos;
+            }
+        }
+        replay();
+        if (!buffer.isEmpty()) {
+            logger.warn("{} results for {} were not reported, it is still unavailable",
+                    buffer.size(), name);
+        }
+    }
+
+    /** @return the number of results waiting to be replayed */
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %s, %d calls, %d failed, %d slow, opened %d times, "
+                        + "%d rejected, %d buffered, %d replayed, %d dropped",
+                name, getState(), calls.get(), failures.get(), slowCalls.get(),
+                opened.get(), rejected.get(), buffer.size(), replayed.get(), dropped.get());
+    }
+
+    private static final class Buffered {
+
+        private final String description;
+        private final Runnable report;
+
+        private Buffered(String description, Runnable report) {
+            this.description = description;
+            this.report = report;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.frameworkium.core.common.reporting;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Sends reporting requests through the {@link CircuitBreaker} of their host,
+ * so requests to an integration which is down fail immediately.
+ */
+final class CircuitBreakerFilter implements Filter {
+
+    @Override
+    public Response filter(
+            FilterableRequestSpecification requestSpec,
+            FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+
+        CircuitBreaker breaker = CircuitBreaker.forUrl(requestSpec.getURI());
+        if (!breaker.allowRequest()) {
+            throw new CircuitOpenException(breaker.getName());
+        }
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = ctx.next(requestSpec, responseSpec);
+        } catch (Exception e) {
+            // e.g. an undeclared ConnectException or SocketTimeoutException
+            breaker.onFailure();
+            throw e;
+        }
+        if (response.statusCode() >= 500) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess(System.nanoTime() - start);
+        }
+        return response;
+    }
+}
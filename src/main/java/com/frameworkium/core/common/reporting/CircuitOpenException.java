@@ -0,0 +1,9 @@
+package com.frameworkium.core.common.reporting;
+
+/** Thrown instead of sending a request while its {@link CircuitBreaker} is open. */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String name) {
+        super("Circuit open, not sending request to " + name);
+    }
+}
@@ -0,0 +1,101 @@
+package com.frameworkium.core.common.reporting;
+
+import com.frameworkium.core.common.http.PooledHttpClient;
+import com.frameworkium.core.common.properties.Property;
+import io.restassured.RestAssured;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.pool.PoolStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+
+import static com.frameworkium.core.common.properties.Property.*;
+
+/**
+ * The HTTP client shared by the reporting integrations: JIRA, ZAPI, Spira
+ * and Capture.
+ * <p>
+ * Connections are pooled, bounded per host and kept alive between requests,
+ * so results are not each paying for a new TCP and TLS handshake.
+ * <p>
+ * Requests go through the {@link CircuitBreaker} of their host, so an
+ * integration which is down does not make every test wait for timeouts.
+ * <p>
+ * Configured by the following properties:
+ * <ul>
+ * <li><code>reportingConnectTimeout</code> connect timeout in ms, default 10000</li>
+ * <li><code>reportingReadTimeout</code> socket read timeout in ms, default 30000</li>
+ * <li><code>reportingMaxConnections</code> connections per host, default 8</li>
+ * <li><code>reportingGzip</code> if true, gzip JSON request bodies over 1KB</li>
+ * </ul>
+ */
+public final class ReportingHttpClient {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int DEFAULT_READ_TIMEOUT_MILLIS = 30_000;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+    private static final int MAX_HOSTS = 4;
+
+    private static final PooledHttpClient CLIENT = createClient();
+    private static final CircuitBreakerFilter CIRCUIT_BREAKER = new CircuitBreakerFilter();
+
+    private ReportingHttpClient() {
+        // static only
+    }
+
+    /**
+     * Use instead of {@link RestAssured#given()} for reporting requests.
+     *
+     * @return a new {@link RequestSpecification} using the pooled client
+     */
+    public static RequestSpecification given() {
+        return RestAssured.given()
+                .config(CLIENT.getConfig())
+                .filter(CIRCUIT_BREAKER);
+    }
+
+    /** @return the {@link RestAssuredConfig} using the pooled client */
+    public static RestAssuredConfig getConfig() {
+        return CLIENT.getConfig();
+    }
+
+    /** @return leased, pending, available and max connections of the pool */
+    public static PoolStats getTotalStats() {
+        return CLIENT.getTotalStats();
+    }
+
+    /**
+     * @param uri any URI of the host, e.g. the JIRA URL
+     * @return leased, pending, available and max connections for the host
+     */
+    public static PoolStats getStats(URI uri) {
+        return CLIENT.getStats(uri);
+    }
+
+    /** Logs the pool utilisation and closes idle connections. */
+    public static void logAndCloseIdleConnections() {
+        logger.debug("Reporting connection pool: {}", getTotalStats());
+        CircuitBreaker.getAll().forEach(breaker -> logger.info("Reporting circuit {}", breaker));
+        CLIENT.closeIdleConnections();
+    }
+
+    private static PooledHttpClient createClient() {
+        int maxPerHost = intProperty(REPORTING_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        return new PooledHttpClient(
+                maxPerHost,
+                maxPerHost * MAX_HOSTS,
+                intProperty(REPORTING_CONNECT_TIMEOUT, DEFAULT_CONNECT_TIMEOUT_MILLIS),
+                intProperty(REPORTING_READ_TIMEOUT, DEFAULT_READ_TIMEOUT_MILLIS),
+                Boolean.parseBoolean(REPORTING_GZIP.getValue()));
+    }
+
+    private static int intProperty(Property property, int defaultValue) {
+        return property.isSpecified()
+                ? Integer.parseInt(property.getValue())
+                : defaultValue;
+    }
+}
@@ -7,8 +7,6 @@ import ru.yandex.qatools.allure.annotations.TestCaseId;
 import java.lang.reflect.Method;
 import java.util.Optional;
 
-import static java.util.Objects.isNull;
-
 public class TestIdUtils {
 
     /**
@@ -24,27 +22,12 @@ public class TestIdUtils {
 
     /**
      * @param method the method to check for test ID annotations.
-     * @return Optional of the {@link TestCaseId} or {@link Issue} value.
+     * @return Optional of the {@link TestCaseId} or {@link Issue} value,
+     * read once per method, see {@link TestMetadata}.
      * @throws IllegalStateException if {@link TestCaseId} and {@link Issue}
      *                               are both specified inconstantly.
      */
     public static Optional<String> getIssueOrTestCaseIdValue(Method method) {
-        TestCaseId tcIdAnnotation = method.getAnnotation(TestCaseId.class);
-        Issue issueAnnotation = method.getAnnotation(Issue.class);
-
-        if (!isNull(issueAnnotation) && !isNull(tcIdAnnotation)
-                && !issueAnnotation.value().equals(tcIdAnnotation.value())) {
-            throw new IllegalStateException(
-                    "TestCaseId and Issue annotation are both specified but "
-                            + "not equal for method: " + method.toString());
-        }
-
-        if (!isNull(issueAnnotation)) {
-            return Optional.of(issueAnnotation.value());
-        } else if (!isNull(tcIdAnnotation)) {
-            return Optional.of(tcIdAnnotation.value());
-        } else {
-            return Optional.empty();
-        }
+        return TestMetadata.of(method).getTestId();
     }
 }
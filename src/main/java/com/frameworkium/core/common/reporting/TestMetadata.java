@@ -0,0 +1,112 @@
+package com.frameworkium.core.common.reporting;
+
+import org.testng.annotations.Test;
+import ru.yandex.qatools.allure.annotations.Features;
+import ru.yandex.qatools.allure.annotations.Issue;
+import ru.yandex.qatools.allure.annotations.Stories;
+import ru.yandex.qatools.allure.annotations.TestCaseId;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+import static java.util.stream.Collectors.collectingAndThen;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * The test id, Allure features and stories, and TestNG groups of a test
+ * method, read from its annotations once and shared by all listeners.
+ */
+public final class TestMetadata {
+
+    private static final Map<Method, TestMetadata> METADATA = new ConcurrentHashMap<>();
+
+    private final Optional<String> testId;
+    private final List<String> features;
+    private final List<String> stories;
+    private final List<String> groups;
+
+    private TestMetadata(Method method) {
+        Class<?> testClass = method.getDeclaringClass();
+        this.testId = readTestId(method);
+        this.features = distinct(
+                valuesOf(testClass.getAnnotation(Features.class)),
+                valuesOf(method.getAnnotation(Features.class)));
+        this.stories = distinct(
+                valuesOf(testClass.getAnnotation(Stories.class)),
+                valuesOf(method.getAnnotation(Stories.class)));
+        this.groups = distinct(
+                groupsOf(testClass.getAnnotation(Test.class)),
+                groupsOf(method.getAnnotation(Test.class)));
+    }
+
+    /**
+     * @param method the test method
+     * @return the metadata of the method, read once per method
+     * @throws IllegalStateException if {@link TestCaseId} and {@link Issue}
+     *                               are both specified inconsistently.
+     */
+    public static TestMetadata of(Method method) {
+        return METADATA.computeIfAbsent(method, TestMetadata::new);
+    }
+
+    private static Optional<String> readTestId(Method method) {
+        TestCaseId tcIdAnnotation = method.getAnnotation(TestCaseId.class);
+        Issue issueAnnotation = method.getAnnotation(Issue.class);
+
+        if (!isNull(issueAnnotation) && !isNull(tcIdAnnotation)
+                && !issueAnnotation.value().equals(tcIdAnnotation.value())) {
+            throw new IllegalStateException(
+                    "TestCaseId and Issue annotation are both specified but "
+                            + "not equal for method: " + method.toString());
+        }
+
+        if (!isNull(issueAnnotation)) {
+            return Optional.of(issueAnnotation.value());
+        } else if (!isNull(tcIdAnnotation)) {
+            return Optional.of(tcIdAnnotation.value());
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    private static String[] valuesOf(Features features) {
+        return isNull(features) ? new String[0] : features.value();
+    }
+
+    private static String[] valuesOf(Stories stories) {
+        return isNull(stories) ? new String[0] : stories.value();
+    }
+
+    private static String[] groupsOf(Test test) {
+        return isNull(test) ? new String[0] : test.groups();
+    }
+
+    private static List<String> distinct(String[] classValues, String[] methodValues) {
+        return Stream.concat(Arrays.stream(classValues), Arrays.stream(methodValues))
+                .distinct()
+                .collect(collectingAndThen(toList(), Collections::unmodifiableList));
+    }
+
+    /** @return the value of either the {@link Issue} or {@link TestCaseId} annotation */
+    public Optional<String> getTestId() {
+        return testId;
+    }
+
+    /** @return the Allure features of the method and its class */
+    public List<String> getFeatures() {
+        return features;
+    }
+
+    /** @return the Allure stories of the method and its class */
+    public List<String> getStories() {
+        return stories;
+    }
+
+    /** @return the TestNG groups of the method and its class */
+    public List<String> getGroups() {
+        return groups;
+    }
+}
@@ -1,6 +1,6 @@
 package com.frameworkium.core.common.reporting.allure;
 
-import com.frameworkium.core.ui.tests.BaseTest;
+import com.frameworkium.core.ui.driver.BrowserEnvironment;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -80,9 +80,16 @@ public class AllureProperties {
         if (PLATFORM_VERSION.isSpecified()) {
             props.setProperty("Platform Version", PLATFORM_VERSION.getValue());
         }
-        if (BaseTest.getUserAgent().isPresent()) {
-            props.setProperty("UserAgent", BaseTest.getUserAgent().orElse(""));
-        }
+        BrowserEnvironment.getLastProbed().ifPresent(environment -> {
+            environment.getUserAgent().ifPresent(
+                    userAgent -> props.setProperty("UserAgent", userAgent));
+            environment.getWindowSize().ifPresent(
+                    size -> props.setProperty("Window Size", size.toString()));
+            if (!BROWSER_VERSION.isSpecified()) {
+                environment.getBrowserVersion().ifPresent(
+                        version -> props.setProperty("Browser Version", version));
+            }
+        });
 
         return props;
     }
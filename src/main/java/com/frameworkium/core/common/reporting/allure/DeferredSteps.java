@@ -0,0 +1,122 @@
+package com.frameworkium.core.common.reporting.allure;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import ru.yandex.qatools.allure.Allure;
+import ru.yandex.qatools.allure.events.StepFinishedEvent;
+import ru.yandex.qatools.allure.events.StepStartedEvent;
+import ru.yandex.qatools.allure.model.Step;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Allure steps are per thread, so steps which happen on another thread,
+ * e.g. asynchronous requests, are recorded for the test thread which started
+ * them and logged, with their original timings, by that thread.
+ * <p>
+ * The recorded steps of a thread are logged by {@link #log()} and, at the end
+ * of each test, by {@link #end()}, so they never appear in the next test.
+ */
+public final class DeferredSteps {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final ThreadLocal<Recorder> RECORDERS =
+            ThreadLocal.withInitial(Recorder::new);
+
+    private DeferredSteps() {
+        // hide default constructor for this util class
+    }
+
+    /** @return records steps, from any thread, for the current thread to log */
+    public static Recorder recorder() {
+        return RECORDERS.get();
+    }
+
+    /** Logs, to Allure, the steps recorded for the current thread so far. */
+    public static void log() {
+        RECORDERS.get().log();
+    }
+
+    /**
+     * Logs the steps recorded for the current thread, then detaches its
+     * recorder, so steps which are still running when the test ends are
+     * dropped rather than logged in the next test on this thread.
+     */
+    public static void end() {
+        Recorder recorder = RECORDERS.get();
+        RECORDERS.remove();
+        recorder.end();
+    }
+
+    /** @return the number of steps recorded for the current thread, not yet logged */
+    public static int pending() {
+        return RECORDERS.get().steps.size();
+    }
+
+    /** Records steps for the thread which created it. */
+    public static final class Recorder {
+
+        private final Queue<TimedStep> steps = new ConcurrentLinkedQueue<>();
+        private volatile boolean ended;
+
+        private Recorder() {
+        }
+
+        /**
+         * @param name        the name of the step
+         * @param startMillis the start time of the step
+         * @param stopMillis  the stop time of the step
+         */
+        public void record(String name, long startMillis, long stopMillis) {
+            if (ended) {
+                logger.debug("Test ended before step finished, not logged: {}", name);
+                return;
+            }
+            steps.add(new TimedStep(name, startMillis, stopMillis));
+        }
+
+        private void log() {
+            TimedStep step;
+            while ((step = steps.poll()) != null) {
+                logStep(step);
+            }
+        }
+
+        private void end() {
+            ended = true;
+            log();
+        }
+    }
+
+    private static void logStep(TimedStep timedStep) {
+        Allure.LIFECYCLE.fire(new StepStartedEvent(timedStep.name) {
+            @Override
+            public void process(Step step) {
+                super.process(step);
+                step.setStart(timedStep.startMillis);
+            }
+        });
+        Allure.LIFECYCLE.fire(new StepFinishedEvent() {
+            @Override
+            public void process(Step step) {
+                super.process(step);
+                step.setStop(timedStep.stopMillis);
+            }
+        });
+    }
+
+    private static final class TimedStep {
+
+        private final String name;
+        private final long startMillis;
+        private final long stopMillis;
+
+        private TimedStep(String name, long startMillis, long stopMillis) {
+            this.name = name;
+            this.startMillis = startMillis;
+            this.stopMillis = stopMillis;
+        }
+    }
+}
@@ -1,21 +1,38 @@
 package com.frameworkium.core.common.reporting.jira;
 
 import com.frameworkium.core.common.properties.Property;
+import com.frameworkium.core.common.reporting.ReportingHttpClient;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.specification.RequestSpecification;
 
-import static io.restassured.RestAssured.given;
-
 public class JiraConfig {
 
     public static final String JIRA_REST_PATH = "/rest/api/latest/";
     public static final String REST_ZAPI_PATH = "/rest/zapi/latest/";
 
+    /** Built once, then copied for each request by {@link #getJIRARequestSpec()} */
+    private static RequestSpecification jiraSpec;
+
+    /**
+     * @return a new {@link RequestSpecification} for JIRA using the pooled
+     *         {@link ReportingHttpClient}
+     */
     public static RequestSpecification getJIRARequestSpec() {
-        return given()
-                .baseUri(Property.JIRA_URL.getValue())
-                .auth().preemptive().basic(
-                        Property.JIRA_USERNAME.getValue(),
-                        Property.JIRA_PASSWORD.getValue());
+        return ReportingHttpClient.given().spec(getJiraSpec());
+    }
+
+    private static synchronized RequestSpecification getJiraSpec() {
+        if (jiraSpec == null) {
+            jiraSpec = new RequestSpecBuilder()
+                    .setConfig(ReportingHttpClient.getConfig())
+                    .setBaseUri(Property.JIRA_URL.getValue())
+                    .setAuth(RestAssured.preemptive().basic(
+                            Property.JIRA_USERNAME.getValue(),
+                            Property.JIRA_PASSWORD.getValue()))
+                    .build();
+        }
+        return jiraSpec;
     }
 
     /**
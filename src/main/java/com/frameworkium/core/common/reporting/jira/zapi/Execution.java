@@ -10,6 +10,7 @@ import org.json.JSONObject;
 import org.testng.ITestResult;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
 
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
@@ -29,7 +30,8 @@ public class Execution {
         this.idList = getExecutionIds();
     }
 
-    private List<Integer> getExecutionIds() {
+    /** @return the ids of the executions of the issue in the result version */
+    public List<Integer> getExecutionIds() {
         if (null == idList) {
             if (isNotEmpty(version) && isNotEmpty(issue)) {
                 String query = String.format(
@@ -44,7 +46,7 @@ public class Execution {
                 }
             }
         }
-        return idList;
+        return idList == null ? Collections.emptyList() : idList;
     }
 
     /**
@@ -68,16 +70,22 @@ public class Execution {
     }
 
     public void update(int status, String comment, String attachment) {
-        if (null != idList) {
-            for (Integer executionId : idList) {
-                updateStatusAndComment(executionId, status, comment);
-                replaceExistingAttachment(executionId, attachment);
-
-                logger.debug("ZAPI Updater - Updated {} to status {}", issue, status);
-            }
+        for (Integer executionId : idList) {
+            update(executionId, status, comment, attachment);
         }
     }
 
+    /**
+     * Updates a single execution, see {@link #getExecutionIds()}, so each
+     * update can be reported, and retried, on its own.
+     */
+    public void update(Integer executionId, int status, String comment, String attachment) {
+        updateStatusAndComment(executionId, status, comment);
+        replaceExistingAttachment(executionId, attachment);
+
+        logger.debug("ZAPI Updater - Updated {} to status {}", issue, status);
+    }
+
     private void updateStatusAndComment(Integer executionId, int status, String comment) {
 
         JSONObject obj = new JSONObject();
@@ -1,21 +1,16 @@
 package com.frameworkium.core.common.reporting.spira;
 
 import com.frameworkium.core.common.properties.Property;
-import io.restassured.RestAssured;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
+import com.frameworkium.core.common.reporting.CircuitOpenException;
+import com.frameworkium.core.common.reporting.ReportingHttpClient;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.testng.ITestResult;
 
-import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-
-import static io.restassured.RestAssured.given;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class SpiraExecution {
 
@@ -24,23 +19,42 @@ public class SpiraExecution {
     private static final String SPIRA_URI =
             Property.SPIRA_URL.getValue() + SpiraConfig.REST_PATH;
 
+    /** Release IDs by name, so releases are fetched once, not per result */
+    private static final ConcurrentMap<String, String> RELEASE_IDS =
+            new ConcurrentHashMap<>();
+
     public void recordTestResult(
             String issue, int resultId, String comment, ITestResult result) {
 
+        recordTestResult(issue, resultId, comment,
+                result.getStartMillis(), result.getMethod().getMethodName());
+    }
+
+    /**
+     * @param issue       the Spira test case id
+     * @param resultId    the Spira execution status
+     * @param comment     the stack trace, or other details, of the result
+     * @param startMillis when the test started
+     * @param methodName  the name of the test method
+     */
+    public void recordTestResult(
+            String issue, int resultId, String comment, long startMillis, String methodName) {
+
         JSONObject obj = new JSONObject();
         try {
             obj.put("ExecutionStatusId", 0);
-            obj.put("StartDate", "\\/Date(" + result.getStartMillis() + ")\\/");
+            obj.put("StartDate", "\\/Date(" + startMillis + ")\\/");
             obj.put("TestCaseId", issue.replaceAll("[^0-9]", ""));
             obj.put("TestRunTypeId", 0);
             obj.put("TestRunFormatId", 0);
             obj.put("ExecutionStatusId", resultId);
             obj.put("RunnerName", "Frameworkium");
-            obj.put("RunnerTestName", result.getMethod().getMethodName());
+            obj.put("RunnerTestName", methodName);
             obj.put("RunnerStackTrace", comment);
 
             if (Property.RESULT_VERSION.isSpecified()) {
-                obj.put("ReleaseId", getReleaseId(Property.RESULT_VERSION.getValue()));
+                obj.put("ReleaseId", RELEASE_IDS.computeIfAbsent(
+                        Property.RESULT_VERSION.getValue(), this::getReleaseId));
             }
             //"Name":null,
             //"BuildId":null,
@@ -52,33 +66,29 @@ public class SpiraExecution {
         //JSONObject auto-escapes the backslash, so we need to unescape it!
         String json = obj.toString().replace("\\\\", "\\");
 
-        // TODO: use RestAssured
-        CloseableHttpClient httpClient = HttpClientBuilder.create().build();
-        HttpPost request = new HttpPost(SPIRA_URI + "/test-runs/record?" +
-                "username=" + SpiraConfig.USERNAME + "&" +
-                "api-key=" + SpiraConfig.API_KEY.replace("{", "%7B").replace("}", "%7D"));
-        StringEntity jsonBody;
-        try {
-            jsonBody = new StringEntity(json);
-            request.addHeader("content-type", "application/json");
-            request.setEntity(jsonBody);
-        } catch (UnsupportedEncodingException e) {
-            logger.warn(e);
-        }
-
         try {
-            httpClient.execute(request);
-        } catch (IOException e) {
+            ReportingHttpClient.given()
+                    .baseUri(SPIRA_URI)
+                    .contentType("application/json")
+                    .queryParam("username", SpiraConfig.USERNAME)
+                    .queryParam("api-key", SpiraConfig.API_KEY)
+                    .body(json)
+                    .when()
+                    .post("/test-runs/record");
+        } catch (CircuitOpenException e) {
+            throw e;
+        } catch (RuntimeException e) {
             logger.warn(e);
         }
     }
 
     public String getReleaseId(String releaseName) {
-        RestAssured.baseURI = SPIRA_URI;
         String path = String.format(
                 "find {it.FullName == '%s'}.ReleaseId", releaseName);
 
-        return given().contentType("application/json")
+        return ReportingHttpClient.given()
+                .baseUri(SPIRA_URI)
+                .contentType("application/json")
                 .param("username", SpiraConfig.USERNAME)
                 .param("api-key", SpiraConfig.API_KEY)
                 .when()
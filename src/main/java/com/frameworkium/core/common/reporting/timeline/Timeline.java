@@ -0,0 +1,213 @@
+package com.frameworkium.core.common.reporting.timeline;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.frameworkium.core.common.properties.Property;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records how long the phases of a test run take, e.g. driver provisioning,
+ * page loads, waits and reporting, as spans on the thread they ran on.
+ * The spans are written as a Chrome trace, which can be opened in
+ * chrome://tracing or Perfetto to see where parallel threads are idle.
+ * <pre><code>
+ * try (Timeline.Span ignored = Timeline.span("populate", "page")) {
+ *     ...
+ * }
+ * </code></pre>
+ * Enabled with the <code>timeline</code> property, otherwise
+ * {@link #span(String, String)} returns a shared span which records nothing.
+ */
+public final class Timeline {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    /** The buffer of every live thread which has recorded a span, for writing */
+    private static final Queue<ThreadSpans> THREADS = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<ThreadSpans> SPANS = ThreadLocal.withInitial(() -> {
+        ThreadSpans spans = new ThreadSpans(Thread.currentThread());
+        THREADS.add(spans);
+        return spans;
+    });
+
+    private static volatile boolean enabled =
+            Boolean.parseBoolean(Property.TIMELINE.getValue());
+
+    private Timeline() {
+        // hide default constructor for this util class
+    }
+
+    /** @return whether spans are being recorded */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    static void setEnabled(boolean enabled) {
+        Timeline.enabled = enabled;
+    }
+
+    /**
+     * @param name     the name of the span, e.g. "populate"
+     * @param category the phase the span is part of, e.g. "page"
+     * @return a started span, to be closed when the work is complete
+     */
+    public static Span span(String name, String category) {
+        return span(name, category, null);
+    }
+
+    /**
+     * @param name     the name of the span, e.g. "wait"
+     * @param category the phase the span is part of, e.g. "wait"
+     * @param detail   shown with the span in the trace viewer, may be null
+     * @return a started span, to be closed when the work is complete
+     */
+    public static Span span(String name, String category, String detail) {
+        return enabled ? new Span(name, category, detail) : Span.NONE;
+    }
+
+    /**
+     * Writes the spans recorded since the last write as a Chrome trace
+     * and discards them.
+     *
+     * @param file  the file to write, parent directories are created
+     * @param title the title of the trace, e.g. the suite name
+     */
+    public static void write(Path file, String title) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(file);
+                 JsonGenerator json = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("traceEvents");
+                for (ThreadSpans thread : THREADS) {
+                    writeThread(json, thread.id, thread.name, thread.drain());
+                    if (!thread.isAlive()) {
+                        // it can record no more spans, so drop its buffer
+                        THREADS.remove(thread);
+                    }
+                }
+                json.writeEndArray();
+                json.writeStringField("displayTimeUnit", "ms");
+                json.writeObjectFieldStart("otherData");
+                json.writeStringField("title", title);
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write timeline " + file, e);
+        }
+    }
+
+    /** @return the number of threads whose buffers are kept for writing */
+    static int bufferedThreads() {
+        return THREADS.size();
+    }
+
+    private static void writeThread(
+            JsonGenerator json, long threadId, String threadName, List<Span> spans)
+            throws IOException {
+
+        if (spans.isEmpty()) {
+            return;
+        }
+        json.writeStartObject();
+        json.writeStringField("name", "thread_name");
+        json.writeStringField("ph", "M");
+        json.writeNumberField("pid", 1);
+        json.writeNumberField("tid", threadId);
+        json.writeObjectFieldStart("args");
+        json.writeStringField("name", threadName);
+        json.writeEndObject();
+        json.writeEndObject();
+
+        for (Span span : spans) {
+            json.writeStartObject();
+            json.writeStringField("name", span.name);
+            json.writeStringField("cat", span.category);
+            json.writeStringField("ph", "X");
+            json.writeNumberField("ts", (span.startNanos - ORIGIN_NANOS) / 1000.0);
+            json.writeNumberField("dur", (span.endNanos - span.startNanos) / 1000.0);
+            json.writeNumberField("pid", 1);
+            json.writeNumberField("tid", threadId);
+            if (span.detail != null) {
+                json.writeObjectFieldStart("args");
+                json.writeStringField("detail", span.detail);
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+        }
+    }
+
+    /** A timed phase, recorded on the thread which closes it. */
+    public static final class Span implements AutoCloseable {
+
+        private static final Span NONE = new Span(null, null, null);
+
+        private final String name;
+        private final String category;
+        private final String detail;
+        private final long startNanos;
+        private long endNanos;
+
+        private Span(String name, String category, String detail) {
+            this.name = name;
+            this.category = category;
+            this.detail = detail;
+            this.startNanos = System.nanoTime();
+        }
+
+        /** Ends the span, closing it more than once has no effect. */
+        @Override
+        public void close() {
+            if (this == NONE || endNanos != 0) {
+                return;
+            }
+            endNanos = System.nanoTime();
+            SPANS.get().add(this);
+        }
+    }
+
+    /** The spans of one thread, only contended while being written. */
+    private static final class ThreadSpans {
+
+        private final long id;
+        private final String name;
+        private final WeakReference<Thread> thread;
+        private List<Span> spans = new ArrayList<>();
+
+        private ThreadSpans(Thread thread) {
+            this.id = thread.getId();
+            this.name = thread.getName();
+            this.thread = new WeakReference<>(thread);
+        }
+
+        private boolean isAlive() {
+            Thread alive = thread.get();
+            return alive != null && alive.isAlive();
+        }
+
+        private synchronized void add(Span span) {
+            spans.add(span);
+        }
+
+        private synchronized List<Span> drain() {
+            List<Span> drained = spans;
+            spans = new ArrayList<>();
+            return drained;
+        }
+    }
+}
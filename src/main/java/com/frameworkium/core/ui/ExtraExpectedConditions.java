@@ -18,6 +18,66 @@ import java.util.List;
  */
 public class ExtraExpectedConditions {
 
+    /** The default time without network activity for the network to be idle */
+    public static final long DEFAULT_NETWORK_QUIET_MILLIS = 500;
+
+    /**
+     * Installs, once per document, wrappers of fetch, XMLHttpRequest and
+     * WebSocket which count requests in flight, then checks for idleness.
+     */
+    private static final String NETWORK_IDLE_SCRIPT = ""
+            + "var quiet = arguments[0], w = window;"
+            + "if (!w.__frameworkiumNetwork) {"
+            + "  var net = w.__frameworkiumNetwork = {inFlight: 0, last: Date.now()};"
+            + "  var start = function () {"
+            + "    var done = false;"
+            + "    net.inFlight++;"
+            + "    net.last = Date.now();"
+            + "    return function () {"
+            + "      if (!done) { done = true; net.inFlight--; net.last = Date.now(); }"
+            + "    };"
+            + "  };"
+            + "  if (w.fetch) {"
+            + "    var fetch = w.fetch;"
+            + "    w.fetch = function () {"
+            + "      var end = start();"
+            + "      try {"
+            + "        var response = fetch.apply(this, arguments);"
+            + "        response.then(end, end);"
+            + "        return response;"
+            + "      } catch (e) { end(); throw e; }"
+            + "    };"
+            + "  }"
+            + "  if (w.XMLHttpRequest) {"
+            + "    var send = w.XMLHttpRequest.prototype.send;"
+            + "    w.XMLHttpRequest.prototype.send = function () {"
+            + "      var end = start();"
+            + "      this.addEventListener('loadend', end);"
+            + "      try { return send.apply(this, arguments); } catch (e) { end(); throw e; }"
+            + "    };"
+            + "  }"
+            + "  if (w.WebSocket) {"
+            + "    var Socket = w.WebSocket;"
+            + "    var Tracked = function (url, protocols) {"
+            + "      var socket = protocols === undefined"
+            + "          ? new Socket(url) : new Socket(url, protocols);"
+            + "      var end = start();"
+            + "      socket.addEventListener('open', end);"
+            + "      socket.addEventListener('error', end);"
+            + "      socket.addEventListener('close', end);"
+            + "      return socket;"
+            + "    };"
+            + "    Tracked.prototype = Socket.prototype;"
+            + "    ['CONNECTING', 'OPEN', 'CLOSING', 'CLOSED'].forEach(function (state) {"
+            + "      Tracked[state] = Socket[state];"
+            + "    });"
+            + "    w.WebSocket = Tracked;"
+            + "  }"
+            + "}"
+            + "var network = w.__frameworkiumNetwork;"
+            + "return document.readyState === 'complete' && network.inFlight === 0"
+            + "    && Date.now() - network.last >= quiet;";
+
     /**
      * Custom wait which fills the gap left by Selenium whereby
      * <code>not({@link ExpectedConditions#visibilityOf(WebElement)})</code>
@@ -70,6 +130,40 @@ public class ExtraExpectedConditions {
                                 "return !!window.jQuery && jQuery.active === 0;");
     }
 
+    /**
+     * Framework agnostic alternative to {@link #jQueryAjaxDone()}, e.g. for
+     * React pages. The first evaluation on each document instruments fetch,
+     * XMLHttpRequest and WebSocket handshakes, so requests started before
+     * then are not counted, but the network is not idle until at least
+     * <code>quietMillis</code> after instrumentation.
+     *
+     * @param quietMillis how long there must have been no requests in flight
+     * @return true iff the document has loaded, no instrumented requests are
+     * in flight and none have started or finished for quietMillis
+     */
+    public static ExpectedCondition<Boolean> networkIdle(long quietMillis) {
+
+        return new ExpectedCondition<Boolean>() {
+            @Override
+            public Boolean apply(WebDriver driver) {
+                return Boolean.TRUE.equals(((JavascriptExecutor) driver)
+                        .executeScript(NETWORK_IDLE_SCRIPT, quietMillis));
+            }
+
+            @Override
+            public String toString() {
+                return "network idle for " + quietMillis + "ms";
+            }
+        };
+    }
+
+    /**
+     * @return {@link #networkIdle(long)} with {@link #DEFAULT_NETWORK_QUIET_MILLIS}
+     */
+    public static ExpectedCondition<Boolean> networkIdle() {
+        return networkIdle(DEFAULT_NETWORK_QUIET_MILLIS);
+    }
+
     /**
      * Useful for waiting for items to be added to a list.
      *
@@ -0,0 +1,28 @@
+package com.frameworkium.core.ui.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Opt a page object in to caching the elements its lazy proxies resolve.
+ * <p>
+ * Cached elements are reused until a navigation, a
+ * {@link org.openqa.selenium.StaleElementReferenceException} or an explicit
+ * invalidation, see {@link com.frameworkium.core.ui.pages.ElementCache}.
+ * A call on a cached element which has gone stale, e.g. after a click which
+ * navigated, finds the element again and is retried once.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Inherited
+public @interface CacheElements {
+
+    /** @return which fields of the page object have their lookups cached */
+    Scope value() default Scope.ELEMENTS;
+
+    enum Scope {
+        /** Cache single elements only, lists are looked up on every use. */
+        ELEMENTS,
+        /** Cache single elements and lists of elements. */
+        ELEMENTS_AND_LISTS
+    }
+}
@@ -0,0 +1,29 @@
+package com.frameworkium.core.ui.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * The most a page object's page may take to load, checked by
+ * {@link com.frameworkium.core.ui.pages.BasePage#get()} when the
+ * <code>pageTiming</code> property is true. Budgets of 0 are not checked.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Inherited
+public @interface PageLoadBudget {
+
+    /** @return the most milliseconds from navigation to the first byte */
+    long timeToFirstByte() default 0;
+
+    /** @return the most milliseconds from navigation to DOMContentLoaded */
+    long domContentLoaded() default 0;
+
+    /** @return the most milliseconds from navigation to the load event */
+    long load() default 0;
+
+    /** @return the most bytes transferred for the document and its resources */
+    long transferSize() default 0;
+
+    /** @return whether to fail the test, rather than warn, if over budget */
+    boolean fail() default true;
+}
@@ -0,0 +1,112 @@
+package com.frameworkium.core.ui.capture;
+
+import com.frameworkium.core.ui.capture.model.Command;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.frameworkium.core.common.properties.Property.COMMAND_HISTORY_SIZE;
+import static com.frameworkium.core.common.properties.Property.FAILURE_ARTIFACT;
+
+/**
+ * The last <code>commandHistorySize</code> {@link Command}s of each thread's
+ * test, as observed by the WebDriver event listeners, to report what led up
+ * to a failure in its DOM snapshot.
+ * <p>
+ * The default size is 20 when <code>failureArtifact</code> is
+ * <code>dom</code> or <code>both</code>, else 0, so commands are not
+ * recorded when no DOM snapshot would report them.
+ */
+public final class CommandHistory {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int DEFAULT_SIZE = 20;
+
+    private static final int SIZE = parseSize();
+
+    private static final ThreadLocal<Deque<Entry>> HISTORY =
+            ThreadLocal.withInitial(ArrayDeque::new);
+
+    private CommandHistory() {
+        // hide default constructor for this util class
+    }
+
+    private static int parseSize() {
+        int defaultSize = isReportedOnFailure() ? DEFAULT_SIZE : 0;
+        if (!COMMAND_HISTORY_SIZE.isSpecified()) {
+            return defaultSize;
+        }
+        String value = COMMAND_HISTORY_SIZE.getValue();
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("commandHistorySize '{}' is not a number, using {}", value, defaultSize);
+            return defaultSize;
+        }
+    }
+
+    private static boolean isReportedOnFailure() {
+        String artifact = FAILURE_ARTIFACT.isSpecified()
+                ? FAILURE_ARTIFACT.getValue().toLowerCase()
+                : "";
+        return "dom".equals(artifact) || "both".equals(artifact);
+    }
+
+    /** @return whether commands are recorded, i.e. the history size is above 0 */
+    public static boolean isEnabled() {
+        return SIZE > 0;
+    }
+
+    /** @param command the command the current thread's test just ran */
+    public static void record(Command command) {
+        record(command, SIZE);
+    }
+
+    static void record(Command command, int size) {
+        if (size <= 0) {
+            return;
+        }
+        Deque<Entry> history = HISTORY.get();
+        if (history.size() >= size) {
+            history.removeFirst();
+        }
+        history.addLast(new Entry(System.currentTimeMillis(), command));
+    }
+
+    /** Forgets the commands of the current thread, e.g. of its previous test. */
+    public static void clear() {
+        HISTORY.get().clear();
+    }
+
+    /**
+     * @return the current thread's commands, oldest first, formatted as
+     * <code>time action using=value</code>
+     */
+    public static List<String> recent() {
+        return HISTORY.get().stream()
+                .map(Entry::toString)
+                .collect(Collectors.toList());
+    }
+
+    private static final class Entry {
+
+        private final long millis;
+        private final Command command;
+
+        private Entry(long millis, Command command) {
+            this.millis = millis;
+            this.command = command;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%tT.%<tL %s %s=%s",
+                    millis, command.action, command.using, command.value);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.frameworkium.core.ui.capture;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static com.frameworkium.core.common.properties.Property.DOM_SNAPSHOT_MAX_KB;
+import static com.frameworkium.core.common.properties.Property.DOM_SNAPSHOT_TIMEOUT_MILLIS;
+
+/**
+ * A compact copy of the page's DOM, taken with one script, as a cheaper
+ * alternative to a screenshot on failure. Scripts, styles and other
+ * non-content elements are pruned, as are the values of password fields.
+ * The current values of form fields are kept as <code>data-value</code>.
+ * <p>
+ * Serialisation stops after <code>domSnapshotMaxKB</code>, default 512, of
+ * characters or <code>domSnapshotTimeoutMillis</code>, default 2000, and
+ * the snapshot is marked as truncated.
+ */
+public final class DomSnapshot {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final int DEFAULT_MAX_KB = 512;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+    private static final int MAX_ATTRIBUTE_LENGTH = 200;
+
+    private static final String SNAPSHOT_SCRIPT = ""
+            + "var max = arguments[0], deadline = Date.now() + arguments[1];"
+            + "var maxAttribute = arguments[2];"
+            + "var skip = {SCRIPT: 1, STYLE: 1, NOSCRIPT: 1, TEMPLATE: 1, LINK: 1, META: 1};"
+            + "var out = [], length = 0, truncated = false;"
+            + "function push(s) {"
+            + "  out.push(s); length += s.length;"
+            + "  if (length > max || Date.now() > deadline) { truncated = true; }"
+            + "}"
+            + "function esc(s) {"
+            + "  return String(s).substring(0, maxAttribute)"
+            + "    .replace(/&/g, '&amp;').replace(/</g, '&lt;').replace(/\"/g, '&quot;');"
+            + "}"
+            + "function walk(node) {"
+            + "  if (truncated) { return; }"
+            + "  if (node.nodeType === 3) {"
+            + "    var text = node.nodeValue.replace(/\\s+/g, ' ');"
+            + "    if (text && text !== ' ') {"
+            + "      push(text.replace(/&/g, '&amp;').replace(/</g, '&lt;'));"
+            + "    }"
+            + "    return;"
+            + "  }"
+            + "  if (node.nodeType !== 1 || skip[node.tagName]) { return; }"
+            + "  var tag = node.tagName.toLowerCase(), open = '<' + tag;"
+            + "  for (var i = 0; i < node.attributes.length; i++) {"
+            + "    var a = node.attributes[i];"
+            + "    if (a.name !== 'style' && a.name !== 'value') {"
+            + "      open += ' ' + a.name + '=\"' + esc(a.value) + '\"';"
+            + "    }"
+            + "  }"
+            + "  if ((tag === 'input' || tag === 'textarea' || tag === 'select')"
+            + "      && node.type !== 'password' && node.value) {"
+            + "    open += ' data-value=\"' + esc(node.value) + '\"';"
+            + "  }"
+            + "  push(open + '>');"
+            + "  for (var child = node.firstChild; child; child = child.nextSibling) {"
+            + "    walk(child);"
+            + "  }"
+            + "  push('</' + tag + '>');"
+            + "}"
+            + "walk(document.documentElement);"
+            + "return [document.URL, document.title, out.join(''), truncated];";
+
+    private final String url;
+    private final String title;
+    private final String html;
+    private final boolean truncated;
+
+    DomSnapshot(String url, String title, String html, boolean truncated) {
+        this.url = url;
+        this.title = title;
+        this.html = html;
+        this.truncated = truncated;
+    }
+
+    /**
+     * @param driver the driver, which should not fire events, so the script
+     *               is not itself recorded or captured
+     * @return the snapshot limited as configured by properties
+     */
+    public static DomSnapshot take(WebDriver driver) {
+        return take(driver,
+                (DOM_SNAPSHOT_MAX_KB.isSpecified()
+                        ? Integer.parseInt(DOM_SNAPSHOT_MAX_KB.getValue())
+                        : DEFAULT_MAX_KB) * 1024,
+                DOM_SNAPSHOT_TIMEOUT_MILLIS.isSpecified()
+                        ? Long.parseLong(DOM_SNAPSHOT_TIMEOUT_MILLIS.getValue())
+                        : DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Prunes the DOM in the browser, falling back to the page source, e.g.
+     * for native apps, truncated to the same length.
+     *
+     * @param driver        the driver, which should not fire events
+     * @param maxChars      the most characters of HTML to serialise
+     * @param timeoutMillis the most time to spend serialising
+     * @return the snapshot
+     */
+    public static DomSnapshot take(WebDriver driver, int maxChars, long timeoutMillis) {
+        try {
+            List<?> snapshot = (List<?>) ((JavascriptExecutor) driver).executeScript(
+                    SNAPSHOT_SCRIPT, maxChars, timeoutMillis, MAX_ATTRIBUTE_LENGTH);
+            return new DomSnapshot(
+                    (String) snapshot.get(0),
+                    (String) snapshot.get(1),
+                    (String) snapshot.get(2),
+                    (Boolean) snapshot.get(3));
+        } catch (Exception e) {
+            logger.debug("Unable to prune DOM, using the page source", e);
+            String source = driver.getPageSource();
+            return new DomSnapshot(driver.getCurrentUrl(), driver.getTitle(),
+                    StringUtils.left(source, maxChars), source.length() > maxChars);
+        }
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @param commands the commands leading up to the snapshot, see
+     *                 {@link CommandHistory#recent()}
+     * @return the snapshot as HTML, with a comment describing it first
+     */
+    public String toHtml(List<String> commands) {
+        StringBuilder builder = new StringBuilder(html.length() + 1024);
+        appendHeader(builder, commands);
+        return builder.append(html).toString();
+    }
+
+    /**
+     * Streams the snapshot through gzip to the file, creating its directory.
+     *
+     * @param file     the file to write, e.g. <code>failure.html.gz</code>
+     * @param commands the commands leading up to the snapshot
+     */
+    public void writeGzipped(Path file, List<String> commands) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8)) {
+            StringBuilder header = new StringBuilder();
+            appendHeader(header, commands);
+            writer.append(header).write(html);
+        }
+    }
+
+    private void appendHeader(StringBuilder builder, List<String> commands) {
+        builder.append("<!--\n")
+                .append("URL: ").append(comment(url)).append('\n')
+                .append("Title: ").append(comment(title)).append('\n');
+        if (truncated) {
+            builder.append("Truncated\n");
+        }
+        builder.append("Recent commands:\n");
+        commands.forEach(command -> builder.append(comment(command)).append('\n'));
+        builder.append("-->\n");
+    }
+
+    /** @return the text which cannot end an HTML comment */
+    private static String comment(String text) {
+        return String.valueOf(text).replace("--", "- -");
+    }
+}
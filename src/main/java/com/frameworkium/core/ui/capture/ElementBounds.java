@@ -0,0 +1,91 @@
+package com.frameworkium.core.ui.capture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Where an element is on the page, read with one script, for cropping
+ * screenshots to it, see {@link ScreenshotEncoder}.
+ */
+public final class ElementBounds {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /** Around the element, in CSS pixels, to show some of its context */
+    static final int MARGIN = 20;
+
+    private static final String SCRIPT =
+            "var r = arguments[0].getBoundingClientRect();"
+                    + "return [r.left, r.top, r.width, r.height,"
+                    + " window.pageXOffset, window.pageYOffset,"
+                    + " window.innerHeight, window.devicePixelRatio || 1];";
+
+    private final double left;
+    private final double top;
+    private final double width;
+    private final double height;
+    private final double scrollX;
+    private final double scrollY;
+    private final double viewportHeight;
+    private final double pixelRatio;
+
+    ElementBounds(double left, double top, double width, double height,
+            double scrollX, double scrollY, double viewportHeight, double pixelRatio) {
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+        this.scrollX = scrollX;
+        this.scrollY = scrollY;
+        this.viewportHeight = viewportHeight;
+        this.pixelRatio = pixelRatio;
+    }
+
+    /**
+     * @param driver  the driver, which must not fire events, i.e. not a
+     *                {@link com.frameworkium.core.ui.driver.WebDriverWrapper}
+     * @param element the element
+     * @return the element's bounds, or null if they could not be read
+     */
+    public static ElementBounds of(WebDriver driver, WebElement element) {
+        try {
+            List<?> values = (List<?>) ((JavascriptExecutor) driver)
+                    .executeScript(SCRIPT, element);
+            double[] numbers = values.stream()
+                    .mapToDouble(value -> ((Number) value).doubleValue())
+                    .toArray();
+            return new ElementBounds(numbers[0], numbers[1], numbers[2], numbers[3],
+                    numbers[4], numbers[5], numbers[6], numbers[7]);
+        } catch (Exception e) {
+            logger.debug("Unable to read element bounds, screenshot will not be cropped", e);
+            return null;
+        }
+    }
+
+    /**
+     * Drivers take screenshots of either the viewport or the whole page,
+     * which is told apart by the height of the screenshot.
+     *
+     * @param imageWidth  the width of the screenshot in pixels
+     * @param imageHeight the height of the screenshot in pixels
+     * @return the element and margin in screenshot pixels, empty if the
+     * element is not in the screenshot
+     */
+    Rectangle toImagePixels(int imageWidth, int imageHeight) {
+        boolean wholePage = imageHeight > Math.ceil(viewportHeight * pixelRatio) + 1;
+        double x = left + (wholePage ? scrollX : 0) - MARGIN;
+        double y = top + (wholePage ? scrollY : 0) - MARGIN;
+        Rectangle bounds = new Rectangle(
+                (int) Math.floor(x * pixelRatio),
+                (int) Math.floor(y * pixelRatio),
+                (int) Math.ceil((width + 2 * MARGIN) * pixelRatio),
+                (int) Math.ceil((height + 2 * MARGIN) * pixelRatio));
+        return bounds.intersection(new Rectangle(0, 0, imageWidth, imageHeight));
+    }
+}
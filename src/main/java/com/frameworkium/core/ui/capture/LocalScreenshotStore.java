@@ -0,0 +1,291 @@
+package com.frameworkium.core.ui.capture;
+
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.frameworkium.core.common.properties.Property.*;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+/**
+ * Writes screenshots to a local directory on background threads.
+ * <ul>
+ * <li>Files are named by the SHA-256 of the screenshot, so identical
+ * screenshots, e.g. of the same failure on a retry, are written once.
+ * <code>index.txt</code> lists which test each screenshot is of.</li>
+ * <li>Screenshots are scaled and encoded as configured for
+ * {@link ScreenshotEncoder}, e.g. as JPEG.</li>
+ * <li>If <code>screenshotRecompress</code> is true, PNG screenshots are
+ * re-encoded with maximum PNG compression, which is lossless.</li>
+ * <li>If <code>screenshotQuotaMB</code> is specified, the oldest screenshots
+ * written in this run, and their index lines, are deleted when the quota is
+ * exceeded.</li>
+ * </ul>
+ * The directory is <code>screenshotDirectory</code>, default
+ * <code>screenshots</code>.
+ */
+public final class LocalScreenshotStore {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String DEFAULT_DIRECTORY = "screenshots";
+    private static final String INDEX_FILE = "index.txt";
+    private static final int WRITER_THREADS = 2;
+
+    private final Path directory;
+    private final long quotaBytes;
+    private final boolean recompress;
+    private final ScreenshotEncoder encoder;
+    private final ExecutorService writers =
+            Executors.newFixedThreadPool(WRITER_THREADS, new WriterThreadFactory());
+
+    private final Set<CompletableFuture<Void>> pending = ConcurrentHashMap.newKeySet();
+    /** Index lines are appended in the order screenshots are stored */
+    private CompletableFuture<Void> lastIndexed = CompletableFuture.completedFuture(null);
+    /** Guards the index, and deleting the files it lists */
+    private final Object indexLock = new Object();
+
+    /** Hashes of screenshots written, or being written, in this run */
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    /** Screenshots written in this run, oldest first, for eviction */
+    private final Deque<StoredFile> written = new ArrayDeque<>();
+    private long writtenBytes;
+
+    /**
+     * @param directory  the directory to write screenshots to
+     * @param quotaBytes the most bytes of screenshots to keep, 0 for no limit
+     * @param recompress whether to re-encode screenshots with maximum compression
+     */
+    public LocalScreenshotStore(Path directory, long quotaBytes, boolean recompress) {
+        this(directory, quotaBytes, recompress,
+                new ScreenshotEncoder(false, 1, ScreenshotEncoder.Format.PNG, 1));
+    }
+
+    /**
+     * @param directory  the directory to write screenshots to
+     * @param quotaBytes the most bytes of screenshots to keep, 0 for no limit
+     * @param recompress whether to re-encode PNG screenshots with maximum compression
+     * @param encoder    scales and encodes screenshots before they are written
+     */
+    public LocalScreenshotStore(
+            Path directory, long quotaBytes, boolean recompress, ScreenshotEncoder encoder) {
+        this.directory = directory;
+        this.quotaBytes = quotaBytes;
+        this.recompress = recompress;
+        this.encoder = encoder;
+    }
+
+    /** @return the store configured by properties */
+    public static LocalScreenshotStore getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Queues the screenshot to be hashed and written, unless an identical
+     * screenshot has already been written in this run.
+     *
+     * @param testName the name of the test the screenshot is of
+     * @param png      the screenshot
+     * @return completes with the file the screenshot was written to, or null
+     * if it could not be written
+     */
+    public CompletableFuture<Path> store(String testName, byte[] png) {
+        long storedAt = System.currentTimeMillis();
+        CompletableFuture<Path> write = CompletableFuture.supplyAsync(() -> write(png), writers);
+        CompletableFuture<Void> indexed;
+        synchronized (this) {
+            CompletableFuture<Void> previous = lastIndexed;
+            indexed = lastIndexed = write.thenCombineAsync(previous, (file, ignored) -> {
+                if (file != null) {
+                    appendToIndex(storedAt, testName, file);
+                }
+                return null;
+            }, writers);
+        }
+        pending.add(indexed);
+        indexed.whenComplete((ignored, e) -> pending.remove(indexed));
+        return write;
+    }
+
+    /** @return the file the screenshot was, or had already been, written to, else null */
+    private Path write(byte[] png) {
+        String hash = Hashing.sha256().hashBytes(png).toString();
+        Path file = directory.resolve(hash + "." + encoder.getFormat().getExtension());
+        if (!stored.add(hash)) {
+            return file;
+        }
+        try {
+            Files.createDirectories(directory);
+            byte[] bytes = encoder.encode(png, null);
+            if (recompress && encoder.getFormat() == ScreenshotEncoder.Format.PNG) {
+                bytes = recompress(bytes);
+            }
+            Files.write(file, bytes);
+            logger.debug("Written screenshot {} ({} bytes)", file, bytes.length);
+            recordWritten(hash, file, bytes.length);
+            return file;
+        } catch (IOException | UncheckedIOException e) {
+            stored.remove(hash);
+            logger.error("Unable to write screenshot " + file, e);
+            return null;
+        }
+    }
+
+    /** Skips screenshots already evicted, so the index only lists files which exist */
+    private void appendToIndex(long storedAt, String testName, Path file) {
+        String line = storedAt + " " + testName + " "
+                + file.getFileName() + System.lineSeparator();
+        synchronized (indexLock) {
+            if (!Files.exists(file)) {
+                return;
+            }
+            try {
+                Files.write(directory.resolve(INDEX_FILE),
+                        line.getBytes(StandardCharsets.UTF_8), CREATE, APPEND);
+            } catch (IOException e) {
+                logger.error("Unable to index screenshot " + file, e);
+            }
+        }
+    }
+
+    private synchronized void recordWritten(String hash, Path file, long size) {
+        written.addLast(new StoredFile(hash, file, size));
+        writtenBytes += size;
+        Iterator<StoredFile> oldest = written.iterator();
+        while (quotaBytes > 0 && writtenBytes > quotaBytes && oldest.hasNext()) {
+            StoredFile evicted = oldest.next();
+            oldest.remove();
+            writtenBytes -= evicted.size;
+            stored.remove(evicted.hash);
+            evict(evicted.file);
+        }
+    }
+
+    /** Deletes the screenshot and its lines from the index */
+    private void evict(Path file) {
+        String fileName = " " + file.getFileName();
+        Path index = directory.resolve(INDEX_FILE);
+        synchronized (indexLock) {
+            try {
+                Files.deleteIfExists(file);
+                logger.debug("Screenshot quota exceeded, deleted {}", file);
+                if (Files.exists(index)) {
+                    List<String> lines = Files.readAllLines(index, StandardCharsets.UTF_8);
+                    lines.removeIf(line -> line.endsWith(fileName));
+                    Files.write(index, lines, StandardCharsets.UTF_8);
+                }
+            } catch (IOException e) {
+                logger.warn("Unable to delete screenshot " + file, e);
+            }
+        }
+    }
+
+    /** @return the PNG re-encoded with maximum compression, if smaller */
+    static byte[] recompress(byte[] png) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length);
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(0f);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.size() < png.length ? out.toByteArray() : png;
+    }
+
+    /**
+     * Waits for queued screenshots to be written.
+     *
+     * @param timeout the most time to wait
+     * @param unit    the unit of timeout
+     * @return true if all queued screenshots were written
+     */
+    public boolean awaitWrites(long timeout, TimeUnit unit) {
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+                    .get(timeout, unit);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    private static final class StoredFile {
+
+        private final String hash;
+        private final Path file;
+        private final long size;
+
+        private StoredFile(String hash, Path file, long size) {
+            this.hash = hash;
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    private static final class WriterThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "screenshot-writer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    private static long parseQuotaMb(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("screenshotQuotaMB '{}' is not a number, so there is no quota", value);
+            return 0;
+        }
+    }
+
+    private static final class Holder {
+
+        private static final LocalScreenshotStore INSTANCE = new LocalScreenshotStore(
+                Paths.get(SCREENSHOT_DIRECTORY.isSpecified()
+                        ? SCREENSHOT_DIRECTORY.getValue()
+                        : DEFAULT_DIRECTORY),
+                SCREENSHOT_QUOTA_MB.isSpecified()
+                        ? parseQuotaMb(SCREENSHOT_QUOTA_MB.getValue()) * 1024 * 1024
+                        : 0,
+                Boolean.parseBoolean(SCREENSHOT_RECOMPRESS.getValue()),
+                ScreenshotEncoder.getInstance());
+    }
+}
@@ -1,6 +1,7 @@
 package com.frameworkium.core.ui.capture;
 
 import com.frameworkium.core.common.properties.Property;
+import com.frameworkium.core.common.reporting.ReportingHttpClient;
 import com.frameworkium.core.ui.capture.model.Command;
 import com.frameworkium.core.ui.capture.model.message.CreateExecution;
 import com.frameworkium.core.ui.capture.model.message.CreateScreenshot;
@@ -9,14 +10,19 @@ import com.frameworkium.core.ui.driver.DriverSetup;
 import com.frameworkium.core.ui.driver.remotes.BrowserStack;
 import com.frameworkium.core.ui.driver.remotes.Sauce;
 import com.frameworkium.core.ui.tests.BaseTest;
-import io.restassured.RestAssured;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
+import org.openqa.selenium.remote.SessionId;
 
 import java.net.*;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static com.frameworkium.core.common.properties.Property.CAPTURE_URL;
 import static com.frameworkium.core.ui.tests.BaseTest.executor;
@@ -26,7 +32,12 @@ public class ScreenshotCapture {
 
     private static final Logger logger = LogManager.getLogger();
 
-    private String executionID;
+    /** Grid node addresses, looked up once per driver session */
+    private static final Cache<SessionId, String> NODE_ADDRESSES =
+            CacheBuilder.newBuilder().weakKeys().build();
+
+    /** Created in the background with the first screenshot, if any */
+    private CompletableFuture<String> executionID;
     private String testID;
 
     private ScreenshotCapture() {
@@ -34,9 +45,25 @@ public class ScreenshotCapture {
 
     public ScreenshotCapture(String testID) {
         this.testID = testID;
-        logger.debug("About to initialise Capture execution for " + testID);
-        this.executionID = createExecution(new CreateExecution(testID, getNode()));
-        logger.debug("Capture executionID=" + executionID);
+    }
+
+    /**
+     * Starts creating the execution on the first call. The model is built on
+     * the calling, test, thread because it reads the thread's driver.
+     */
+    private CompletableFuture<String> getExecutionID() {
+        if (executionID == null) {
+            logger.debug("About to initialise Capture execution for " + testID);
+            Supplier<String> node = getNode();
+            CreateExecution createExecution = new CreateExecution(testID, null);
+            executionID = CompletableFuture.supplyAsync(() -> {
+                createExecution.nodeAddress = node.get();
+                String id = createExecution(createExecution);
+                logger.debug("Capture executionID=" + id);
+                return id;
+            }, executor);
+        }
+        return executionID;
     }
 
     private String createExecution(CreateExecution createExecution) {
@@ -54,54 +81,49 @@ public class ScreenshotCapture {
         }
     }
 
-    private String getNode() {
-
-        String node = "n/a";
-        if (DriverSetup.useRemoteDriver()) {
-            if (Sauce.isDesired()) {
-                node = "SauceLabs";
-            } else if (BrowserStack.isDesired()) {
-                node = "BrowserStack";
-            } else {
-                try {
-                    node = getRemoteNodeAddress();
-                } catch (Throwable t) {
-                    logger.warn("Failed to get node address of remote web driver");
-                    logger.debug(t);
-                }
-            }
+    /** @return supplies the node address, without blocking the test thread */
+    private Supplier<String> getNode() {
+
+        if (!DriverSetup.useRemoteDriver()) {
+            return () -> LocalHost.NAME;
+        } else if (Sauce.isDesired()) {
+            return () -> "SauceLabs";
+        } else if (BrowserStack.isDesired()) {
+            return () -> "BrowserStack";
         } else {
-            try {
-                node = InetAddress.getLocalHost().getCanonicalHostName();
-            } catch (UnknownHostException e) {
-                logger.warn("Failed to get local machine name");
-                logger.debug(e);
-            }
+            SessionId sessionId =
+                    BaseTest.getDriver().getWrappedRemoteWebDriver().getSessionId();
+            return () -> getRemoteNodeAddress(sessionId);
         }
-        return node;
     }
 
-    private RequestSpecification getRequestSpec() {
-        return RestAssured.given()
-                .contentType(ContentType.JSON);
+    private String getRemoteNodeAddress(SessionId sessionId) {
+        try {
+            return NODE_ADDRESSES.get(sessionId, () -> ReportingHttpClient.given()
+                    .post(getTestSessionURL(sessionId))
+                    .then()
+                    .extract().jsonPath()
+                    .getString("proxyId"));
+        } catch (Throwable t) {
+            logger.warn("Failed to get node address of remote web driver");
+            logger.debug(t);
+            return "n/a";
+        }
     }
 
-    private String getRemoteNodeAddress() throws MalformedURLException {
-        return RestAssured
-                .post(getTestSessionURL())
-                .then()
-                .extract().jsonPath()
-                .getString("proxyId");
+    private RequestSpecification getRequestSpec() {
+        return ReportingHttpClient.given()
+                .contentType(ContentType.JSON);
     }
 
-    private String getTestSessionURL() throws MalformedURLException {
+    private String getTestSessionURL(SessionId sessionId) throws MalformedURLException {
         URL gridURL = new URL(Property.GRID_URL.getValue());
         return String.format(
                 "%s://%s:%d/grid/api/testsession?session=%s",
                 gridURL.getProtocol(),
                 gridURL.getHost(),
                 gridURL.getPort(),
-                BaseTest.getDriver().getWrappedRemoteWebDriver().getSessionId());
+                sessionId);
     }
 
     public static boolean isRequired() {
@@ -109,36 +131,69 @@ public class ScreenshotCapture {
     }
 
     public void takeAndSendScreenshot(Command command, WebDriver driver) {
-        takeAndSendScreenshotWithError(command, driver, null);
+        takeAndSendScreenshot(command, driver, null, null);
+    }
+
+    /**
+     * Crops the screenshot to the element if <code>screenshotMode</code> is
+     * <code>element</code>, see {@link ScreenshotEncoder}.
+     *
+     * @param driver  the driver, which must not fire events
+     * @param element the element the command is on
+     */
+    public void takeAndSendScreenshot(Command command, WebDriver driver, WebElement element) {
+        takeAndSendScreenshot(command, driver, element, null);
     }
 
     public void takeAndSendScreenshotWithError(
             Command command, WebDriver driver, String errorMessage) {
-
-        CreateScreenshot createScreenshotMessage =
-                new CreateScreenshot(
-                        executionID,
-                        command,
-                        driver.getCurrentUrl(),
-                        errorMessage,
-                        getBase64Screenshot(driver));
-        sendScreenshot(createScreenshotMessage);
+        takeAndSendScreenshot(command, driver, null, errorMessage);
     }
 
-    private String getBase64Screenshot(WebDriver driver) {
-        return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+    /**
+     * Only takes the screenshot on the calling, test, thread, it is encoded
+     * in the background and sent once encoded.
+     */
+    private void takeAndSendScreenshot(
+            Command command, WebDriver driver, WebElement element, String errorMessage) {
+
+        ScreenshotEncoder encoder = ScreenshotEncoder.getInstance();
+        String url = driver.getCurrentUrl();
+        byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        ElementBounds crop = element != null && encoder.isCroppingToElements()
+                ? ElementBounds.of(driver, element)
+                : null;
+        CompletableFuture<byte[]> screenshot = encoder.encodeAsync(png, crop)
+                .exceptionally(t -> {
+                    logger.warn("Unable to encode screenshot, sending as taken");
+                    logger.debug(t);
+                    return png;
+                });
+        sendScreenshot(() -> new CreateScreenshot(
+                null,
+                command,
+                url,
+                errorMessage,
+                Base64.getEncoder().encodeToString(screenshot.join())));
     }
 
-    private void sendScreenshot(CreateScreenshot createScreenshotMessage) {
-
-        if (executionID == null) {
-            logger.debug("No Screenshot sent. Capture didn't initialise for " + testID);
-            return;
-        }
+    /**
+     * Queues the screenshot behind the creation of the execution, both run
+     * on the single threaded {@link BaseTest#executor} so are sent in order.
+     */
+    private void sendScreenshot(Supplier<CreateScreenshot> screenshot) {
 
+        CompletableFuture<String> execution = getExecutionID();
         executor.execute(() -> {
+            String id = execution.join();
+            if (id == null) {
+                logger.debug("No Screenshot sent. Capture didn't initialise for " + testID);
+                return;
+            }
             logger.debug("About to send screenshot to Capture for " + testID);
             try {
+                CreateScreenshot createScreenshotMessage = screenshot.get();
+                createScreenshotMessage.executionID = id;
                 getRequestSpec()
                         .body(createScreenshotMessage)
                         .when()
@@ -152,4 +207,20 @@ public class ScreenshotCapture {
             }
         });
     }
+
+    /** The local machine name, which is slow to look up, so looked up once. */
+    private static final class LocalHost {
+
+        private static final String NAME = lookUpName();
+
+        private static String lookUpName() {
+            try {
+                return InetAddress.getLocalHost().getCanonicalHostName();
+            } catch (UnknownHostException e) {
+                logger.warn("Failed to get local machine name");
+                logger.debug(e);
+                return "n/a";
+            }
+        }
+    }
 }
@@ -0,0 +1,225 @@
+package com.frameworkium.core.ui.capture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.frameworkium.core.common.properties.Property.*;
+
+/**
+ * Crops, downscales and re-encodes screenshots on a background pool, so the
+ * test thread only takes the screenshot. Configured by:
+ * <ul>
+ * <li><code>screenshotMode</code> <code>element</code> to crop Capture
+ * screenshots of click and change events to the element, default
+ * <code>full</code></li>
+ * <li><code>screenshotScale</code> e.g. 0.5 to halve the width and height,
+ * default 1</li>
+ * <li><code>screenshotFormat</code> <code>png</code>, the default, or
+ * <code>jpeg</code> (or <code>jpg</code>)</li>
+ * <li><code>screenshotQuality</code> the JPEG quality from 0 to 1,
+ * default 0.8</li>
+ * </ul>
+ */
+public final class ScreenshotEncoder {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final ExecutorService ENCODERS = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+            new EncoderThreadFactory());
+
+    public enum Format {
+        PNG("png"), JPEG("jpg");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /** @return the file extension, without the dot */
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private final boolean cropToElements;
+    private final double scale;
+    private final Format format;
+    private final float quality;
+
+    /**
+     * @param cropToElements whether to crop screenshots of element events
+     * @param scale          the factor to scale the width and height by
+     * @param format         the image format to encode as
+     * @param quality        the JPEG quality from 0 to 1
+     */
+    public ScreenshotEncoder(
+            boolean cropToElements, double scale, Format format, float quality) {
+        this.cropToElements = cropToElements;
+        this.scale = scale;
+        this.format = format;
+        this.quality = quality;
+    }
+
+    /** @return the encoder configured by properties */
+    public static ScreenshotEncoder getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /** @return whether screenshots of element events are cropped to the element */
+    public boolean isCroppingToElements() {
+        return cropToElements;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * @param png  the screenshot as taken by the driver
+     * @param crop the bounds of the element to crop to, or null
+     * @return the encoded screenshot, the PNG itself if there is nothing to do
+     */
+    public CompletableFuture<byte[]> encodeAsync(byte[] png, ElementBounds crop) {
+        if (isUnchanged(crop)) {
+            return CompletableFuture.completedFuture(png);
+        }
+        return CompletableFuture.supplyAsync(() -> encode(png, crop), ENCODERS);
+    }
+
+    /**
+     * @param png  the screenshot as taken by the driver
+     * @param crop the bounds of the element to crop to, or null
+     * @return the cropped, scaled and encoded screenshot
+     */
+    public byte[] encode(byte[] png, ElementBounds crop) {
+        if (isUnchanged(crop)) {
+            return png;
+        }
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                return png;
+            }
+            if (crop != null) {
+                Rectangle bounds = crop.toImagePixels(image.getWidth(), image.getHeight());
+                if (!bounds.isEmpty()) {
+                    image = image.getSubimage(
+                            bounds.x, bounds.y, bounds.width, bounds.height);
+                }
+            }
+            return write(scale(image));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode screenshot", e);
+        }
+    }
+
+    private boolean isUnchanged(ElementBounds crop) {
+        return crop == null && scale == 1 && format == Format.PNG;
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        // JPEG has no alpha channel, so always draw onto an RGB image
+        if (scale == 1 && (format == Format.PNG || image.getType() == BufferedImage.TYPE_INT_RGB)) {
+            return image;
+        }
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private byte[] write(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format.name()).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format == Format.JPEG) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        logger.trace("Encoded {}x{} screenshot as {} bytes of {}",
+                image.getWidth(), image.getHeight(), out.size(), format);
+        return out.toByteArray();
+    }
+
+    private static final class EncoderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "screenshot-encoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * @param value a <code>screenshotFormat</code> value
+     * @return the format named by the value or its extension, else PNG
+     */
+    static Format parseFormat(String value) {
+        String name = value.trim();
+        for (Format format : Format.values()) {
+            if (format.name().equalsIgnoreCase(name)
+                    || format.getExtension().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        logger.warn("Unknown screenshotFormat '{}', expected png or jpeg, so using png", value);
+        return Format.PNG;
+    }
+
+    private static double parseDouble(String name, String value, double defaultValue) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("{} '{}' is not a number, using {}", name, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static final class Holder {
+
+        private static final ScreenshotEncoder INSTANCE = new ScreenshotEncoder(
+                "element".equalsIgnoreCase(SCREENSHOT_MODE.getValue()),
+                SCREENSHOT_SCALE.isSpecified()
+                        ? parseDouble("screenshotScale", SCREENSHOT_SCALE.getValue(), 1)
+                        : 1,
+                SCREENSHOT_FORMAT.isSpecified()
+                        ? parseFormat(SCREENSHOT_FORMAT.getValue())
+                        : Format.PNG,
+                SCREENSHOT_QUALITY.isSpecified()
+                        ? (float) parseDouble("screenshotQuality", SCREENSHOT_QUALITY.getValue(), 0.8)
+                        : 0.8f);
+    }
+}
@@ -3,58 +3,80 @@ package com.frameworkium.core.ui.capture.model;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.frameworkium.core.ui.driver.DriverSetup;
 import com.frameworkium.core.ui.tests.BaseTest;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import net.sf.uadetector.ReadableUserAgent;
-import net.sf.uadetector.UserAgentStringParser;
 import net.sf.uadetector.service.UADetectorServiceFactory;
 
-import java.util.Optional;
-
 import static com.frameworkium.core.common.properties.Property.*;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Browser {
 
+    /** Parsing is slow and a test run typically has very few user agents */
+    private static final LoadingCache<String, Browser> USER_AGENTS =
+            CacheBuilder.newBuilder()
+                    .maximumSize(32)
+                    .build(CacheLoader.from(Browser::parse));
+
+    /** The properties do not change during a run so are only read once */
+    private static final Browser FROM_PROPERTIES = new Browser(
+            BROWSER.isSpecified()
+                    ? BROWSER.getValue().toLowerCase()
+                    : DriverSetup.DEFAULT_BROWSER.toString(),
+            BROWSER_VERSION.isSpecified() ? BROWSER_VERSION.getValue() : null,
+            DEVICE.isSpecified() ? DEVICE.getValue() : null,
+            PLATFORM.isSpecified() ? PLATFORM.getValue() : null,
+            PLATFORM_VERSION.isSpecified() ? PLATFORM_VERSION.getValue() : null);
+
     public String name;
     public String version;
     public String device;
     public String platform;
     public String platformVersion;
 
+    /**
+     * The browser of the current thread's session, parsed from its user agent
+     * if known, otherwise from the properties.
+     */
     public Browser() {
+        this(BaseTest.getBrowserEnvironment().getUserAgent()
+                .filter(userAgent -> !userAgent.isEmpty())
+                .map(Browser::fromUserAgent)
+                .orElse(FROM_PROPERTIES));
+    }
 
-        Optional<String> userAgent = BaseTest.getUserAgent();
-        if (userAgent.isPresent() && !userAgent.get().isEmpty()) {
-            // Try to parse the UA
-            UserAgentStringParser uaParser = UADetectorServiceFactory.getResourceModuleParser();
-            ReadableUserAgent agent = uaParser.parse(userAgent.get());
-
-            // Set the params based on this agent
-            this.name = agent.getName();
-            this.version = agent.getVersionNumber().toVersionString();
-            this.device = agent.getDeviceCategory().getName();
-            this.platform = agent.getOperatingSystem().getName();
-            this.platformVersion = agent.getOperatingSystem().getVersionNumber().toVersionString();
-
-        } else {
-            // Fall-back to the Property class
-            if (BROWSER.isSpecified()) {
-                this.name = BROWSER.getValue().toLowerCase();
-            } else {
-                this.name = DriverSetup.DEFAULT_BROWSER.toString();
-            }
-            if (BROWSER_VERSION.isSpecified()) {
-                this.version = BROWSER_VERSION.getValue();
-            }
-            if (DEVICE.isSpecified()) {
-                this.device = DEVICE.getValue();
-            }
-            if (PLATFORM.isSpecified()) {
-                this.platform = PLATFORM.getValue();
-            }
-            if (PLATFORM_VERSION.isSpecified()) {
-                this.platformVersion = PLATFORM_VERSION.getValue();
-            }
-        }
+    private Browser(Browser browser) {
+        this(browser.name, browser.version, browser.device,
+                browser.platform, browser.platformVersion);
     }
 
+    private Browser(String name, String version, String device,
+            String platform, String platformVersion) {
+        this.name = name;
+        this.version = version;
+        this.device = device;
+        this.platform = platform;
+        this.platformVersion = platformVersion;
+    }
+
+    /**
+     * @param userAgent the browser's user agent
+     * @return the browser parsed from the user agent, shared so not to be modified
+     */
+    static Browser fromUserAgent(String userAgent) {
+        return USER_AGENTS.getUnchecked(userAgent);
+    }
+
+    static Browser parse(String userAgent) {
+        ReadableUserAgent agent =
+                UADetectorServiceFactory.getResourceModuleParser().parse(userAgent);
+        return new Browser(
+                agent.getName(),
+                agent.getVersionNumber().toVersionString(),
+                agent.getDeviceCategory().getName(),
+                agent.getOperatingSystem().getName(),
+                agent.getOperatingSystem().getVersionNumber().toVersionString());
+    }
 }
@@ -5,15 +5,20 @@ import static com.frameworkium.core.common.properties.Property.SUT_VERSION;
 
 public class SoftwareUnderTest {
 
+    /** The properties do not change during a run so are only read once */
+    private static final SoftwareUnderTest FROM_PROPERTIES = new SoftwareUnderTest(
+            SUT_NAME.isSpecified() ? SUT_NAME.getValue() : null,
+            SUT_VERSION.isSpecified() ? SUT_VERSION.getValue() : null);
+
     public String name;
     public String version;
 
     public SoftwareUnderTest() {
-        if (SUT_NAME.isSpecified()) {
-            this.name = SUT_NAME.getValue();
-        }
-        if (SUT_VERSION.isSpecified()) {
-            this.version = SUT_VERSION.getValue();
-        }
+        this(FROM_PROPERTIES.name, FROM_PROPERTIES.version);
+    }
+
+    private SoftwareUnderTest(String name, String version) {
+        this.name = name;
+        this.version = version;
     }
 }
@@ -4,6 +4,7 @@ import com.frameworkium.core.common.properties.Property;
 import com.frameworkium.core.ui.capture.ScreenshotCapture;
 import com.frameworkium.core.ui.listeners.CaptureListener;
 import com.frameworkium.core.ui.listeners.EventListener;
+import com.frameworkium.core.ui.proxy.EmbeddedProxy;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.Proxy;
@@ -115,6 +116,19 @@ public abstract class AbstractDriver implements Driver {
                 proxy.setProxyType(ProxyType.DIRECT);
                 logger.debug("Using direct i.e. (no) proxy");
                 break;
+            case "embedded":
+                if (useRemoteDriver()) {
+                    proxy.setProxyType(ProxyType.DIRECT);
+                    logger.warn("The embedded proxy only listens on this machine, "
+                            + "remote browsers will use direct i.e. (no) proxy");
+                    break;
+                }
+                String embeddedProxy = EmbeddedProxy.getInstance().getAddress();
+                proxy.setProxyType(ProxyType.MANUAL)
+                        .setHttpProxy(embeddedProxy)
+                        .setSslProxy(embeddedProxy);
+                logger.debug("Using embedded proxy " + embeddedProxy);
+                break;
             default:
                 // assumed to be a proxy url
                 if (isProxyAddressWellFormed(proxyString)) {
@@ -125,7 +139,7 @@ public abstract class AbstractDriver implements Driver {
                     logger.debug("Set all protocols to use proxy address: " + proxyString);
                 } else {
                     logger.error("Invalid proxy setting specified, acceptable values are: "
-                            + "system, autodetect, direct or {hostname}:{port}. "
+                            + "system, autodetect, direct, embedded or {hostname}:{port}. "
                             + "Tests will now use default setting for your browser");
                     return null;
                 }
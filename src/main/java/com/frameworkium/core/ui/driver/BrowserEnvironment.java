@@ -0,0 +1,147 @@
+package com.frameworkium.core.ui.driver;
+
+import com.frameworkium.core.common.reporting.timeline.Timeline;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Facts about a browser session, e.g. its user agent and window size, which
+ * do not change during the session so are probed once, see
+ * {@link WebDriverWrapper#getEnvironment()}.
+ */
+public final class BrowserEnvironment {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String PROBE_SCRIPT =
+            "return [navigator.userAgent, window.outerWidth, window.outerHeight];";
+
+    /** Assuming the same for any given test run, for reporting after tests */
+    private static volatile BrowserEnvironment lastProbed;
+
+    /** Each thread has its own driver, so this is the thread's session */
+    private static final ThreadLocal<BrowserEnvironment> PROBED_ON_THREAD = new ThreadLocal<>();
+
+    private final String userAgent;
+    private final Dimension windowSize;
+    private final Map<String, ?> capabilities;
+
+    BrowserEnvironment(String userAgent, Dimension windowSize, Map<String, ?> capabilities) {
+        this.userAgent = userAgent;
+        this.windowSize = windowSize;
+        this.capabilities = Collections.unmodifiableMap(capabilities);
+    }
+
+    /**
+     * Probes the browser with a single script, the capabilities are those
+     * returned when the session was created so need no further requests.
+     *
+     * @param driver the driver of the session to probe
+     * @return the environment of the session
+     */
+    static BrowserEnvironment probe(WebDriverWrapper driver) {
+        String userAgent = null;
+        Dimension windowSize = null;
+        try (Timeline.Span ignored = Timeline.span("probe browser environment", "driver")) {
+            List<?> probed = (List<?>) driver.executeScript(PROBE_SCRIPT);
+            userAgent = (String) probed.get(0);
+            windowSize = new Dimension(
+                    ((Number) probed.get(1)).intValue(),
+                    ((Number) probed.get(2)).intValue());
+        } catch (Exception e) {
+            // e.g. native apps
+            logger.debug("Unable to probe browser environment", e);
+        }
+
+        WebDriver wrapped = driver.getWrappedDriver();
+        Map<String, ?> capabilities = wrapped instanceof HasCapabilities
+                ? ((HasCapabilities) wrapped).getCapabilities().asMap()
+                : Collections.emptyMap();
+
+        BrowserEnvironment environment =
+                new BrowserEnvironment(userAgent, windowSize, capabilities);
+        logger.debug("Probed {}", environment);
+        lastProbed = environment;
+        PROBED_ON_THREAD.set(environment);
+        return environment;
+    }
+
+    /**
+     * Without a request to the browser, or starting one for a thread which
+     * has none, e.g. when publishing a test's result.
+     *
+     * @return the environment of the session most recently probed on this
+     * thread, i.e. of the thread's current session
+     */
+    public static Optional<BrowserEnvironment> getProbedOnThisThread() {
+        return Optional.ofNullable(PROBED_ON_THREAD.get());
+    }
+
+    /**
+     * For reporting once tests have finished, e.g. to Allure, when there may
+     * be no session on the reporting thread. Use
+     * {@link #getProbedOnThisThread()} for a single test, as parallel tests
+     * may use different browsers.
+     *
+     * @return the environment of the most recently probed session of this run
+     */
+    public static Optional<BrowserEnvironment> getLastProbed() {
+        return Optional.ofNullable(lastProbed);
+    }
+
+    /** @return the value of navigator.userAgent, empty for native apps */
+    public Optional<String> getUserAgent() {
+        return Optional.ofNullable(userAgent);
+    }
+
+    /** @return the outer size of the browser window when probed */
+    public Optional<Dimension> getWindowSize() {
+        return Optional.ofNullable(windowSize);
+    }
+
+    /** @return the browser name reported by the session's capabilities */
+    public Optional<String> getBrowserName() {
+        return getCapability("browserName");
+    }
+
+    /** @return the browser version reported by the session's capabilities */
+    public Optional<String> getBrowserVersion() {
+        return getCapability("version");
+    }
+
+    /** @return the platform reported by the session's capabilities */
+    public Optional<String> getPlatform() {
+        return getCapability("platform");
+    }
+
+    /**
+     * @param name the capability name
+     * @return the capability's value as a String, if present and not empty
+     */
+    public Optional<String> getCapability(String name) {
+        return Optional.ofNullable(capabilities.get(name))
+                .map(Object::toString)
+                .filter(value -> !value.isEmpty());
+    }
+
+    /** @return all capabilities returned when the session was created */
+    public Map<String, ?> getCapabilities() {
+        return capabilities;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s on %s, window %s, user agent %s",
+                getBrowserName().orElse("unknown browser"),
+                getBrowserVersion().orElse(""),
+                getPlatform().orElse("unknown platform"),
+                windowSize,
+                userAgent);
+    }
+}
@@ -14,7 +14,8 @@ public class DriverSetup {
 
     /** Supported drivers */
     public enum Browser {
-        MARIONETTE, FIREFOX, CHROME, OPERA, IE, PHANTOMJS, SAFARI, ELECTRON
+        MARIONETTE, FIREFOX, FIREFOX_HEADLESS, CHROME, CHROME_HEADLESS,
+        OPERA, IE, PHANTOMJS, SAFARI, ELECTRON
     }
 
     /** Supported remote grids */
@@ -69,8 +70,12 @@ public class DriverSetup {
                 return new MarionetteImpl();
             case FIREFOX:
                 return new FirefoxImpl();
+            case FIREFOX_HEADLESS:
+                return new FirefoxHeadlessImpl();
             case CHROME:
                 return new ChromeImpl();
+            case CHROME_HEADLESS:
+                return new ChromeHeadlessImpl();
             case OPERA:
                 return new OperaImpl();
             case IE:
@@ -1,5 +1,6 @@
 package com.frameworkium.core.ui.driver;
 
+import com.frameworkium.core.ui.pages.ElementCache;
 import io.appium.java_client.AppiumDriver;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.remote.RemoteWebDriver;
@@ -8,10 +9,13 @@ import org.openqa.selenium.support.events.EventFiringWebDriver;
 public class WebDriverWrapper extends EventFiringWebDriver {
 
     private WebDriver driver;
+    private final ElementCache elementCache = new ElementCache();
+    private volatile BrowserEnvironment environment;
 
     public WebDriverWrapper(WebDriver driver) {
         super(driver);
         this.driver = driver;
+        register(elementCache);
     }
 
     @Override
@@ -28,6 +32,24 @@ public class WebDriverWrapper extends EventFiringWebDriver {
         }
     }
 
+    /** @return the {@link ElementCache} invalidated by this driver's events */
+    public ElementCache getElementCache() {
+        return elementCache;
+    }
+
+    /**
+     * Probes the browser the first time it is called, the environment does
+     * not change for the life of the session.
+     *
+     * @return the {@link BrowserEnvironment} of this driver's session
+     */
+    public BrowserEnvironment getEnvironment() {
+        if (environment == null) {
+            environment = BrowserEnvironment.probe(this);
+        }
+        return environment;
+    }
+
     public AppiumDriver getWrappedAppiumDriver() {
         WebDriver wd = getWrappedDriver();
         if (wd instanceof AppiumDriver) {
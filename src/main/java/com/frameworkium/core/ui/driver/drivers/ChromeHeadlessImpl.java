@@ -0,0 +1,39 @@
+package com.frameworkium.core.ui.driver.drivers;
+
+import com.frameworkium.core.common.properties.Property;
+import com.google.common.collect.ImmutableMap;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+/**
+ * Chrome without a display, started with the features which slow down
+ * browser start-up, and are not needed for testing, disabled.
+ */
+public class ChromeHeadlessImpl extends ChromeImpl {
+
+    @Override
+    public DesiredCapabilities getDesiredCapabilities() {
+        DesiredCapabilities capabilities = super.getDesiredCapabilities();
+
+        Dimension resolution = Resolution.fromProperty();
+        ChromeOptions chromeOptions = new ChromeOptions();
+        chromeOptions.addArguments(
+                "--headless",
+                "--disable-gpu",
+                "--disable-extensions",
+                "--disable-background-networking",
+                "--disable-default-apps",
+                "--disable-sync",
+                "--no-first-run",
+                "--no-default-browser-check",
+                "--window-size=" + resolution.getWidth() + "," + resolution.getHeight());
+        if (Property.DEVICE.isSpecified()) {
+            chromeOptions.setExperimentalOption(
+                    "mobileEmulation",
+                    ImmutableMap.of("deviceName", Property.DEVICE.getValue()));
+        }
+        capabilities.setCapability(ChromeOptions.CAPABILITY, chromeOptions);
+        return capabilities;
+    }
+}
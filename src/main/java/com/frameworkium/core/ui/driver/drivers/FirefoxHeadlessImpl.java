@@ -0,0 +1,98 @@
+package com.frameworkium.core.ui.driver.drivers;
+
+import com.frameworkium.core.common.properties.Property;
+import com.frameworkium.core.ui.driver.AbstractDriver;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.firefox.MarionetteDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+
+import java.io.IOException;
+
+/**
+ * Firefox without a display, using geckodriver as {@link MarionetteImpl}
+ * does, started with the features which slow down browser start-up, and are
+ * not needed for testing, disabled.
+ * <p>
+ * Requires Firefox 56 or later, 55 on Linux, and geckodriver on the path or
+ * set by <code>webdriver.gecko.driver</code>. Firefox is made headless by the
+ * <code>MOZ_HEADLESS</code> environment variable, so older geckodriver
+ * versions, which ignore <code>moz:firefoxOptions</code>, work too.
+ * <p>
+ * The <code>firefoxProfile</code> property is honoured, the start-up
+ * preferences are set on top of it. An unknown profile name is logged and a
+ * new profile used instead. When used remotely, the capabilities
+ * are sent to the grid, but the node is responsible for the environment.
+ */
+public class FirefoxHeadlessImpl extends AbstractDriver {
+
+    private static final String FIREFOX_OPTIONS = "moz:firefoxOptions";
+
+    @Override
+    public DesiredCapabilities getDesiredCapabilities() {
+        DesiredCapabilities capabilities = DesiredCapabilities.firefox();
+        capabilities.setCapability("marionette", true);
+        FirefoxProfile profile = createStartupProfile();
+        // geckodriver before 0.14 reads the profile from firefox_profile
+        capabilities.setCapability(FirefoxDriver.PROFILE, profile);
+        try {
+            capabilities.setCapability(FIREFOX_OPTIONS, ImmutableMap.of(
+                    "args", ImmutableList.of("-headless"),
+                    "profile", profile.toJson()));
+        } catch (IOException e) {
+            throw new WebDriverException("Unable to encode the Firefox profile", e);
+        }
+        return capabilities;
+    }
+
+    @Override
+    public WebDriver getWebDriver(DesiredCapabilities capabilities) {
+        Dimension resolution = Resolution.fromProperty();
+        GeckoDriverService service = new GeckoDriverService.Builder()
+                .usingAnyFreePort()
+                .withEnvironment(ImmutableMap.of(
+                        "MOZ_HEADLESS", "1",
+                        "MOZ_HEADLESS_WIDTH", String.valueOf(resolution.getWidth()),
+                        "MOZ_HEADLESS_HEIGHT", String.valueOf(resolution.getHeight())))
+                .build();
+        return new MarionetteDriver(service, capabilities);
+    }
+
+    private FirefoxProfile createStartupProfile() {
+        FirefoxProfile profile = Property.FIREFOX_PROFILE.isSpecified()
+                ? FirefoxImpl.getProfileFromProperty()
+                : new FirefoxProfile();
+        if (profile == null) {
+            logger.warn("No Firefox profile '{}' found, using a new profile",
+                    Property.FIREFOX_PROFILE.getValue());
+            profile = new FirefoxProfile();
+        }
+        // no first-run or default browser checks
+        profile.setPreference("browser.shell.checkDefaultBrowser", false);
+        profile.setPreference("browser.startup.homepage_override.mstone", "ignore");
+        profile.setPreference("startup.homepage_welcome_url", "about:blank");
+        profile.setPreference("startup.homepage_welcome_url.additional", "about:blank");
+        profile.setPreference("browser.startup.page", 0);
+        // no extension or background network activity
+        profile.setPreference("extensions.update.enabled", false);
+        profile.setPreference("extensions.getAddons.cache.enabled", false);
+        profile.setPreference("app.update.enabled", false);
+        profile.setPreference("browser.search.update", false);
+        profile.setPreference("browser.safebrowsing.enabled", false);
+        profile.setPreference("browser.safebrowsing.malware.enabled", false);
+        profile.setPreference("datareporting.healthreport.uploadEnabled", false);
+        profile.setPreference("datareporting.policy.dataSubmissionEnabled", false);
+        profile.setPreference("toolkit.telemetry.enabled", false);
+        profile.setPreference("network.prefetch-next", false);
+        profile.setPreference("network.dns.disablePrefetch", true);
+        // no GPU
+        profile.setPreference("layers.acceleration.disabled", true);
+        return profile;
+    }
+}
@@ -20,17 +20,24 @@ public class FirefoxImpl extends AbstractDriver {
     @Override
     public WebDriver getWebDriver(DesiredCapabilities capabilities) {
         if (Property.FIREFOX_PROFILE.isSpecified()) {
-            FirefoxProfile firefoxProfile;
-            String fireFoxProfile = Property.FIREFOX_PROFILE.getValue();
-            File profileFile = new File(fireFoxProfile);
-            if (profileFile.isFile() || profileFile.isDirectory()) {
-                firefoxProfile = new FirefoxProfile(profileFile);
-            } else {
-                firefoxProfile = new ProfilesIni().getProfile(fireFoxProfile);
-            }
-            return new FirefoxDriver(firefoxProfile);
+            return new FirefoxDriver(getProfileFromProperty());
         } else {
             return new FirefoxDriver(capabilities);
         }
     }
+
+    /**
+     * @return the profile named by <code>firefoxProfile</code>, either a
+     * profile file or directory, or the name of an existing profile, else
+     * null if there is no profile of that name
+     */
+    static FirefoxProfile getProfileFromProperty() {
+        String fireFoxProfile = Property.FIREFOX_PROFILE.getValue();
+        File profileFile = new File(fireFoxProfile);
+        if (profileFile.isFile() || profileFile.isDirectory()) {
+            return new FirefoxProfile(profileFile);
+        } else {
+            return new ProfilesIni().getProfile(fireFoxProfile);
+        }
+    }
 }
@@ -19,9 +19,22 @@ public class GridImpl extends AbstractDriver {
     private DesiredCapabilities desiredCapabilities;
 
     public GridImpl(DesiredCapabilities desiredCapabilities) {
+        this(gridURL(), desiredCapabilities);
+    }
+
+    /**
+     * @param remoteURL           the hub, or other remote WebDriver endpoint
+     *                            e.g. the stub WebDriver server of the test jar
+     * @param desiredCapabilities the capabilities to request
+     */
+    public GridImpl(URL remoteURL, DesiredCapabilities desiredCapabilities) {
+        this.remoteURL = remoteURL;
         this.desiredCapabilities = desiredCapabilities;
+    }
+
+    private static URL gridURL() {
         try {
-            this.remoteURL = new URL(Property.GRID_URL.getValue());
+            return new URL(Property.GRID_URL.getValue());
         } catch (MalformedURLException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,31 @@
+package com.frameworkium.core.ui.driver.drivers;
+
+import com.frameworkium.core.common.properties.Property;
+import org.openqa.selenium.Dimension;
+
+/** Window size for browsers without a display, from {@link Property#RESOLUTION}. */
+final class Resolution {
+
+    static final Dimension DEFAULT = new Dimension(1920, 1080);
+
+    private Resolution() {
+    }
+
+    /**
+     * @return the resolution property, in the form <code>1920x1080</code>,
+     * or {@link #DEFAULT} if it is not specified or malformed.
+     */
+    static Dimension fromProperty() {
+        if (!Property.RESOLUTION.isSpecified()) {
+            return DEFAULT;
+        }
+        String[] widthAndHeight = Property.RESOLUTION.getValue().toLowerCase().split("x");
+        try {
+            return new Dimension(
+                    Integer.parseInt(widthAndHeight[0].trim()),
+                    Integer.parseInt(widthAndHeight[1].trim()));
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return DEFAULT;
+        }
+    }
+}
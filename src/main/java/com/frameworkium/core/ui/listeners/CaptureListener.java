@@ -52,7 +52,7 @@ public class CaptureListener implements WebDriverEventListener, ITestListener {
         ElementHighlighter highlighter = new ElementHighlighter(driver);
         highlighter.highlightElement(element);
         Command command = new Command(action, element);
-        takeScreenshotAndSend(command, driver);
+        BaseTest.getCapture().takeAndSendScreenshot(command, driver, element);
         highlighter.unhighlightPrevious();
     }
 
@@ -64,7 +64,8 @@ public class CaptureListener implements WebDriverEventListener, ITestListener {
 
     @Override
     public void afterChangeValueOf(WebElement element, WebDriver driver) {
-        takeScreenshotAndSend("change", driver);
+        Command command = new Command("change", "n/a", "n/a");
+        BaseTest.getCapture().takeAndSendScreenshot(command, driver, element);
     }
 
     @Override
@@ -1,5 +1,7 @@
 package com.frameworkium.core.ui.listeners;
 
+import com.frameworkium.core.ui.capture.CommandHistory;
+import com.frameworkium.core.ui.capture.model.Command;
 import org.apache.commons.lang.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -9,13 +11,23 @@ import org.openqa.selenium.support.events.WebDriverEventListener;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+/**
+ * Logs WebDriver events and records them in the {@link CommandHistory}, if
+ * it is enabled.
+ */
 public class EventListener implements WebDriverEventListener {
 
     private static final Logger logger = LogManager.getLogger();
 
+    private static final Pattern LOCATOR = Pattern.compile("->\\s(.*)(?=\\])");
+
     @Override
     public void afterChangeValueOf(WebElement element, WebDriver driver) {
-        logger.debug("changed value of element with " + getLocatorFromElement(element));
+        if (CommandHistory.isEnabled() || logger.isDebugEnabled()) {
+            String locator = getLocatorFromElement(element);
+            record("change", "locator", locator);
+            logger.debug("changed value of element with " + locator);
+        }
     }
 
     @Override
@@ -40,6 +52,7 @@ public class EventListener implements WebDriverEventListener {
 
     @Override
     public void beforeNavigateRefresh(WebDriver webDriver) {
+        record("refresh", "n/a", "n/a");
         logger.debug("before Navigate Refresh");
     }
 
@@ -67,32 +80,45 @@ public class EventListener implements WebDriverEventListener {
 
     @Override
     public void beforeClickOn(WebElement element, WebDriver driver) {
-        logger.debug("click element with " + getLocatorFromElement(element));
+        if (CommandHistory.isEnabled() || logger.isDebugEnabled()) {
+            String locator = getLocatorFromElement(element);
+            record("click", "locator", locator);
+            logger.debug("click element with " + locator);
+        }
     }
 
     @Override
     public void beforeFindBy(By by, WebElement element, WebDriver driver) {
-        logger.debug("find element " + by);
+        if (CommandHistory.isEnabled() || logger.isDebugEnabled()) {
+            record("find", "by", String.valueOf(by));
+            logger.debug("find element " + by);
+        }
     }
 
     @Override
     public void beforeNavigateBack(WebDriver driver) {
+        record("back", "n/a", "n/a");
         logger.debug("before back");
     }
 
     @Override
     public void beforeNavigateForward(WebDriver driver) {
+        record("forward", "n/a", "n/a");
         logger.debug("before forward");
     }
 
     @Override
     public void beforeNavigateTo(String url, WebDriver driver) {
+        record("navigate", "url", url);
         logger.debug("navigate to " + url);
     }
 
     @Override
     public void beforeScript(String script, WebDriver driver) {
-        logger.debug("running script " + script);
+        if (CommandHistory.isEnabled() || logger.isDebugEnabled()) {
+            record("script", "js", StringUtils.abbreviate(script, 128));
+            logger.debug("running script " + script);
+        }
     }
 
     @Override
@@ -101,10 +127,15 @@ public class EventListener implements WebDriverEventListener {
         logger.trace("Event listener onException().", thrw);
     }
 
+    private void record(String action, String using, String value) {
+        if (CommandHistory.isEnabled()) {
+            CommandHistory.record(new Command(action, using, value));
+        }
+    }
+
     private String getLocatorFromElement(WebElement element) {
         String str = element.toString();
-        Pattern p = Pattern.compile("->\\s(.*)(?=\\])");
-        Matcher m = p.matcher(str);
+        Matcher m = LOCATOR.matcher(str);
         return m.find() && m.groupCount() > 0 ? m.group(1) : str;
     }
 }
@@ -1,5 +1,8 @@
 package com.frameworkium.core.ui.listeners;
 
+import com.frameworkium.core.ui.capture.CommandHistory;
+import com.frameworkium.core.ui.capture.DomSnapshot;
+import com.frameworkium.core.ui.capture.LocalScreenshotStore;
 import com.frameworkium.core.ui.capture.ScreenshotCapture;
 import com.frameworkium.core.ui.driver.DriverSetup.Browser;
 import com.frameworkium.core.ui.driver.WebDriverWrapper;
@@ -8,31 +11,69 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
 import org.openqa.selenium.remote.Augmenter;
+import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.TestListenerAdapter;
 import ru.yandex.qatools.allure.annotations.Attachment;
 
-import java.io.*;
-import java.nio.file.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 
-import static com.frameworkium.core.common.properties.Property.BROWSER;
+import static com.frameworkium.core.common.properties.Property.*;
 import static com.frameworkium.core.ui.driver.DriverSetup.Browser.ELECTRON;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * Records failure artifacts of failed and skipped tests, as set by
+ * <code>failureArtifact</code>:
+ * <ul>
+ * <li><code>screenshot</code>, the default, a screenshot, unless sent to
+ * Capture</li>
+ * <li><code>dom</code> a {@link DomSnapshot} and the {@link CommandHistory},
+ * which is much cheaper than a screenshot</li>
+ * <li><code>both</code></li>
+ * </ul>
+ */
 public class ScreenshotListener extends TestListenerAdapter {
 
     private static final Logger logger = LogManager.getLogger();
 
+    private static final long WRITE_TIMEOUT_SECONDS = 30;
+    private static final String DEFAULT_DIRECTORY = "screenshots";
+
+    private static final String ARTIFACT = FAILURE_ARTIFACT.isSpecified()
+            ? FAILURE_ARTIFACT.getValue().toLowerCase()
+            : "screenshot";
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        CommandHistory.clear();
+    }
+
     @Override
     public void onTestFailure(ITestResult failingTest) {
-        if (isScreenshotSupported()) {
-            takeScreenshot(failingTest.getName());
-        }
+        recordFailure(failingTest.getName());
     }
 
     @Override
     public void onTestSkipped(ITestResult skippedTest) {
-        if (isScreenshotSupported()) {
-            takeScreenshot(skippedTest.getName());
+        recordFailure(skippedTest.getName());
+    }
+
+    private void recordFailure(String testName) {
+        if (!"dom".equals(ARTIFACT) && isScreenshotSupported()) {
+            takeScreenshot(testName);
+        }
+        if ("dom".equals(ARTIFACT) || "both".equals(ARTIFACT)) {
+            takeDomSnapshot(testName);
+        }
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        if (!LocalScreenshotStore.getInstance().awaitWrites(WRITE_TIMEOUT_SECONDS, SECONDS)) {
+            logger.warn("Screenshots not written within {}s", WRITE_TIMEOUT_SECONDS);
         }
     }
 
@@ -40,54 +81,61 @@ public class ScreenshotListener extends TestListenerAdapter {
         // Take a local screenshot if capture is not enabled
         if (!ScreenshotCapture.isRequired()) {
             try {
-                String screenshotDirectory = System.getProperty("screenshotDirectory");
-                if (screenshotDirectory == null) {
-                    screenshotDirectory = "screenshots";
-                }
-                String absolutePath =
-                        screenshotDirectory + File.separator
-                                + System.currentTimeMillis() + "_" + testName + ".png";
-                Path screenshot = Paths.get(absolutePath);
-                if (createFile(screenshot)) {
-                    WebDriverWrapper driver = BaseTest.getDriver();
-                    try {
-                        writeScreenshotToFile(driver, screenshot);
-                    } catch (ClassCastException weNeedToAugmentOurDriverObject) {
-                        writeScreenshotToFile(new Augmenter().augment(driver), screenshot);
-                    }
-                    logger.info("Written screenshot to " + absolutePath);
-                } else {
-                    logger.error("Unable to create " + absolutePath);
-                }
+                byte[] screenshot = attachScreenshot(getScreenshot(BaseTest.getDriver()));
+                LocalScreenshotStore.getInstance().store(testName, screenshot)
+                        .thenAccept(file -> {
+                            if (file != null) {
+                                logger.info("Written screenshot to " + file);
+                            }
+                        });
             } catch (Exception e) {
                 logger.error("Unable to take screenshot - " + e);
             }
         }
     }
 
-    private boolean createFile(Path screenshotPath) {
-        if (!Files.exists(screenshotPath)) {
-            try {
-                Files.createDirectories(screenshotPath.getParent());
-            } catch (IOException e) {
-                logger.error("Error creating screenshot", e);
-            }
+    private void takeDomSnapshot(String testName) {
+        try {
+            // the wrapped driver, so the script is not captured as a command
+            DomSnapshot snapshot = DomSnapshot.take(BaseTest.getDriver().getWrappedDriver());
+            List<String> commands = CommandHistory.recent();
+            attachDomSnapshot(snapshot.toHtml(commands));
+            attachCommands(String.join("\n", commands));
+            Path file = Paths.get(
+                    SCREENSHOT_DIRECTORY.isSpecified()
+                            ? SCREENSHOT_DIRECTORY.getValue()
+                            : DEFAULT_DIRECTORY,
+                    testName.replaceAll("[^\\w.-]", "_")
+                            + "-" + System.currentTimeMillis() + ".html.gz");
+            snapshot.writeGzipped(file, commands);
+            logger.info("Written DOM snapshot to " + file);
+        } catch (Exception e) {
+            logger.error("Unable to take DOM snapshot - " + e);
         }
+    }
 
-        return Files.exists(screenshotPath);
+    @Attachment(value = "DOM on failure", type = "text/html")
+    private String attachDomSnapshot(String html) {
+        return html;
     }
 
-    @Attachment(value = "Screenshot on failure", type = "image/png")
-    private byte[] writeScreenshotToFile(WebDriver driver, Path screenshot) {
-        try (OutputStream screenshotStream = Files.newOutputStream(screenshot)) {
-            byte[] bytes = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            screenshotStream.write(bytes);
-            screenshotStream.close();
-            return bytes;
-        } catch (IOException e) {
-            logger.error("Unable to write " + screenshot, e);
+    @Attachment(value = "Recent commands", type = "text/plain")
+    private String attachCommands(String commands) {
+        return commands;
+    }
+
+    private byte[] getScreenshot(WebDriverWrapper driver) {
+        try {
+            return driver.getScreenshotAs(OutputType.BYTES);
+        } catch (ClassCastException weNeedToAugmentOurDriverObject) {
+            return ((TakesScreenshot) new Augmenter().augment(driver.getWrappedDriver()))
+                    .getScreenshotAs(OutputType.BYTES);
         }
-        return null;
+    }
+
+    @Attachment(value = "Screenshot on failure", type = "image/png")
+    private byte[] attachScreenshot(byte[] screenshot) {
+        return screenshot;
     }
 
     private boolean isScreenshotSupported() {
@@ -2,6 +2,10 @@ package com.frameworkium.core.ui.pages;
 
 import com.frameworkium.core.common.properties.Property;
 import com.frameworkium.core.common.reporting.allure.AllureLogger;
+import com.frameworkium.core.common.reporting.timeline.Timeline;
+import com.frameworkium.core.ui.ExtraExpectedConditions;
+import com.frameworkium.core.ui.annotations.CacheElements;
+import com.frameworkium.core.ui.annotations.PageLoadBudget;
 import com.frameworkium.core.ui.annotations.Visible;
 import com.frameworkium.core.ui.capture.model.Command;
 import com.frameworkium.core.ui.tests.BaseTest;
@@ -13,10 +17,18 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.Wait;
 import ru.yandex.qatools.htmlelements.loader.HtmlElementLoader;
 
+import java.util.List;
 import java.util.Objects;
 
 public abstract class BasePage<T extends BasePage<T>> {
 
+    private static final boolean PAGE_TIMING =
+            Boolean.parseBoolean(Property.PAGE_TIMING.getValue());
+    private static final String PAGE_TIMING_SCRIPT =
+            "return " + PageTiming.SCRIPT_EXPRESSION + ";";
+    /** The <code>networkIdle</code> quiet time in ms, or -1 not to wait */
+    private static final long NETWORK_IDLE_MILLIS = parseNetworkIdle();
+
     protected final Logger logger = LogManager.getLogger(this);
     protected final WebDriver driver;
     protected Wait<WebDriver> wait;
@@ -88,9 +100,13 @@ public abstract class BasePage<T extends BasePage<T>> {
      * Initialises the PageObject.
      * <p>
      * <ul>
-     * <li>Initialises fields with lazy proxies</li>
+     * <li>Initialises fields with lazy proxies, cached if {@link CacheElements} is present</li>
      * <li>Waits for AngularJS requests to finish loading, if present</li>
+     * <li>Waits for no network requests for <code>networkIdle</code>
+     * milliseconds, if specified, see {@link #waitForNetworkIdle(long)}</li>
      * <li>Processes Frameworkium visibility annotations e.g. {@link Visible}</li>
+     * <li>Records the {@link PageTiming} and checks any {@link PageLoadBudget},
+     * if the <code>pageTiming</code> property is true</li>
      * <li>Log page load to Allure and Capture</li>
      * </ul>
      *
@@ -100,21 +116,62 @@ public abstract class BasePage<T extends BasePage<T>> {
     @SuppressWarnings("unchecked")
     public T get() {
 
-        HtmlElementLoader.populatePageObject(this, driver);
+        try (Timeline.Span ignored = Timeline.span(getClass().getSimpleName(), "page")) {
+            try (Timeline.Span populate = Timeline.span("populate", "page")) {
+                populatePageObject();
+            }
 
-        // wait for page to load
-        if (isPageAngularJS()) {
-            waitForAngularRequestsToFinish();
-        }
-        visibility.waitForAnnotatedElementVisibility(this);
+            // wait for page to load
+            try (Timeline.Span angular = Timeline.span("angular wait", "page")) {
+                if (isPageAngularJS()) {
+                    waitForAngularRequestsToFinish();
+                }
+            }
+            if (NETWORK_IDLE_MILLIS >= 0) {
+                try (Timeline.Span network = Timeline.span("network idle", "page")) {
+                    waitForNetworkIdle(NETWORK_IDLE_MILLIS);
+                }
+            }
+            try (Timeline.Span visible = Timeline.span("visibility", "page")) {
+                visibility.waitForAnnotatedElementVisibility(this);
+            }
+
+            // after the waits, so the load event has usually ended
+            if (PAGE_TIMING) {
+                PageTiming.fromScriptResult(executeJS(PAGE_TIMING_SCRIPT))
+                        .ifPresent(this::recordTiming);
+            }
 
-        // log page load
-        takePageLoadedScreenshotAndSendToCapture();
-        logPageLoadToAllure();
+            // log page load
+            try (Timeline.Span screenshot = Timeline.span("capture screenshot", "reporting")) {
+                takePageLoadedScreenshotAndSendToCapture();
+            }
+            try (Timeline.Span allure = Timeline.span("allure page load", "reporting")) {
+                logPageLoadToAllure();
+            }
+        }
 
         return (T) this;
     }
 
+    private void populatePageObject() {
+        CacheElements cacheElements = getClass().getAnnotation(CacheElements.class);
+        if (cacheElements == null) {
+            HtmlElementLoader.populatePageObject(this, driver);
+        } else {
+            HtmlElementLoader.populatePageObject(this, new CachingElementLocatorFactory(
+                    driver, BaseTest.getDriver().getElementCache(), cacheElements.value()));
+        }
+    }
+
+    /**
+     * Discards elements cached for pages annotated with {@link CacheElements},
+     * e.g. after an action which re-renders the page without navigating.
+     */
+    protected void invalidateElementCache() {
+        BaseTest.getDriver().getElementCache().invalidate();
+    }
+
     private void logPageLoadToAllure() {
         try {
             AllureLogger.logToAllure("Page '" + getClass().getName() + "' successfully loaded");
@@ -139,6 +196,26 @@ public abstract class BasePage<T extends BasePage<T>> {
         return Objects.equals(executeJS("return typeof angular;"), "object");
     }
 
+    private void recordTiming(PageTiming timing) {
+        logger.debug("Page '{}' loaded: {}", getClass().getName(), timing);
+        PageTimingStats.record(getClass(), timing);
+
+        PageLoadBudget budget = getClass().getAnnotation(PageLoadBudget.class);
+        if (budget == null) {
+            return;
+        }
+        List<String> overBudget = timing.getOverBudget(budget);
+        if (!overBudget.isEmpty()) {
+            String message = "Page '" + getClass().getName()
+                    + "' over load budget: " + String.join(", ", overBudget);
+            if (budget.fail()) {
+                throw new AssertionError(message);
+            }
+            logger.warn(message);
+            AllureLogger.logToAllure(message);
+        }
+    }
+
     /**
      * @param javascript the Javascript to execute on the current page
      * @return One of Boolean, Long, String, List or WebElement. Or null.
@@ -181,11 +258,40 @@ public abstract class BasePage<T extends BasePage<T>> {
         return returnObj;
     }
 
+    private static long parseNetworkIdle() {
+        if (!Property.NETWORK_IDLE.isSpecified()) {
+            return -1;
+        }
+        String value = Property.NETWORK_IDLE.getValue();
+        try {
+            long quietMillis = Long.parseLong(value.trim());
+            if (quietMillis >= 0) {
+                return quietMillis;
+            }
+        } catch (NumberFormatException e) {
+            // warned below
+        }
+        LogManager.getLogger(BasePage.class).warn(
+                "networkIdle '{}' is not a number of ms, so pages do not wait for the network", value);
+        return -1;
+    }
+
     /** Method to wait for AngularJS requests to finish on the page */
     protected void waitForAngularRequestsToFinish() {
         ngDriver.waitForAngularRequestsToFinish();
     }
 
+    /**
+     * Waits for fetch, XMLHttpRequest and WebSocket handshakes to finish,
+     * for pages not using AngularJS or jQuery, e.g. React.
+     *
+     * @param quietMillis how long there must have been no requests in flight
+     * @see ExtraExpectedConditions#networkIdle(long)
+     */
+    protected void waitForNetworkIdle(long quietMillis) {
+        wait.until(ExtraExpectedConditions.networkIdle(quietMillis));
+    }
+
     /** @return Returns the title of the web page */
     public String getTitle() {
         return driver.getTitle();
@@ -0,0 +1,94 @@
+package com.frameworkium.core.ui.pages;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * {@link ElementLocator} which reuses the element(s) found by the given
+ * locator until the {@link ElementCache} is invalidated.
+ * <p>
+ * The single element is returned wrapped, so a call which fails with a
+ * {@link StaleElementReferenceException}, e.g. after a click navigated, finds
+ * the element again and is retried once. Cached lists are not retried, they
+ * are found again on their next use.
+ */
+class CachingElementLocator implements ElementLocator {
+
+    private final ElementLocator delegate;
+    private final ElementCache cache;
+    private final boolean cacheLists;
+
+    private WebElement element;
+    private long elementGeneration;
+    private WebElement staleRetryingElement;
+    private List<WebElement> elements;
+    private long elementsGeneration;
+
+    CachingElementLocator(ElementLocator delegate, ElementCache cache, boolean cacheLists) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.cacheLists = cacheLists;
+    }
+
+    @Override
+    public WebElement findElement() {
+        WebElement found = cachedElement();
+        if (staleRetryingElement == null) {
+            staleRetryingElement = (WebElement) Proxy.newProxyInstance(
+                    found.getClass().getClassLoader(),
+                    ClassUtils.getAllInterfaces(found.getClass()).toArray(new Class<?>[0]),
+                    (proxy, method, args) -> invokeRetryingOnStale(method, args));
+        }
+        return staleRetryingElement;
+    }
+
+    private WebElement cachedElement() {
+        long generation = cache.getGeneration();
+        if (element == null || elementGeneration != generation) {
+            element = delegate.findElement();
+            elementGeneration = generation;
+        }
+        return element;
+    }
+
+    private Object invokeRetryingOnStale(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(cachedElement(), args);
+        } catch (InvocationTargetException e) {
+            if (!(e.getCause() instanceof StaleElementReferenceException)) {
+                throw e.getCause();
+            }
+        }
+        element = null;
+        try {
+            return method.invoke(cachedElement(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        if (!cacheLists) {
+            return delegate.findElements();
+        }
+        long generation = cache.getGeneration();
+        if (elements == null || elementsGeneration != generation) {
+            elements = delegate.findElements();
+            elementsGeneration = generation;
+        }
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
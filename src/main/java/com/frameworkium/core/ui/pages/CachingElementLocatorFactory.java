@@ -0,0 +1,42 @@
+package com.frameworkium.core.ui.pages;
+
+import com.frameworkium.core.ui.annotations.CacheElements;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import ru.yandex.qatools.htmlelements.loader.decorator.HtmlElementLocatorFactory;
+import ru.yandex.qatools.htmlelements.pagefactory.CustomElementLocatorFactory;
+
+import java.lang.reflect.Field;
+
+/**
+ * Creates the usual HtmlElements locators, wrapped in a
+ * {@link CachingElementLocator}, for page objects annotated with
+ * {@link CacheElements}.
+ */
+class CachingElementLocatorFactory implements CustomElementLocatorFactory {
+
+    private final CustomElementLocatorFactory delegate;
+    private final ElementCache cache;
+    private final CacheElements.Scope scope;
+
+    CachingElementLocatorFactory(
+            SearchContext searchContext, ElementCache cache, CacheElements.Scope scope) {
+
+        this.delegate = new HtmlElementLocatorFactory(searchContext);
+        this.cache = cache;
+        this.scope = scope;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new CachingElementLocator(
+                delegate.createLocator(field),
+                cache,
+                scope == CacheElements.Scope.ELEMENTS_AND_LISTS);
+    }
+
+    @Override
+    public ElementLocator createLocator(Class clazz) {
+        return delegate.createLocator(clazz);
+    }
+}
@@ -0,0 +1,56 @@
+package com.frameworkium.core.ui.pages;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.AbstractWebDriverEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the validity of elements cached for a single driver session.
+ * <p>
+ * Registered with the {@link com.frameworkium.core.ui.driver.WebDriverWrapper}
+ * so that any navigation or {@link StaleElementReferenceException} moves the
+ * cache on to a new generation, causing cached elements to be looked up again.
+ */
+public class ElementCache extends AbstractWebDriverEventListener {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /** @return the current generation, elements cached in earlier ones are invalid */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /** Invalidates all elements cached so far. */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public void beforeNavigateTo(String url, WebDriver driver) {
+        invalidate();
+    }
+
+    @Override
+    public void beforeNavigateBack(WebDriver driver) {
+        invalidate();
+    }
+
+    @Override
+    public void beforeNavigateForward(WebDriver driver) {
+        invalidate();
+    }
+
+    @Override
+    public void beforeNavigateRefresh(WebDriver driver) {
+        invalidate();
+    }
+
+    @Override
+    public void onException(Throwable throwable, WebDriver driver) {
+        if (throwable instanceof StaleElementReferenceException) {
+            invalidate();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.frameworkium.core.ui.pages;
+
+import com.frameworkium.core.ui.annotations.PageLoadBudget;
+
+import java.util.*;
+
+/**
+ * How long a page took to load, from the Navigation Timing API, and how much
+ * it and its resources transferred, from the Resource Timing API. Times are
+ * milliseconds since navigation started.
+ * <p>
+ * Cross-origin resources only report their size if served with a
+ * <code>Timing-Allow-Origin</code> header.
+ */
+public final class PageTiming {
+
+    /**
+     * An expression evaluating to the timing of the current document, or
+     * null if the load event has not yet ended, or if it has already been
+     * read, i.e. there has been no navigation since, so each navigation is
+     * recorded once, with its load time.
+     */
+    static final String SCRIPT_EXPRESSION = "(function () {"
+            + "  var p = window.performance;"
+            + "  if (!p || !p.timing || window.__frameworkiumTimed) { return null; }"
+            + "  var nav = p.getEntriesByType ? p.getEntriesByType('navigation')[0] : null;"
+            + "  var t;"
+            + "  if (nav) {"
+            + "    t = {ttfb: nav.responseStart, dcl: nav.domContentLoadedEventEnd,"
+            + "      load: nav.loadEventEnd, transfer: nav.transferSize || 0};"
+            + "  } else {"
+            + "    var l = p.timing, s = l.navigationStart;"
+            + "    t = {ttfb: l.responseStart - s,"
+            + "      dcl: l.domContentLoadedEventEnd ? l.domContentLoadedEventEnd - s : 0,"
+            + "      load: l.loadEventEnd ? l.loadEventEnd - s : 0, transfer: 0};"
+            + "  }"
+            + "  if (!(t.load > 0)) { return null; }"
+            + "  window.__frameworkiumTimed = true;"
+            + "  var resources = p.getEntriesByType ? p.getEntriesByType('resource') : [];"
+            + "  t.resources = resources.length;"
+            + "  for (var i = 0; i < resources.length; i++) {"
+            + "    t.transfer += resources[i].transferSize || 0;"
+            + "  }"
+            + "  return t;"
+            + "})()";
+
+    public enum Metric {
+        TIME_TO_FIRST_BYTE("ttfb_ms"),
+        DOM_CONTENT_LOADED("dom_content_loaded_ms"),
+        LOAD("load_ms"),
+        TRANSFER_SIZE("transfer_bytes"),
+        RESOURCES("resources");
+
+        private final String label;
+
+        Metric(String label) {
+            this.label = label;
+        }
+
+        /** @return the metric's name, with its unit */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final Map<Metric, Long> values;
+
+    PageTiming(Map<Metric, Long> values) {
+        this.values = Collections.unmodifiableMap(new EnumMap<>(values));
+    }
+
+    /**
+     * @param result the result of {@link #SCRIPT_EXPRESSION}
+     * @return the timing, empty if there was none
+     */
+    static Optional<PageTiming> fromScriptResult(Object result) {
+        if (!(result instanceof Map)) {
+            return Optional.empty();
+        }
+        Map<?, ?> timing = (Map<?, ?>) result;
+        Map<Metric, Long> values = new EnumMap<>(Metric.class);
+        putIfPositive(values, Metric.TIME_TO_FIRST_BYTE, timing.get("ttfb"));
+        putIfPositive(values, Metric.DOM_CONTENT_LOADED, timing.get("dcl"));
+        putIfPositive(values, Metric.LOAD, timing.get("load"));
+        putIfPositive(values, Metric.TRANSFER_SIZE, timing.get("transfer"));
+        putIfPositive(values, Metric.RESOURCES, timing.get("resources"));
+        return Optional.of(new PageTiming(values));
+    }
+
+    private static void putIfPositive(Map<Metric, Long> values, Metric metric, Object value) {
+        // 0 means the event has not happened yet, or is not reported
+        if (value instanceof Number && ((Number) value).doubleValue() > 0) {
+            values.put(metric, Math.round(((Number) value).doubleValue()));
+        }
+    }
+
+    /**
+     * @param metric the metric
+     * @return its value, empty if not reported, e.g. the page is still loading
+     */
+    public OptionalLong get(Metric metric) {
+        Long value = values.get(metric);
+        return value == null ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+
+    /**
+     * @param budget the budget of the page
+     * @return a description of each metric over budget, empty if none are
+     */
+    public List<String> getOverBudget(PageLoadBudget budget) {
+        List<String> overBudget = new ArrayList<>();
+        checkBudget(overBudget, Metric.TIME_TO_FIRST_BYTE, budget.timeToFirstByte());
+        checkBudget(overBudget, Metric.DOM_CONTENT_LOADED, budget.domContentLoaded());
+        checkBudget(overBudget, Metric.LOAD, budget.load());
+        checkBudget(overBudget, Metric.TRANSFER_SIZE, budget.transferSize());
+        return overBudget;
+    }
+
+    private void checkBudget(List<String> overBudget, Metric metric, long limit) {
+        get(metric).ifPresent(value -> {
+            if (limit > 0 && value > limit) {
+                overBudget.add(String.format("%s %d > %d", metric.getLabel(), value, limit));
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ");
+        values.forEach((metric, value) -> joiner.add(metric.getLabel() + " " + value));
+        return joiner.toString();
+    }
+}
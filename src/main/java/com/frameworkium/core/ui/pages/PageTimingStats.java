@@ -0,0 +1,99 @@
+package com.frameworkium.core.ui.pages;
+
+import com.frameworkium.core.ui.pages.PageTiming.Metric;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Aggregates the {@link PageTiming}s of each page object class across the
+ * suite, for percentiles of how long each page takes to load.
+ */
+public final class PageTimingStats {
+
+    static final String CSV_HEADER = "page,metric,count,min,p50,p90,p99,max";
+
+    /** Page class name to a histogram of each metric */
+    private static final ConcurrentMap<String, Map<Metric, Histogram>> PAGES =
+            new ConcurrentHashMap<>();
+
+    private PageTimingStats() {
+        // hide default constructor for this util class
+    }
+
+    /**
+     * @param page   the page object class
+     * @param timing the timing of one load of its page
+     */
+    public static void record(Class<?> page, PageTiming timing) {
+        Map<Metric, Histogram> histograms =
+                PAGES.computeIfAbsent(page.getName(), name -> newHistograms());
+        for (Metric metric : Metric.values()) {
+            timing.get(metric).ifPresent(histograms.get(metric)::recordValue);
+        }
+    }
+
+    private static Map<Metric, Histogram> newHistograms() {
+        Map<Metric, Histogram> histograms = new EnumMap<>(Metric.class);
+        for (Metric metric : Metric.values()) {
+            histograms.put(metric, new ConcurrentHistogram(3));
+        }
+        return histograms;
+    }
+
+    /** @return whether any timings have been recorded */
+    public static boolean isEmpty() {
+        return PAGES.isEmpty();
+    }
+
+    /** @return a CSV row per page and metric, see {@link #CSV_HEADER} */
+    public static String toCsv() {
+        StringBuilder csv = new StringBuilder(CSV_HEADER).append('\n');
+        PAGES.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(page -> page.getValue().forEach((metric, histogram) -> {
+                    if (histogram.getTotalCount() > 0) {
+                        csv.append(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%d%n",
+                                page.getKey(), metric.getLabel(),
+                                histogram.getTotalCount(),
+                                histogram.getMinValue(),
+                                histogram.getValueAtPercentile(50),
+                                histogram.getValueAtPercentile(90),
+                                histogram.getValueAtPercentile(99),
+                                histogram.getMaxValue()));
+                    }
+                }));
+        return csv.toString();
+    }
+
+    /**
+     * Writes the percentiles of every page, see {@link #toCsv()}.
+     *
+     * @param csv the file to write, parent directories are created
+     */
+    public static void writeTo(Path csv) {
+        try {
+            if (csv.getParent() != null) {
+                Files.createDirectories(csv.getParent());
+            }
+            Files.write(csv, toCsv().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write " + csv, e);
+        }
+    }
+
+    /** Discards all timings recorded. */
+    static void clear() {
+        PAGES.clear();
+    }
+}
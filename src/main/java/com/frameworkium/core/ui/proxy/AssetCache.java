@@ -0,0 +1,114 @@
+package com.frameworkium.core.ui.proxy;
+
+import com.google.common.hash.Hashing;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Responses to GET requests for static assets, e.g. scripts, styles, images
+ * and fonts, kept on disk as received, so they are shared by every browser
+ * session and by later runs until they expire.
+ */
+final class AssetCache {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    /** Larger responses are passed through without being cached */
+    static final int MAX_ASSET_BYTES = 10 * 1024 * 1024;
+
+    private static final Pattern STATIC_ASSET = Pattern.compile(
+            "\\.(js|mjs|css|png|jpe?g|gif|svg|ico|webp|woff2?|ttf|otf|eot)$",
+            Pattern.CASE_INSENSITIVE);
+
+    private final Path directory;
+    private final long ttlMillis;
+
+    /**
+     * @param directory the directory to keep responses in
+     * @param ttlMillis how long responses are reused for
+     */
+    AssetCache(Path directory, long ttlMillis) {
+        this.directory = directory;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /** @return whether the request is for a static asset */
+    boolean isCacheable(String method, URI uri) {
+        return "GET".equals(method)
+                && uri.getRawPath() != null
+                && STATIC_ASSET.matcher(uri.getRawPath()).find();
+    }
+
+    /**
+     * @param responseLines the status line and headers of the response
+     * @return whether the response is successful and may be shared
+     */
+    static boolean isCacheable(String[] responseLines) {
+        if (!responseLines[0].matches("HTTP/\\d\\.\\d 200\\b.*")) {
+            return false;
+        }
+        for (int i = 1; i < responseLines.length; i++) {
+            String header = responseLines[i].toLowerCase(Locale.ROOT);
+            if (header.startsWith("set-cookie:")
+                    || header.startsWith("cache-control:")
+                    && header.matches(".*\\b(no-store|private)\\b.*")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param uri the asset's URI
+     * @return the response, status line, headers and body, if cached and
+     * not expired
+     */
+    Optional<byte[]> get(URI uri) {
+        Path file = file(uri);
+        try {
+            if (Files.exists(file) && System.currentTimeMillis()
+                    - Files.getLastModifiedTime(file).toMillis() < ttlMillis) {
+                return Optional.of(Files.readAllBytes(file));
+            }
+        } catch (IOException e) {
+            logger.debug("Unable to read cached asset " + file, e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Writes to a temporary file which is moved into place, so concurrent
+     * sessions and runs never read a partial response.
+     *
+     * @param uri      the asset's URI
+     * @param response the response, status line, headers and body
+     */
+    void put(URI uri, byte[] response) {
+        Path file = file(uri);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "asset", ".tmp");
+            Files.write(temp, response);
+            Files.move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.debug("Unable to cache asset " + uri, e);
+        }
+    }
+
+    private Path file(URI uri) {
+        return directory.resolve(
+                Hashing.sha256().hashString(uri.toString(), StandardCharsets.UTF_8).toString());
+    }
+}
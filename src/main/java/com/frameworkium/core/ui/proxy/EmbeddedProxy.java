@@ -0,0 +1,373 @@
+package com.frameworkium.core.ui.proxy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.net.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.frameworkium.core.common.properties.Property.*;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * An HTTP proxy in this JVM, used by browsers when the <code>proxy</code>
+ * property is <code>embedded</code>. It is started once and shared by every
+ * browser session, and only listens on the loopback address, so remote
+ * browsers, e.g. on a grid, use no proxy instead.
+ * <ul>
+ * <li>Requests to hosts in <code>proxyBlocklist</code>, comma separated,
+ * default {@link HostBlocklist#DEFAULT_HOSTS}, are not sent</li>
+ * <li>Static assets are cached in <code>proxyCacheDirectory</code>, default
+ * <code>proxy-cache</code>, for <code>proxyCacheTtl</code> seconds,
+ * default 86400</li>
+ * <li>Every request's timings are recorded, see {@link #writeHar(Path)}</li>
+ * </ul>
+ * HTTPS requests are tunnelled, so can be blocked, but not cached, and are
+ * recorded as a single CONNECT.
+ */
+public final class EmbeddedProxy {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String DEFAULT_CACHE_DIRECTORY = "proxy-cache";
+    private static final long DEFAULT_CACHE_TTL_SECONDS = TimeUnit.DAYS.toSeconds(1);
+    private static final int SOCKET_TIMEOUT_MILLIS = 60_000;
+    private static final int MAX_HEAD_BYTES = 64 * 1024;
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static EmbeddedProxy instance;
+
+    private final HostBlocklist blocklist;
+    private final AssetCache cache;
+    private final HarLog har = new HarLog();
+    private final ExecutorService connections =
+            Executors.newCachedThreadPool(new ProxyThreadFactory());
+    private ServerSocket serverSocket;
+
+    EmbeddedProxy(HostBlocklist blocklist, AssetCache cache) {
+        this.blocklist = blocklist;
+        this.cache = cache;
+    }
+
+    /** @return the proxy configured by properties, started on first use */
+    public static synchronized EmbeddedProxy getInstance() {
+        if (instance == null) {
+            instance = new EmbeddedProxy(
+                    HostBlocklist.of(PROXY_BLOCKLIST.getValue()),
+                    new AssetCache(
+                            Paths.get(PROXY_CACHE_DIRECTORY.isSpecified()
+                                    ? PROXY_CACHE_DIRECTORY.getValue()
+                                    : DEFAULT_CACHE_DIRECTORY),
+                            TimeUnit.SECONDS.toMillis(PROXY_CACHE_TTL.isSpecified()
+                                    ? Long.parseLong(PROXY_CACHE_TTL.getValue())
+                                    : DEFAULT_CACHE_TTL_SECONDS)))
+                    .start();
+        }
+        return instance;
+    }
+
+    /** @return the proxy, if any browser has used it */
+    public static synchronized Optional<EmbeddedProxy> getIfStarted() {
+        return Optional.ofNullable(instance);
+    }
+
+    /** Listens on an ephemeral port of the loopback address. */
+    EmbeddedProxy start() {
+        try {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start embedded proxy", e);
+        }
+        connections.execute(this::accept);
+        logger.info("Embedded proxy listening on {}", getAddress());
+        return this;
+    }
+
+    /** @return the host and port for browsers to use as their proxy */
+    public String getAddress() {
+        return serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * Writes every request made through the proxy so far as a HAR file.
+     *
+     * @param file the file to write, parent directories are created
+     */
+    public void writeHar(Path file) {
+        har.write(file);
+    }
+
+    /** Stops accepting connections, requests in progress are abandoned. */
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            logger.debug("Unable to close embedded proxy", e);
+        }
+        connections.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                connections.execute(() -> handle(client));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    logger.warn("Embedded proxy failed to accept connection", e);
+                }
+            }
+        }
+    }
+
+    /** Handles one request per connection, so browsers are told to close. */
+    private void handle(Socket client) {
+        try (Socket clientSocket = client) {
+            clientSocket.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+            InputStream in = new BufferedInputStream(clientSocket.getInputStream());
+            OutputStream out = new BufferedOutputStream(clientSocket.getOutputStream());
+            String head = readHead(in);
+            if (head == null) {
+                return;
+            }
+            String[] lines = head.split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length != 3) {
+                respond(out, "400 Bad Request");
+            } else if ("CONNECT".equals(requestLine[0])) {
+                tunnel(requestLine[1], in, out);
+            } else {
+                forward(requestLine[0], URI.create(requestLine[1]), lines, in, out);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Embedded proxy request failed", e);
+        }
+    }
+
+    private void forward(String method, URI uri, String[] lines, InputStream in, OutputStream out)
+            throws IOException {
+
+        HarLog.Entry entry = new HarLog.Entry(method, uri.toString());
+        if (!"http".equalsIgnoreCase(uri.getScheme()) || uri.getHost() == null) {
+            respond(out, "400 Bad Request");
+            return;
+        }
+        if (blocklist.isBlocked(uri.getHost())) {
+            respond(out, "204 No Content");
+            har.add(entry.blocked(204));
+            return;
+        }
+        if (getHeader(lines, "transfer-encoding") != null) {
+            respond(out, "411 Length Required");
+            return;
+        }
+
+        boolean cacheable = cache.isCacheable(method, uri);
+        if (cacheable) {
+            Optional<byte[]> cached = cache.get(uri);
+            if (cached.isPresent()) {
+                out.write(cached.get());
+                out.flush();
+                har.add(entry.cached(cached.get().length));
+                return;
+            }
+        }
+
+        try (Socket server = new Socket()) {
+            server.connect(new InetSocketAddress(uri.getHost(),
+                    uri.getPort() == -1 ? 80 : uri.getPort()), SOCKET_TIMEOUT_MILLIS);
+            server.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+            entry.connected();
+
+            OutputStream serverOut = new BufferedOutputStream(server.getOutputStream());
+            serverOut.write(requestHead(method, uri, lines).getBytes(ISO_8859_1));
+            String contentLength = getHeader(lines, "content-length");
+            copy(in, serverOut, contentLength == null ? 0 : Long.parseLong(contentLength));
+            serverOut.flush();
+
+            InputStream serverIn = new BufferedInputStream(server.getInputStream());
+            String responseHead = readHead(serverIn);
+            if (responseHead == null) {
+                throw new IOException("No response from " + uri.getHost());
+            }
+            String[] responseLines = responseHead.split("\r\n");
+            String contentType = getHeader(responseLines, "content-type");
+            entry.responded(Integer.parseInt(responseLines[0].split(" ")[1]),
+                    contentType == null ? "" : contentType);
+
+            byte[] head = withoutHopByHopHeaders(responseLines).getBytes(ISO_8859_1);
+            long bodySize;
+            if (cacheable && AssetCache.isCacheable(responseLines)) {
+                // cached before the browser has it, so its next request can hit
+                ByteArrayOutputStream asset = new ByteArrayOutputStream();
+                asset.write(head);
+                boolean complete = readUpTo(serverIn, asset, AssetCache.MAX_ASSET_BYTES);
+                if (complete) {
+                    cache.put(uri, asset.toByteArray());
+                }
+                asset.writeTo(out);
+                bodySize = asset.size() - head.length
+                        + (complete ? 0 : copyToEnd(serverIn, out));
+            } else {
+                out.write(head);
+                bodySize = copyToEnd(serverIn, out);
+            }
+            out.flush();
+            har.add(entry.received(bodySize));
+            logger.trace("{} {} took {}ms", method, uri, entry.getTime());
+        }
+    }
+
+    private void tunnel(String authority, InputStream in, OutputStream out) throws IOException {
+        HarLog.Entry entry = new HarLog.Entry("CONNECT", "https://" + authority);
+        int colon = authority.lastIndexOf(':');
+        String host = colon < 0 ? authority : authority.substring(0, colon);
+        int port = colon < 0 ? 443 : Integer.parseInt(authority.substring(colon + 1));
+        if (blocklist.isBlocked(host)) {
+            respond(out, "403 Forbidden");
+            har.add(entry.blocked(403));
+            return;
+        }
+
+        try (Socket server = new Socket()) {
+            server.connect(new InetSocketAddress(host, port), SOCKET_TIMEOUT_MILLIS);
+            server.setSoTimeout(SOCKET_TIMEOUT_MILLIS);
+            entry.connected();
+            out.write("HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(ISO_8859_1));
+            out.flush();
+            entry.responded(200, "");
+
+            OutputStream serverOut = server.getOutputStream();
+            connections.execute(() -> {
+                try {
+                    copyToEnd(in, serverOut);
+                    server.shutdownOutput();
+                } catch (IOException e) {
+                    logger.trace("Tunnel to {} closed", authority, e);
+                }
+            });
+            har.add(entry.received(copyToEnd(server.getInputStream(), out)));
+        }
+    }
+
+    /** @return the request as sent to the server, with an origin-form target */
+    private static String requestHead(String method, URI uri, String[] lines) {
+        String target = uri.getRawPath() == null || uri.getRawPath().isEmpty()
+                ? "/"
+                : uri.getRawPath();
+        if (uri.getRawQuery() != null) {
+            target += "?" + uri.getRawQuery();
+        }
+        lines[0] = method + " " + target + " HTTP/1.1";
+        return withoutHopByHopHeaders(lines);
+    }
+
+    /** @return the head with connection headers replaced by Connection: close */
+    private static String withoutHopByHopHeaders(String[] lines) {
+        StringBuilder head = new StringBuilder(lines[0]).append("\r\n");
+        for (int i = 1; i < lines.length; i++) {
+            String name = lines[i].substring(0, Math.max(lines[i].indexOf(':'), 0))
+                    .trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("connection") && !name.equals("keep-alive")
+                    && !name.startsWith("proxy-")) {
+                head.append(lines[i]).append("\r\n");
+            }
+        }
+        return head.append("Connection: close\r\n\r\n").toString();
+    }
+
+    private static String getHeader(String[] lines, String name) {
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0 && lines[i].substring(0, colon).trim().equalsIgnoreCase(name)) {
+                return lines[i].substring(colon + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    /** @return the status or request line and headers, or null at the end of the stream */
+    private static String readHead(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream(1024);
+        int matched = 0;
+        int b;
+        while (matched < 4 && (b = in.read()) != -1) {
+            head.write(b);
+            matched = (b == '\r' && matched % 2 == 0) || (b == '\n' && matched % 2 == 1)
+                    ? matched + 1
+                    : b == '\r' ? 1 : 0;
+            if (head.size() > MAX_HEAD_BYTES) {
+                throw new IOException("Head longer than " + MAX_HEAD_BYTES + " bytes");
+            }
+        }
+        if (head.size() == 0) {
+            return null;
+        }
+        String text = new String(head.toByteArray(), ISO_8859_1);
+        return text.endsWith("\r\n\r\n") ? text.substring(0, text.length() - 4) : text;
+    }
+
+    private static void respond(OutputStream out, String status) throws IOException {
+        out.write(("HTTP/1.1 " + status + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+                .getBytes(ISO_8859_1));
+        out.flush();
+    }
+
+    private static void copy(InputStream in, OutputStream out, long length) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long remaining = length;
+        while (remaining > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (read == -1) {
+                throw new EOFException("Request body ended early");
+            }
+            out.write(buffer, 0, read);
+            remaining -= read;
+        }
+    }
+
+    /** @return whether the end of the stream was reached before the limit */
+    private static boolean readUpTo(InputStream in, ByteArrayOutputStream out, int limit)
+            throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while (out.size() < limit && (read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.size() < limit;
+    }
+
+    /** @return the number of bytes copied, flushed as they are read */
+    private static long copyToEnd(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
+            total += read;
+        }
+        return total;
+    }
+
+    private static final class ProxyThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "embedded-proxy-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.frameworkium.core.ui.proxy;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The requests made through the proxy and how long they took, written as a
+ * HAR 1.2 file, which browsers' developer tools and HAR viewers can open.
+ * Headers and bodies are not recorded.
+ */
+final class HarLog {
+
+    /** Later requests are not recorded, to bound memory */
+    static final int MAX_ENTRIES = 10_000;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    void add(Entry entry) {
+        if (size.incrementAndGet() <= MAX_ENTRIES) {
+            entries.add(entry);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /** @param file the file to write, parent directories are created */
+    void write(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(file);
+                 JsonGenerator json = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+                json.writeStartObject();
+                json.writeObjectFieldStart("log");
+                json.writeStringField("version", "1.2");
+                json.writeObjectFieldStart("creator");
+                json.writeStringField("name", "Frameworkium embedded proxy");
+                json.writeStringField("version", "1.0");
+                json.writeEndObject();
+                json.writeArrayFieldStart("entries");
+                // entries are added as requests finish, HAR lists them as they started
+                List<Entry> started = new ArrayList<>(entries);
+                started.sort(Comparator.comparingLong(entry -> entry.startedNanos));
+                for (Entry entry : started) {
+                    entry.write(json);
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write HAR " + file, e);
+        }
+    }
+
+    /** One request, built up as it is proxied. Times are in milliseconds. */
+    static final class Entry {
+
+        private final long startedMillis = System.currentTimeMillis();
+        private final long startedNanos = System.nanoTime();
+        private final String method;
+        private final String url;
+        private int status;
+        private String mimeType = "";
+        private long bodySize = -1;
+        private String comment;
+        private long connect = -1;
+        private long wait;
+        private long receive;
+        private long lastNanos = startedNanos;
+
+        Entry(String method, String url) {
+            this.method = method;
+            this.url = url;
+        }
+
+        Entry blocked(int status) {
+            this.status = status;
+            this.comment = "blocked";
+            return this;
+        }
+
+        Entry cached(int bodySize) {
+            this.status = 200;
+            this.bodySize = bodySize;
+            this.comment = "cached";
+            this.receive = sinceLast();
+            return this;
+        }
+
+        void connected() {
+            connect = sinceLast();
+        }
+
+        void responded(int status, String mimeType) {
+            this.status = status;
+            this.mimeType = mimeType;
+            wait = sinceLast();
+        }
+
+        Entry received(long bodySize) {
+            this.bodySize = bodySize;
+            receive = sinceLast();
+            return this;
+        }
+
+        long getTime() {
+            return Math.max(connect, 0) + wait + receive;
+        }
+
+        private long sinceLast() {
+            long now = System.nanoTime();
+            long millis = (now - lastNanos) / 1_000_000;
+            lastNanos = now;
+            return millis;
+        }
+
+        private void write(JsonGenerator json) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("startedDateTime",
+                    Instant.ofEpochMilli(startedMillis).toString());
+            json.writeNumberField("time", getTime());
+
+            json.writeObjectFieldStart("request");
+            json.writeStringField("method", method);
+            json.writeStringField("url", url);
+            json.writeStringField("httpVersion", "HTTP/1.1");
+            writeEmptyArrays(json, "cookies", "headers", "queryString");
+            json.writeNumberField("headersSize", -1);
+            json.writeNumberField("bodySize", -1);
+            json.writeEndObject();
+
+            json.writeObjectFieldStart("response");
+            json.writeNumberField("status", status);
+            json.writeStringField("statusText", "");
+            json.writeStringField("httpVersion", "HTTP/1.1");
+            writeEmptyArrays(json, "cookies", "headers");
+            json.writeObjectFieldStart("content");
+            json.writeNumberField("size", Math.max(bodySize, 0));
+            json.writeStringField("mimeType", mimeType);
+            json.writeEndObject();
+            json.writeStringField("redirectURL", "");
+            json.writeNumberField("headersSize", -1);
+            json.writeNumberField("bodySize", bodySize);
+            json.writeEndObject();
+
+            json.writeObjectFieldStart("cache");
+            json.writeEndObject();
+            json.writeObjectFieldStart("timings");
+            json.writeNumberField("blocked", -1);
+            json.writeNumberField("dns", -1);
+            json.writeNumberField("connect", connect);
+            json.writeNumberField("send", 0);
+            json.writeNumberField("wait", wait);
+            json.writeNumberField("receive", receive);
+            json.writeNumberField("ssl", -1);
+            json.writeEndObject();
+            if (comment != null) {
+                json.writeStringField("comment", comment);
+            }
+            json.writeEndObject();
+        }
+
+        private static void writeEmptyArrays(JsonGenerator json, String... names)
+                throws IOException {
+            for (String name : names) {
+                json.writeArrayFieldStart(name);
+                json.writeEndArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.frameworkium.core.ui.proxy;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/** Hosts, and their subdomains, whose requests the proxy does not send. */
+final class HostBlocklist {
+
+    /** Analytics, tag managers and advertising, which tests rarely need */
+    static final List<String> DEFAULT_HOSTS = Arrays.asList(
+            "google-analytics.com",
+            "googletagmanager.com",
+            "googlesyndication.com",
+            "doubleclick.net",
+            "facebook.net",
+            "hotjar.com",
+            "optimizely.com",
+            "nr-data.net",
+            "mixpanel.com",
+            "segment.com",
+            "segment.io",
+            "scorecardresearch.com",
+            "quantserve.com");
+
+    private final Set<String> hosts;
+
+    HostBlocklist(Collection<String> hosts) {
+        this.hosts = hosts.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * @param hosts comma separated hosts, or null for {@link #DEFAULT_HOSTS}
+     * @return the blocklist
+     */
+    static HostBlocklist of(String hosts) {
+        return new HostBlocklist(hosts == null
+                ? DEFAULT_HOSTS
+                : Arrays.asList(hosts.split(",")));
+    }
+
+    /**
+     * @param host the host of a request
+     * @return whether the host or one of its parent domains is blocked
+     */
+    boolean isBlocked(String host) {
+        String domain = host.toLowerCase(Locale.ROOT);
+        while (true) {
+            if (hosts.contains(domain)) {
+                return true;
+            }
+            int dot = domain.indexOf('.');
+            if (dot < 0) {
+                return false;
+            }
+            domain = domain.substring(dot + 1);
+        }
+    }
+}
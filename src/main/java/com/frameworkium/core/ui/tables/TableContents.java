@@ -0,0 +1,158 @@
+package com.frameworkium.core.ui.tables;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.stream.Collectors.collectingAndThen;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Immutable, column-oriented snapshot of a HTML table as read by {@link TableReader}.
+ * <p>
+ * Sorting and filtering operate on the snapshot and return new instances,
+ * so no further calls are made to the browser.
+ */
+public final class TableContents {
+
+    private final List<String> headings;
+    private final List<List<String>> columns;
+    private final Map<String, List<List<String>>> attributeColumns;
+
+    /**
+     * @param headings         the text of each heading cell
+     * @param columns          the text of each cell, indexed by column then row
+     * @param attributeColumns attribute name to cell attribute values,
+     *                         indexed by column then row
+     */
+    public TableContents(
+            List<String> headings,
+            List<List<String>> columns,
+            Map<String, List<List<String>>> attributeColumns) {
+
+        this.headings = unmodifiableList(new ArrayList<>(headings));
+        this.columns = unmodifiableColumns(columns);
+        Map<String, List<List<String>>> attributes = new LinkedHashMap<>();
+        attributeColumns.forEach((name, attrColumns) ->
+                attributes.put(name, unmodifiableColumns(attrColumns)));
+        this.attributeColumns = unmodifiableMap(attributes);
+    }
+
+    private static List<List<String>> unmodifiableColumns(List<List<String>> columns) {
+        return columns.stream()
+                .map(column -> unmodifiableList(new ArrayList<>(column)))
+                .collect(collectingAndThen(toList(), Collections::unmodifiableList));
+    }
+
+    /** @return the text of each heading cell */
+    public List<String> getHeadings() {
+        return headings;
+    }
+
+    /** @return the text of each cell, indexed by column then row */
+    public List<List<String>> getColumns() {
+        return columns;
+    }
+
+    /** @return the number of body rows */
+    public int getRowCount() {
+        return columns.isEmpty() ? 0 : columns.get(0).size();
+    }
+
+    /**
+     * @param heading the heading text of the column
+     * @return the text of each cell in the column
+     * @throws IllegalArgumentException if no column has the given heading
+     */
+    public List<String> getColumn(String heading) {
+        return columns.get(indexOf(heading));
+    }
+
+    /**
+     * @param heading   the heading text of the column
+     * @param attribute the attribute name, as passed to {@link TableReader}
+     * @return the value of the given attribute for each cell in the column
+     * @throws IllegalArgumentException if the heading or attribute were not read
+     */
+    public List<String> getAttributeColumn(String heading, String attribute) {
+        List<List<String>> attrColumns = attributeColumns.get(attribute);
+        if (attrColumns == null) {
+            throw new IllegalArgumentException(
+                    "Attribute '" + attribute + "' was not read from the table");
+        }
+        return attrColumns.get(indexOf(heading));
+    }
+
+    /**
+     * @param rowIndex the zero-based body row index
+     * @return heading to cell text for the given row, in column order
+     */
+    public Map<String, String> getRow(int rowIndex) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int col = 0; col < columns.size(); col++) {
+            String heading = col < headings.size() ? headings.get(col) : String.valueOf(col);
+            row.put(heading, columns.get(col).get(rowIndex));
+        }
+        return unmodifiableMap(row);
+    }
+
+    /**
+     * @param heading the heading text of the column to sort by
+     * @return a copy of this table with rows in natural order of the column's text
+     */
+    public TableContents sortedBy(String heading) {
+        return sortedBy(heading, Comparator.naturalOrder());
+    }
+
+    /**
+     * @param heading    the heading text of the column to sort by
+     * @param comparator used to compare the text of the cells in the column
+     * @return a copy of this table with rows sorted by the given column
+     */
+    public TableContents sortedBy(String heading, Comparator<String> comparator) {
+        List<String> column = getColumn(heading);
+        List<Integer> rowOrder = IntStream.range(0, getRowCount())
+                .boxed()
+                .sorted(Comparator.comparing(column::get, comparator))
+                .collect(toList());
+        return withRows(rowOrder);
+    }
+
+    /**
+     * @param predicate tested against each row, see {@link #getRow(int)}
+     * @return a copy of this table containing only rows matching the predicate
+     */
+    public TableContents filter(Predicate<Map<String, String>> predicate) {
+        List<Integer> rowOrder = IntStream.range(0, getRowCount())
+                .filter(row -> predicate.test(getRow(row)))
+                .boxed()
+                .collect(toList());
+        return withRows(rowOrder);
+    }
+
+    private TableContents withRows(List<Integer> rowOrder) {
+        Map<String, List<List<String>>> reorderedAttributes = new LinkedHashMap<>();
+        attributeColumns.forEach((name, attrColumns) ->
+                reorderedAttributes.put(name, reorder(attrColumns, rowOrder)));
+        return new TableContents(headings, reorder(columns, rowOrder), reorderedAttributes);
+    }
+
+    private static List<List<String>> reorder(
+            List<List<String>> columns, List<Integer> rowOrder) {
+
+        return columns.stream()
+                .map(column -> rowOrder.stream().map(column::get).collect(toList()))
+                .collect(toList());
+    }
+
+    private int indexOf(String heading) {
+        int index = headings.indexOf(heading);
+        if (index < 0 || index >= columns.size()) {
+            throw new IllegalArgumentException(
+                    "No column with heading '" + heading + "' in " + headings);
+        }
+        return index;
+    }
+}
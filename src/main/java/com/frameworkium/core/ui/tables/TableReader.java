@@ -0,0 +1,134 @@
+package com.frameworkium.core.ui.tables;
+
+import com.frameworkium.core.ui.driver.WebDriverWrapper;
+import com.frameworkium.core.ui.tests.BaseTest;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+import java.util.*;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Reads the headings and cell contents of a HTML table in a single
+ * JavaScript call, rather than a remote call per cell as with
+ * {@link ru.yandex.qatools.htmlelements.element.Table#getColumnsAsString()}.
+ * <p>
+ * As with the HtmlElements {@code Table}, headings are all {@code th} cells
+ * and rows are all {@code tr} elements which contain {@code td} cells.
+ * <p>
+ * As with {@link WebElement#getText()}, hidden cells, i.e. not rendered or
+ * with {@code visibility: hidden}, are read as the empty string.
+ */
+public final class TableReader {
+
+    /** The visible text of a cell, as {@link WebElement#getText()} would return */
+    private static final String TEXT_JS =
+            "function text(e) {"
+                    + "    if (e.getClientRects().length === 0"
+                    + "            || getComputedStyle(e).visibility === 'hidden') { return ''; }"
+                    + "    return (e.innerText || e.textContent || '').trim();"
+                    + "}";
+
+    private static final String READ_HEADINGS_JS = TEXT_JS
+                    + "return [].map.call(arguments[0].querySelectorAll('th'), text);";
+
+    private static final String READ_TABLE_JS = TEXT_JS
+                    + "var table = arguments[0], attributes = arguments[1];"
+                    + "var headings = [].map.call(table.querySelectorAll('th'), text);"
+                    + "var rows = [].filter.call(table.querySelectorAll('tr'),"
+                    + "    function (r) { return r.querySelector('td') !== null; });"
+                    + "var width = 0;"
+                    + "var cells = rows.map(function (r) {"
+                    + "    var tds = r.querySelectorAll('td');"
+                    + "    width = Math.max(width, tds.length);"
+                    + "    return tds;"
+                    + "});"
+                    + "function columnsOf(valueOf) {"
+                    + "    var columns = [];"
+                    + "    for (var c = 0; c < width; c++) {"
+                    + "        columns.push(cells.map(function (tds) {"
+                    + "            return c < tds.length ? valueOf(tds[c]) : '';"
+                    + "        }));"
+                    + "    }"
+                    + "    return columns;"
+                    + "}"
+                    + "var attributeColumns = {};"
+                    + "attributes.forEach(function (a) {"
+                    + "    attributeColumns[a] = columnsOf(function (td) {"
+                    + "        return td.getAttribute(a) || '';"
+                    + "    });"
+                    + "});"
+                    + "return {headings: headings, columns: columnsOf(text),"
+                    + "    attributes: attributeColumns};";
+
+    private final JavascriptExecutor driver;
+
+    /**
+     * Uses the {@link WebDriverWrapper} from {@link BaseTest}.
+     */
+    public TableReader() {
+        this(BaseTest.getDriver());
+    }
+
+    /**
+     * @param driver a specific {@link JavascriptExecutor} to use.
+     */
+    public TableReader(JavascriptExecutor driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * @param table      the {@code table} element, or a wrapper of it
+     *                   e.g. a HtmlElements {@code Table}
+     * @param attributes names of cell attributes to read alongside the text
+     * @return the headings and cell contents of the table
+     */
+    public TableContents read(WebElement table, String... attributes) {
+        Object result = driver.executeScript(
+                READ_TABLE_JS, table, Arrays.asList(attributes));
+        return toTableContents(result);
+    }
+
+    /**
+     * Reads only the headings, e.g. to find a column to click, without
+     * reading every cell.
+     *
+     * @param table the {@code table} element, or a wrapper of it
+     * @return the text of each heading cell
+     */
+    public List<String> readHeadings(WebElement table) {
+        return toStrings(driver.executeScript(READ_HEADINGS_JS, table));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TableContents toTableContents(Object result) {
+        if (!(result instanceof Map)) {
+            throw new IllegalStateException("Unexpected table read result: " + result);
+        }
+        Map<String, Object> map = (Map<String, Object>) result;
+
+        Map<String, List<List<String>>> attributeColumns = new LinkedHashMap<>();
+        Map<String, Object> attributes = (Map<String, Object>) map.get("attributes");
+        if (attributes != null) {
+            attributes.forEach((name, columns) ->
+                    attributeColumns.put(name, toColumns(columns)));
+        }
+        return new TableContents(
+                toStrings(map.get("headings")),
+                toColumns(map.get("columns")),
+                attributeColumns);
+    }
+
+    private static List<List<String>> toColumns(Object columns) {
+        return ((List<?>) columns).stream()
+                .map(TableReader::toStrings)
+                .collect(toList());
+    }
+
+    private static List<String> toStrings(Object values) {
+        return ((List<?>) values).stream()
+                .map(String::valueOf)
+                .collect(toList());
+    }
+}
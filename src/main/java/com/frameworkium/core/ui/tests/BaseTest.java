@@ -1,12 +1,18 @@
 package com.frameworkium.core.ui.tests;
 
+import com.frameworkium.core.common.context.TestContext;
+import com.frameworkium.core.common.events.TestEventBus;
 import com.frameworkium.core.common.listeners.*;
 import com.frameworkium.core.common.reporting.TestIdUtils;
 import com.frameworkium.core.common.reporting.allure.AllureLogger;
 import com.frameworkium.core.common.reporting.allure.AllureProperties;
+import com.frameworkium.core.common.reporting.timeline.Timeline;
 import com.frameworkium.core.ui.capture.ScreenshotCapture;
 import com.frameworkium.core.ui.driver.*;
 import com.frameworkium.core.ui.listeners.*;
+import com.frameworkium.core.ui.pages.PageTimingStats;
+import com.frameworkium.core.ui.proxy.EmbeddedProxy;
+import com.google.common.base.Function;
 import com.saucelabs.common.SauceOnDemandAuthentication;
 import com.saucelabs.common.SauceOnDemandSessionIdProvider;
 import com.saucelabs.testng.SauceOnDemandAuthenticationProvider;
@@ -21,15 +27,17 @@ import org.openqa.selenium.support.ui.Wait;
 import org.testng.annotations.*;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.Optional;
 import java.util.concurrent.*;
 
 import static java.util.Objects.isNull;
 
-@Listeners({CaptureListener.class, ScreenshotListener.class,
+@Listeners({TestContextListener.class, CaptureListener.class, ScreenshotListener.class,
         MethodInterceptor.class, SauceLabsListener.class,
-        TestListener.class, ResultLoggerListener.class})
+        EventBusListener.class, TimelineListener.class})
 public abstract class BaseTest
         implements SauceOnDemandSessionIdProvider, SauceOnDemandAuthenticationProvider {
 
@@ -50,7 +58,6 @@ public abstract class BaseTest
     private static ThreadLocal<Wait<WebDriver>> wait;
     private static List<Driver> activeDrivers =
             Collections.synchronizedList(new ArrayList<>());
-    private static String userAgent; // Assuming the same for any given test run
 
     /**
      * Method which runs first upon running a test, it will do the following:
@@ -64,31 +71,35 @@ public abstract class BaseTest
     @BeforeSuite(alwaysRun = true)
     public static void instantiateDriverObject() {
         driver = ThreadLocal.withInitial(() -> {
-            Driver newDriver = new DriverSetup().instantiateDriver();
-            activeDrivers.add(newDriver);
-            return newDriver;
+            try (Timeline.Span ignored = Timeline.span("instantiate driver", "driver")) {
+                Driver newDriver = new DriverSetup().instantiateDriver();
+                activeDrivers.add(newDriver);
+                return newDriver;
+            }
         });
         wait = ThreadLocal.withInitial(BaseTest::newDefaultWait);
         capture = ThreadLocal.withInitial(() -> null);
     }
 
     /**
-     * Find the calling method and pass it into
-     * {@link #configureBrowserBeforeTest(Method)} to configure the browser.
+     * Subscribes the {@link TestListener} and {@link ResultLoggerListener} to
+     * the {@link TestEventBus}, which the {@link EventBusListener} publishes to,
+     * before the first test. Override to subscribe others, or none of these.
      */
-    protected static void configureBrowserBeforeUse() {
-        Method method = getCallingMethod(Thread.currentThread().getStackTrace()[2]);
-        configureBrowserBeforeTest(method);
+    @BeforeSuite(alwaysRun = true)
+    public void subscribeToTestEvents() {
+        TestEventBus bus = TestEventBus.getInstance();
+        bus.subscribeIfAbsent(new TestListener());
+        bus.subscribeIfAbsent(new ResultLoggerListener());
     }
 
-    private static Method getCallingMethod(StackTraceElement stackTraceElement) {
-        String className = stackTraceElement.getClassName();
-        String methodName = stackTraceElement.getMethodName();
-        try {
-            return Class.forName(className).getDeclaredMethod(methodName);
-        } catch (ClassNotFoundException | NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
+    /**
+     * Pass the running test or configuration method, from the
+     * {@link TestContext}, into {@link #configureBrowserBeforeTest(Method)}
+     * to configure the browser.
+     */
+    protected static void configureBrowserBeforeUse() {
+        configureBrowserBeforeTest(TestContext.get().getMethod());
     }
 
     /**
@@ -96,7 +107,7 @@ public abstract class BaseTest
      * <ul>
      * <li>Resets the browser if already initialised</li>
      * <li>Maximises browser based on settings</li>
-     * <li>Sets the user agent of the browser</li>
+     * <li>Probes the browser environment, once per browser session</li>
      * <li>Initialises screenshot capture if needed</li>
      * </ul>
      *
@@ -105,24 +116,21 @@ public abstract class BaseTest
     @BeforeMethod(alwaysRun = true)
     public static void configureBrowserBeforeTest(Method testMethod) {
         try {
-            driver.get().resetBrowser();
-            wait.set(newDefaultWait());
-            userAgent = determineUserAgent();
-            initialiseNewScreenshotCapture(testMethod);
+            try (Timeline.Span ignored = Timeline.span("provision driver", "driver")) {
+                driver.get().resetBrowser();
+                wait.set(newDefaultWait());
+            }
+            // once per session, for reporting each test's results
+            getDriver().getEnvironment();
+            try (Timeline.Span ignored = Timeline.span("initialise capture", "reporting")) {
+                initialiseNewScreenshotCapture(testMethod);
+            }
         } catch (Exception e) {
             baseLogger.error("Failed to configure browser.", e);
             throw new RuntimeException("Failed to configure browser.", e);
         }
     }
 
-    private static String determineUserAgent() {
-        try {
-            return (String) getDriver().executeScript("return navigator.userAgent;");
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     /**
      * Initialise the screenshot capture and link to issue/test case id
      *
@@ -151,10 +159,28 @@ public abstract class BaseTest
      * @return a new {@link Wait} for the thread local driver and given timeout
      */
     public static Wait<WebDriver> newWaitWithTimeout(long timeout) {
-        return new FluentWait<>(getDriver().getWrappedDriver())
+        Wait<WebDriver> newWait = new FluentWait<>(getDriver().getWrappedDriver())
                 .withTimeout(timeout, TimeUnit.SECONDS)
                 .ignoring(NoSuchElementException.class)
                 .ignoring(StaleElementReferenceException.class);
+        return Timeline.isEnabled() ? new TimedWait(newWait) : newWait;
+    }
+
+    /** Records a {@link Timeline} span for each wait, named after its condition. */
+    private static final class TimedWait implements Wait<WebDriver> {
+
+        private final Wait<WebDriver> wait;
+
+        private TimedWait(Wait<WebDriver> wait) {
+            this.wait = wait;
+        }
+
+        @Override
+        public <V> V until(Function<? super WebDriver, V> isTrue) {
+            try (Timeline.Span ignored = Timeline.span("wait", "wait", isTrue.toString())) {
+                return wait.until(isTrue);
+            }
+        }
     }
 
     /**
@@ -188,6 +214,26 @@ public abstract class BaseTest
         }
     }
 
+    /** Writes the percentiles of each page's load times, if any were recorded */
+    @AfterSuite(alwaysRun = true)
+    public static void writePageTimings() {
+        if (!PageTimingStats.isEmpty()) {
+            Path csv = Paths.get("target", "page-timing.csv");
+            PageTimingStats.writeTo(csv);
+            baseLogger.info("Page load percentiles written to {}", csv);
+        }
+    }
+
+    /** Writes the requests made through the embedded proxy, if it was used */
+    @AfterSuite(alwaysRun = true)
+    public static void writeProxyHar() {
+        EmbeddedProxy.getIfStarted().ifPresent(proxy -> {
+            Path har = Paths.get("target", "proxy.har");
+            proxy.writeHar(har);
+            baseLogger.info("Requests made through the embedded proxy written to {}", har);
+        });
+    }
+
     /** Creates the allure properties for the report */
     @AfterSuite(alwaysRun = true)
     public static void createAllureProperties() {
@@ -204,9 +250,21 @@ public abstract class BaseTest
         return wait.get();
     }
 
-    /** @return Optional of the current browser user agent */
+    /**
+     * @return the {@link BrowserEnvironment} of the current thread's browser
+     * session, probed once per session
+     */
+    public static BrowserEnvironment getBrowserEnvironment() {
+        return getDriver().getEnvironment();
+    }
+
+    /**
+     * @return Optional of the user agent of the current thread's browser
+     * session, without a request to the browser
+     */
     public static Optional<String> getUserAgent() {
-        return Optional.ofNullable(userAgent);
+        return BrowserEnvironment.getProbedOnThisThread()
+                .flatMap(BrowserEnvironment::getUserAgent);
     }
 
     /** @return the Job id for the current thread */
@@ -0,0 +1,138 @@
+package com.frameworkium.core.api.cache
+
+import com.sun.net.httpserver.HttpServer
+import io.restassured.RestAssured
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.util.concurrent.atomic.AtomicInteger
+
+import static com.frameworkium.core.api.cache.RecordReplayFilter.Mode.*
+
+class RecordReplayFilterSpec extends Specification {
+
+    @Shared
+    def requestCount = new AtomicInteger()
+
+    @Shared
+    def server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+
+    @Shared
+    def baseUri
+
+    def file = Files.createTempFile("api-cache", ".bin")
+
+    def setupSpec() {
+        server.createContext("/", { exchange ->
+            def count = requestCount.incrementAndGet()
+            def request = exchange.getRequestBody().getText("UTF-8")
+            def body = """{"path":"${exchange.getRequestURI()}","body":"$request","count":$count}"""
+                    .getBytes("UTF-8")
+            exchange.getResponseHeaders().set("Content-Type", "application/json")
+            exchange.getResponseHeaders().set("X-Count", "$count")
+            exchange.sendResponseHeaders(201, body.length)
+            exchange.getResponseBody().withStream { it.write(body) }
+        })
+        server.start()
+        baseUri = "http://127.0.0.1:${server.getAddress().getPort()}"
+    }
+
+    def cleanupSpec() {
+        server.stop(0)
+    }
+
+    def setup() {
+        requestCount.set(0)
+    }
+
+    def cleanup() {
+        Files.deleteIfExists(file)
+    }
+
+    def "recorded responses are replayed without sending requests"() {
+        given: "responses recorded to a file"
+            def recorder = new RecordReplayFilter(RECORD, file, 0)
+            def recorded = [get(recorder, "/a?x=1"), post(recorder, "/b", "one"), post(recorder, "/b", "two")]
+        when: "replaying from the file"
+            def replayer = new RecordReplayFilter(REPLAY, file, 0)
+            def replayed = [get(replayer, "/a?x=1"), post(replayer, "/b", "one"), post(replayer, "/b", "two")]
+        then: "no further requests are sent"
+            requestCount.get() == 3
+        and: "each request gets its own recorded response"
+            replayed*.asString() == recorded*.asString()
+            replayed*.getStatusCode() == [201, 201, 201]
+            replayed*.getHeader("X-Count") == ["1", "2", "3"]
+            replayed[0].jsonPath().getString("path") == "/a?x=1"
+    }
+
+    def "replaying a request which was not recorded fails"() {
+        given:
+            def recorder = new RecordReplayFilter(RECORD, file, 0)
+            get(recorder, "/a")
+        when:
+            get(new RecordReplayFilter(REPLAY, file, 0), "/a?different=query")
+        then:
+            def e = thrown(IllegalStateException)
+            e.getMessage().contains("/a?different=query")
+    }
+
+    def "cache mode reuses GET responses until they expire"() {
+        given:
+            def cache = new RecordReplayFilter(CACHE, file, ttlMillis)
+        when:
+            get(cache, "/c")
+            get(cache, "/c")
+            post(cache, "/c", "body")
+            post(cache, "/c", "body")
+        then:
+            requestCount.get() == expectedRequests
+        where:
+            ttlMillis | expectedRequests
+            60_000    | 3
+            0         | 4
+    }
+
+    def "cache mode keeps at most the given number of responses"() {
+        given:
+            def cache = new RecordReplayFilter(CACHE, file, 60_000, 1)
+        when: "requesting a second URL evicts the first"
+            get(cache, "/first")
+            get(cache, "/second")
+            get(cache, "/first")
+        then:
+            requestCount.get() == 3
+    }
+
+    def "closing the recorder writes the file and stops recording"() {
+        given:
+            def recorder = new RecordReplayFilter(RECORD, file, 0)
+            get(recorder, "/a")
+        when:
+            recorder.close()
+        then:
+            get(new RecordReplayFilter(REPLAY, file, 0), "/a").getHeader("X-Count") == "1"
+        when:
+            get(recorder, "/b")
+        then:
+            thrown(UncheckedIOException)
+    }
+
+    def "an unknown apiCache value turns the cache off"() {
+        expect:
+            RecordReplayFilter.parseMode(value) == mode
+        where:
+            value     | mode
+            "Replay"  | REPLAY
+            " cache " | CACHE
+            "replya"  | OFF
+    }
+
+    def get(filter, path) {
+        return RestAssured.given().filter(filter).get(baseUri + path)
+    }
+
+    def post(filter, path, body) {
+        return RestAssured.given().filter(filter).body(body).post(baseUri + path)
+    }
+}
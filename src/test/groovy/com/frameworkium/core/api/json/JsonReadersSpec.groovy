@@ -0,0 +1,68 @@
+package com.frameworkium.core.api.json
+
+import spock.lang.Specification
+
+class JsonReadersSpec extends Specification {
+
+    static final String JSON = '''{
+        "journeyVector": {"from": "A", "to": "B"},
+        "journeys": [
+            {"duration": 25, "legs": [{"mode": "walking"}]},
+            {"duration": 12, "legs": [{"mode": "bus"}, {"mode": "tube"}]}
+        ],
+        "count": 2
+    }'''
+
+    static class Journey {
+        public int duration
+        public List<Leg> legs
+    }
+
+    static class Leg {
+        public String mode
+    }
+
+    def stream(String json) {
+        return new ByteArrayInputStream(json.getBytes("UTF-8"))
+    }
+
+    def "reads the whole stream as the type"() {
+        when:
+            def result = JsonReaders.read(stream('{"duration": 5, "legs": []}'), Journey)
+        then:
+            result.duration == 5
+            result.legs.isEmpty()
+    }
+
+    def "reads the value at a JSON Pointer"() {
+        expect:
+            JsonReaders.read(stream(JSON), pointer, type) == expected
+        where:
+            pointer                   | type    | expected
+            "/count"                  | Integer | 2
+            "/journeyVector/to"       | String  | "B"
+            "/journeys/1/duration"    | Integer | 12
+            "/journeys/1/legs/1/mode" | String  | "tube"
+            "/journeys/2"             | Map     | null
+            "/missing"                | Map     | null
+            "/count/0"                | Map     | null
+    }
+
+    def "reads an object at a JSON Pointer as the type"() {
+        when:
+            Journey journey = JsonReaders.read(stream(JSON), "/journeys/1", Journey)
+        then:
+            journey.duration == 12
+            journey.legs*.mode == ["bus", "tube"]
+    }
+
+    def "does not parse the stream beyond the value at the JSON Pointer"() {
+        expect:
+            JsonReaders.read(stream('{"first": 1, "second": not json'), "/first", Integer) == 1
+    }
+
+    def "readers are cached per type"() {
+        expect:
+            JsonReaders.readerFor(Journey).is(JsonReaders.readerFor(Journey))
+    }
+}
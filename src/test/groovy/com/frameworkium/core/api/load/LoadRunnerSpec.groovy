@@ -0,0 +1,154 @@
+package com.frameworkium.core.api.load
+
+import com.frameworkium.core.api.services.BaseService
+import com.sun.net.httpserver.HttpServer
+import io.restassured.builder.RequestSpecBuilder
+import io.restassured.builder.ResponseSpecBuilder
+import io.restassured.specification.RequestSpecification
+import io.restassured.specification.ResponseSpecification
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.util.concurrent.Executors
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+
+class LoadRunnerSpec extends Specification {
+
+    @Shared
+    def server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+
+    def setupSpec() {
+        server.createContext("/", { exchange ->
+            def body = '{"ok":true}'.getBytes("UTF-8")
+            exchange.getResponseHeaders().set("Content-Type", "application/json")
+            exchange.sendResponseHeaders(200, body.length)
+            exchange.getResponseBody().withStream { it.write(body) }
+        })
+        server.setExecutor(Executors.newFixedThreadPool(8))
+        server.start()
+        StubService.requestSpec = new RequestSpecBuilder()
+                .setBaseUri("http://127.0.0.1:${server.getAddress().getPort()}")
+                .build()
+    }
+
+    def cleanupSpec() {
+        server.stop(0)
+    }
+
+    def "open model starts operations at the target rate"() {
+        given:
+            def service = new StubService()
+        when:
+            def result = new LoadRunner("stub", { service.get() })
+                    .atRate(100)
+                    .withWarmup(200, MILLISECONDS)
+                    .forDuration(1000, MILLISECONDS)
+                    .run()
+        then:
+            result.getErrorCount() == 0
+            result.getCount() >= 95
+            result.getCount() <= 101
+            result.getThroughput() > 90
+    }
+
+    def "closed model runs operations back to back"() {
+        given:
+            def service = new StubService()
+        when:
+            def result = new LoadRunner("stub", { service.get() })
+                    .withConcurrency(4)
+                    .forDuration(500, MILLISECONDS)
+                    .run()
+        then:
+            result.getErrorCount() == 0
+            result.getCount() > 0
+    }
+
+    def "open model latency includes waiting behind slow operations"() {
+        given: "an operation taking 50ms which can only run one at a time"
+            def slow = { sleep(50) }
+        when: "starting operations faster than they can complete"
+            def open = new LoadRunner("slow", slow)
+                    .atRate(40)
+                    .withMaxConcurrency(1)
+                    .forDuration(500, MILLISECONDS)
+                    .run()
+            def closed = new LoadRunner("slow", slow)
+                    .withConcurrency(1)
+                    .forDuration(500, MILLISECONDS)
+                    .run()
+        then: "the open model records the queueing, the closed model does not"
+            open.getLatencyMillis(99) > 200
+            closed.getLatencyMillis(99) < 200
+    }
+
+    def "failed operations are counted as errors"() {
+        when:
+            def result = new LoadRunner("failing", { throw new AssertionError("expected") })
+                    .withConcurrency(2)
+                    .forDuration(100, MILLISECONDS)
+                    .run()
+        then:
+            result.getCount() == 0
+            result.getErrorCount() > 0
+    }
+
+    def "operations not completed within the completion timeout are counted as errors"() {
+        given: "an operation taking 500ms which can only run one at a time"
+            def slow = { sleep(500) }
+        when: "four operations start, but one is running and three are queued at the timeout"
+            def result = new LoadRunner("stuck", slow)
+                    .atRate(20)
+                    .withMaxConcurrency(1)
+                    .forDuration(200, MILLISECONDS)
+                    .withCompletionTimeout(100, MILLISECONDS)
+                    .run()
+        then:
+            result.getCount() == 0
+            result.getDroppedCount() == 4
+            result.getErrorCount() == 4
+    }
+
+    def "results of several runs are appended to one CSV file"() {
+        given:
+            def csv = Files.createTempFile("load", ".csv")
+            Files.delete(csv)
+            def runner = new LoadRunner("quick", { null })
+                    .withConcurrency(1)
+                    .forDuration(10, MILLISECONDS)
+        when:
+            runner.run().appendTo(csv)
+            runner.run().appendTo(csv)
+        then:
+            def lines = Files.readAllLines(csv)
+            lines.size() == 3
+            lines[0] == LoadResult.CSV_HEADER
+            lines[1].startsWith("quick,closed 1,")
+        cleanup:
+            Files.deleteIfExists(csv)
+    }
+
+    static class StubService extends BaseService {
+
+        static RequestSpecification requestSpec
+
+        static final ResponseSpecification RESPONSE_SPEC =
+                new ResponseSpecBuilder().expectStatusCode(200).build()
+
+        @Override
+        protected RequestSpecification getRequestSpec() {
+            return requestSpec
+        }
+
+        @Override
+        protected ResponseSpecification getResponseSpec() {
+            return RESPONSE_SPEC
+        }
+
+        def get() {
+            return request("/load")
+        }
+    }
+}
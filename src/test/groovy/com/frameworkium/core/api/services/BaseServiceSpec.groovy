@@ -0,0 +1,167 @@
+package com.frameworkium.core.api.services
+
+import com.frameworkium.core.common.reporting.allure.DeferredSteps
+import com.sun.net.httpserver.HttpServer
+import io.restassured.builder.RequestSpecBuilder
+import io.restassured.builder.ResponseSpecBuilder
+import io.restassured.specification.RequestSpecification
+import io.restassured.specification.ResponseSpecification
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class BaseServiceSpec extends Specification {
+
+    @Shared
+    def clientPorts = new CopyOnWriteArrayList()
+
+    @Shared
+    def server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+
+    def setupSpec() {
+        server.createContext("/", { exchange ->
+            clientPorts.add(exchange.getRemoteAddress().getPort())
+            def path = exchange.getRequestURI().getPath()
+            if (path.startsWith("/slow")) {
+                sleep(200)
+            }
+            def body = '{"ok":true}'.getBytes("UTF-8")
+            exchange.getResponseHeaders().set("Content-Type", "application/json")
+            exchange.sendResponseHeaders(path.startsWith("/missing") ? 404 : 200, body.length)
+            exchange.getResponseBody().withStream { it.write(body) }
+        })
+        server.setExecutor(Executors.newFixedThreadPool(8))
+        server.start()
+        StubService.requestSpec = new RequestSpecBuilder()
+                .setBaseUri("http://127.0.0.1:${server.getAddress().getPort()}")
+                .build()
+    }
+
+    def cleanupSpec() {
+        server.stop(0)
+    }
+
+    def setup() {
+        clientPorts.clear()
+    }
+
+    def cleanup() {
+        DeferredSteps.end()
+    }
+
+    def "connections are reused between requests of a service"() {
+        given:
+            def service = new StubService()
+        when: "making several requests, with different service instances"
+            service.get("/a")
+            service.get("/b")
+            new StubService().get("/c")
+        then: "all requests are made using the same connection"
+            clientPorts.size() == 3
+            clientPorts.unique(false).size() == 1
+    }
+
+    def "the shared specifications can be used from several threads"() {
+        given:
+            def executor = Executors.newFixedThreadPool(4)
+        when: "making requests in parallel"
+            def futures = (1..40).collect { i ->
+                executor.submit({ new StubService().get("/parallel/$i") } as java.util.concurrent.Callable)
+            }
+            def bodies = futures.collect { it.get(10, TimeUnit.SECONDS) }
+        then: "every request succeeds using at most one connection per thread"
+            bodies.every { it == '{"ok":true}' }
+            clientPorts.unique(false).size() <= 4
+        cleanup:
+            executor.shutdownNow()
+    }
+
+    def "requestAll makes requests in parallel and keeps their order"() {
+        given:
+            def paths = (1..8).collect { "/slow/$it".toString() }
+        when:
+            def start = System.currentTimeMillis()
+            def responses = new StubService().getAll(paths)
+            def duration = System.currentTimeMillis() - start
+        then:
+            responses.size() == 8
+            responses.every { it == '{"ok":true}' }
+            duration < 8 * 200
+    }
+
+    def "requestAll fails with the response validation error"() {
+        when:
+            new StubService().getAll(["/a", "/missing", "/b"])
+        then:
+            thrown(AssertionError)
+    }
+
+    def "requestAsync completes exceptionally when validation fails"() {
+        when:
+            def future = new StubService().getAsync("/missing")
+            future.handle({ result, throwable -> null }).join()
+        then:
+            future.isCompletedExceptionally()
+    }
+
+    def "an asynchronous request is logged when the test joins it"() {
+        when:
+            new StubService().getAsync("/a").join()
+        then:
+            DeferredSteps.pending() == 0
+    }
+
+    def "an asynchronous request which completed is logged when the test ends"() {
+        given: "a request the test does not wait for"
+            def future = new StubService().getAsync("/a")
+            future.handle({ result, throwable -> null }).join()
+            assert DeferredSteps.pending() == 1
+        when:
+            DeferredSteps.end()
+        then:
+            DeferredSteps.pending() == 0
+    }
+
+    def "an asynchronous request still running when the test ends is not logged in the next test"() {
+        given: "a slow request the test does not wait for"
+            def future = new StubService().getAsync("/slow/1")
+        when: "the test ends, then the next test starts on the same thread"
+            DeferredSteps.end()
+            future.handle({ result, throwable -> null }).join()
+        then:
+            DeferredSteps.pending() == 0
+    }
+
+    static class StubService extends BaseService {
+
+        static RequestSpecification requestSpec
+
+        static final ResponseSpecification RESPONSE_SPEC =
+                new ResponseSpecBuilder().expectStatusCode(200).build()
+
+        @Override
+        protected RequestSpecification getRequestSpec() {
+            return requestSpec
+        }
+
+        @Override
+        protected ResponseSpecification getResponseSpec() {
+            return RESPONSE_SPEC
+        }
+
+        String get(String path) {
+            return request(path).asString()
+        }
+
+        List<String> getAll(List<String> paths) {
+            return requestAll(paths).collect { it.asString() }
+        }
+
+        def getAsync(String path) {
+            return requestAsync(path)
+        }
+    }
+}
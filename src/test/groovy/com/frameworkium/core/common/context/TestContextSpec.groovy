@@ -0,0 +1,72 @@
+package com.frameworkium.core.common.context
+
+import com.frameworkium.core.common.listeners.TestContextListener
+import org.testng.IInvokedMethod
+import org.testng.ITestNGMethod
+import org.testng.ITestResult
+import org.testng.internal.ConstructorOrMethod
+import ru.yandex.qatools.allure.annotations.Issue
+import ru.yandex.qatools.allure.annotations.TestCaseId
+import spock.lang.Specification
+
+class TestContextSpec extends Specification {
+
+    static class Tests {
+
+        @TestCaseId("TEST-1")
+        void withId() {
+        }
+
+        void overloaded() {
+        }
+
+        @Issue("TEST-2")
+        void overloaded(String parameter) {
+        }
+    }
+
+    def listener = new TestContextListener()
+
+    def invoked(String name, Class<?>... parameterTypes) {
+        def method = Tests.getDeclaredMethod(name, parameterTypes)
+        def testMethod = Stub(ITestNGMethod) {
+            getConstructorOrMethod() >> new ConstructorOrMethod(method)
+        }
+        return Stub(IInvokedMethod) {
+            getTestMethod() >> testMethod
+        }
+    }
+
+    def result(IInvokedMethod invokedMethod) {
+        return Stub(ITestResult) {
+            getMethod() >> invokedMethod.getTestMethod()
+        }
+    }
+
+    def cleanup() {
+        TestContext.end()
+    }
+
+    def "the context is the exact method being invoked, including overloads"() {
+        given:
+            def invokedMethod = invoked("overloaded", String)
+            def result = result(invokedMethod)
+        when:
+            listener.beforeInvocation(invokedMethod, result)
+        then:
+            TestContext.get().method == Tests.getDeclaredMethod("overloaded", String)
+            TestContext.get().result.is(result)
+            TestContext.get().testId == Optional.of("TEST-2")
+    }
+
+    def "the context is cleared after invocation"() {
+        given:
+            def invokedMethod = invoked("withId")
+            listener.beforeInvocation(invokedMethod, result(invokedMethod))
+        when:
+            listener.afterInvocation(invokedMethod, null)
+            TestContext.get()
+        then:
+            thrown(IllegalStateException)
+    }
+}
@@ -0,0 +1,207 @@
+package com.frameworkium.core.common.events
+
+import com.frameworkium.core.common.listeners.TestEventListener
+import org.testng.ITestClass
+import org.testng.ITestContext
+import org.testng.ITestNGMethod
+import org.testng.ITestResult
+import org.testng.internal.ConstructorOrMethod
+import ru.yandex.qatools.allure.annotations.TestCaseId
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static com.frameworkium.core.common.events.TestEvent.Type.*
+
+class TestEventBusSpec extends Specification {
+
+    static class Tests {
+
+        @TestCaseId("TEST-1")
+        void login() {
+        }
+    }
+
+    def bus = new TestEventBus()
+
+    def result = Stub(ITestResult) {
+        getInstanceName() >> "Tests"
+        getTestClass() >> Stub(ITestClass) {
+            getName() >> Tests.getName()
+        }
+        getMethod() >> Stub(ITestNGMethod) {
+            getMethodName() >> "login"
+            getConstructorOrMethod() >> new ConstructorOrMethod(Tests.getDeclaredMethod("login"))
+        }
+        getStartMillis() >> 1000L
+        getEndMillis() >> 1250L
+        getThrowable() >> null
+    }
+
+    static class Recorder implements TestEventSubscriber {
+
+        final boolean asynchronous
+        final List<String> handled = new CopyOnWriteArrayList<>()
+        final List<String> threads = new CopyOnWriteArrayList<>()
+        boolean finished
+        CountDownLatch blocked = new CountDownLatch(0)
+
+        Recorder(boolean asynchronous) {
+            this.asynchronous = asynchronous
+        }
+
+        @Override
+        void onEvent(TestEvent event) {
+            blocked.await()
+            threads << Thread.currentThread().getName()
+            handled << event.getType().name()
+        }
+
+        @Override
+        void onFinish() {
+            finished = true
+        }
+
+        @Override
+        boolean isAsynchronous() {
+            return asynchronous
+        }
+    }
+
+    def "events are enriched once with the test name, id and timings"() {
+        when:
+            def event = TestEvent.of(SUCCESS, result)
+        then:
+            event.getName() == "Tests.login"
+            event.getClassName() == Tests.getName()
+            event.getMethodName() == "login"
+            event.getTestId() == Optional.of("TEST-1")
+            event.getDurationMillis() == 250
+            event.getThreadName() == Thread.currentThread().getName()
+            !event.getThrowable().isPresent()
+    }
+
+    def "events keep the result as it was when published"() {
+        given:
+            def failure = new AssertionError("failed")
+            def running = Stub(ITestResult) {
+                getInstanceName() >> "Tests"
+                getTestClass() >> Stub(ITestClass)
+                getMethod() >> result.getMethod()
+                getStartMillis() >> 1000L
+                getEndMillis() >>> [1250L, 9999L]
+                getThrowable() >>> [failure, null]
+            }
+        when: "TestNG changes the result after the event is published"
+            def event = TestEvent.of(FAILURE, running)
+            running.getEndMillis()
+            running.getThrowable()
+        then:
+            event.getDurationMillis() == 250
+            event.getThrowable() == Optional.of(failure)
+    }
+
+    def "synchronous subscribers handle events on the publishing thread"() {
+        given:
+            def subscriber = new Recorder(false)
+            bus.subscribe(subscriber)
+        when:
+            bus.publish(TestEvent.of(START, result))
+        then:
+            subscriber.handled == ["START"]
+            subscriber.threads == [Thread.currentThread().getName()]
+    }
+
+    def "asynchronous subscribers handle events in order without blocking the publisher"() {
+        given:
+            def subscriber = new Recorder(true)
+            subscriber.blocked = new CountDownLatch(1)
+            bus.subscribe(subscriber)
+        when: "the subscriber is still handling the first event"
+            [START, FAILURE, SKIP].each { bus.publish(TestEvent.of(it, result)) }
+        then: "publishing has returned"
+            subscriber.handled.isEmpty()
+        when:
+            subscriber.blocked.countDown()
+            def finished = bus.finish(10, TimeUnit.SECONDS)
+        then: "finishing waits for every event, in order, then finishes the subscriber"
+            finished
+            subscriber.handled == ["START", "FAILURE", "SKIP"]
+            subscriber.threads.every { it == "test-events-Recorder" }
+            subscriber.finished
+    }
+
+    def "a failing subscriber does not stop the others"() {
+        given:
+            bus.subscribe(new TestEventSubscriber() {
+                @Override
+                void onEvent(TestEvent event) {
+                    throw new IllegalStateException("broken")
+                }
+            })
+            bus.subscribe(new TestEventSubscriber() {
+                @Override
+                void onEvent(TestEvent event) {
+                    throw new IOException("undeclared")
+                }
+            })
+            def subscriber = new Recorder(false)
+            bus.subscribe(subscriber)
+        when:
+            bus.publish(TestEvent.of(SUCCESS, result))
+        then:
+            notThrown(Exception)
+            subscriber.handled == ["SUCCESS"]
+    }
+
+    def "finishing times out if an asynchronous subscriber is stuck"() {
+        given:
+            def subscriber = new Recorder(true)
+            subscriber.blocked = new CountDownLatch(1)
+            bus.subscribe(subscriber)
+            bus.publish(TestEvent.of(START, result))
+        expect:
+            !bus.finish(50, TimeUnit.MILLISECONDS)
+        cleanup:
+            subscriber.blocked.countDown()
+    }
+
+    def "a subscriber of the same class is only subscribed once"() {
+        given:
+            def first = new Recorder(false)
+            def second = new Recorder(false)
+        expect:
+            bus.subscribeIfAbsent(first)
+            !bus.subscribeIfAbsent(second)
+        when:
+            bus.publish(TestEvent.of(START, result))
+        then:
+            first.handled == ["START"]
+            second.handled.isEmpty()
+    }
+
+    def "a TestEventListener listed as a TestNG listener handles its own callbacks"() {
+        given:
+            def handled = new CopyOnWriteArrayList<String>()
+            ITestContext context = null
+            def listener = new TestEventListener() {
+                @Override
+                void onEvent(TestEvent event) {
+                    handled << event.getType().name()
+                }
+
+                @Override
+                boolean isAsynchronous() {
+                    return true
+                }
+            }
+        when:
+            listener.onTestStart(result)
+            listener.onTestFailure(result)
+            listener.onFinish(context)
+        then:
+            handled == ["START", "FAILURE"]
+    }
+}
@@ -0,0 +1,168 @@
+package com.frameworkium.core.common.reporting
+
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+import java.util.function.LongSupplier
+
+class CircuitBreakerSpec extends Specification {
+
+    def now = 0L
+    def clock = { now } as LongSupplier
+
+    def breaker = new CircuitBreaker("jira", 3, 1000, 30_000, clock)
+
+    /** Reports through the breaker, as the filter does for each request */
+    def reporter(List reported, Closure<Boolean> up) {
+        return { String result ->
+            { ->
+                if (!breaker.allowRequest()) {
+                    throw new CircuitOpenException("open")
+                }
+                if (up()) {
+                    breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(10))
+                    reported << result
+                } else {
+                    breaker.onFailure()
+                }
+            } as Runnable
+        }
+    }
+
+    def advanceMillis(long millis) {
+        now += TimeUnit.MILLISECONDS.toNanos(millis)
+    }
+
+    def "opens after consecutive failures and rejects until the open time elapses"() {
+        when:
+            3.times { breaker.onFailure() }
+        then:
+            breaker.getState() == CircuitBreaker.State.OPEN
+            !breaker.allowRequest()
+        when:
+            advanceMillis(30_000)
+        then: "a single probe is allowed"
+            breaker.allowRequest()
+            breaker.getState() == CircuitBreaker.State.HALF_OPEN
+            !breaker.allowRequest()
+    }
+
+    def "a success resets the consecutive failures"() {
+        when:
+            2.times { breaker.onFailure() }
+            breaker.onSuccess(0)
+            2.times { breaker.onFailure() }
+        then:
+            breaker.getState() == CircuitBreaker.State.CLOSED
+    }
+
+    def "slow calls count as failures"() {
+        when:
+            3.times { breaker.onSuccess(TimeUnit.MILLISECONDS.toNanos(1001)) }
+        then:
+            breaker.getState() == CircuitBreaker.State.OPEN
+    }
+
+    def "a successful probe closes the breaker and a failed probe reopens it"() {
+        given:
+            3.times { breaker.onFailure() }
+            advanceMillis(30_000)
+        when:
+            breaker.allowRequest()
+            breaker.onFailure()
+        then:
+            breaker.getState() == CircuitBreaker.State.OPEN
+            !breaker.allowRequest()
+        when:
+            advanceMillis(30_000)
+            breaker.allowRequest()
+            breaker.onSuccess(0)
+        then:
+            breaker.getState() == CircuitBreaker.State.CLOSED
+    }
+
+    def "results submitted while open are buffered and replayed in order once it closes"() {
+        given:
+            def up = false
+            def reported = []
+            def report = reporter(reported, { up })
+        when: "the integration is down"
+            (1..5).each { breaker.submit("result $it", report("result $it")) }
+        then: "results are buffered after it opens, without further requests"
+            breaker.getState() == CircuitBreaker.State.OPEN
+            breaker.getBufferedCount() == 2
+            reported.isEmpty()
+        when: "it is back before the next result"
+            up = true
+            advanceMillis(30_000)
+            breaker.submit("result 6", report("result 6"))
+        then: "buffered results are reported first"
+            breaker.getState() == CircuitBreaker.State.CLOSED
+            breaker.getBufferedCount() == 0
+            reported == ["result 4", "result 5", "result 6"]
+    }
+
+    def "reports submitted by a report are buffered on their own, so are not repeated"() {
+        given:
+            def reported = []
+            def report = reporter(reported, { true })
+        when: "the circuit opens after the first of two nested reports"
+            breaker.submit("search", {
+                breaker.submit("update 1", report("update 1"))
+                3.times { breaker.onFailure() }
+                breaker.submit("update 2", report("update 2"))
+            } as Runnable)
+        then:
+            reported == ["update 1"]
+            breaker.getBufferedCount() == 1
+        when:
+            advanceMillis(30_000)
+            breaker.replayNow()
+        then: "only the rejected report is replayed"
+            reported == ["update 1", "update 2"]
+            breaker.getBufferedCount() == 0
+    }
+
+    def "replaying now probes without waiting for the open time"() {
+        given:
+            def up = false
+            def reported = []
+            def report = reporter(reported, { up })
+            4.times { breaker.submit("result $it", report("result $it")) }
+        when:
+            up = true
+            breaker.replayNow()
+        then:
+            reported == ["result 3"]
+            breaker.getState() == CircuitBreaker.State.CLOSED
+    }
+
+    def "the oldest buffered results are dropped beyond the limit"() {
+        given:
+            3.times { breaker.onFailure() }
+        when:
+            (CircuitBreaker.MAX_BUFFERED + 2).times { breaker.submit("result $it", {} as Runnable) }
+        then:
+            breaker.getBufferedCount() == CircuitBreaker.MAX_BUFFERED
+            breaker.toString().contains("2 dropped")
+    }
+
+    def "requests to a host which is down open its breaker, then results are buffered"() {
+        given: "a reporting URL nothing listens on"
+            def url = "http://localhost:1/rest/api"
+            def down = CircuitBreaker.forUrl(url)
+            def reported = []
+        when:
+            (1..5).each { i ->
+                down.submit("result $i", {
+                    ReportingHttpClient.given().get(url)
+                    reported << i
+                } as Runnable)
+            }
+        then: "connection failures count, without being thrown by submit"
+            notThrown(Exception)
+            down.getState() == CircuitBreaker.State.OPEN
+            down.getBufferedCount() == 2
+            reported.isEmpty()
+    }
+}
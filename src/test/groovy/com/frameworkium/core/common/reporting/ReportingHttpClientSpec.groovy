@@ -0,0 +1,49 @@
+package com.frameworkium.core.common.reporting
+
+import com.sun.net.httpserver.HttpServer
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.CopyOnWriteArrayList
+
+class ReportingHttpClientSpec extends Specification {
+
+    @Shared
+    def clientPorts = new CopyOnWriteArrayList()
+
+    @Shared
+    def server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0)
+
+    @Shared
+    def uri
+
+    def setupSpec() {
+        server.createContext("/", { exchange ->
+            clientPorts.add(exchange.getRemoteAddress().getPort())
+            def body = '{"ok":true}'.getBytes("UTF-8")
+            exchange.getResponseHeaders().set("Content-Type", "application/json")
+            exchange.sendResponseHeaders(200, body.length)
+            exchange.getResponseBody().withStream { it.write(body) }
+        })
+        server.start()
+        uri = new URI("http://127.0.0.1:${server.getAddress().getPort()}/")
+    }
+
+    def cleanupSpec() {
+        server.stop(0)
+    }
+
+    def "connections are kept alive and reused between requests"() {
+        when: "making several requests to the same host"
+            3.times {
+                ReportingHttpClient.given().get(uri.resolve("/result/$it").toString())
+            }
+        then: "all requests are made using the same connection"
+            clientPorts.size() == 3
+            clientPorts.unique(false).size() == 1
+        and: "the connection is returned to the pool"
+            def stats = ReportingHttpClient.getStats(uri)
+            stats.getLeased() == 0
+            stats.getAvailable() == 1
+    }
+}
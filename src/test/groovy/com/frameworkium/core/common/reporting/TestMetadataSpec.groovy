@@ -0,0 +1,83 @@
+package com.frameworkium.core.common.reporting
+
+import org.testng.annotations.Test
+import ru.yandex.qatools.allure.annotations.Features
+import ru.yandex.qatools.allure.annotations.Issue
+import ru.yandex.qatools.allure.annotations.Stories
+import ru.yandex.qatools.allure.annotations.TestCaseId
+import spock.lang.Specification
+
+class TestMetadataSpec extends Specification {
+
+    @Features("Search")
+    @Test(groups = "smoke")
+    static class Tests {
+
+        @TestCaseId("TEST-1")
+        @Features(["Search", "Filters"])
+        @Stories("Filter by date")
+        @Test(groups = ["regression"])
+        void annotated() {
+        }
+
+        @Issue("TEST-2")
+        @TestCaseId("TEST-2")
+        void sameIds() {
+        }
+
+        @Issue("TEST-3")
+        @TestCaseId("TEST-4")
+        void differentIds() {
+        }
+
+        void plain() {
+        }
+    }
+
+    def "metadata is read from the method and its class"() {
+        when:
+            def metadata = TestMetadata.of(Tests.getDeclaredMethod("annotated"))
+        then:
+            metadata.testId == Optional.of("TEST-1")
+            metadata.features == ["Search", "Filters"]
+            metadata.stories == ["Filter by date"]
+            metadata.groups == ["smoke", "regression"]
+    }
+
+    def "methods without annotations have only the class metadata"() {
+        when:
+            def metadata = TestMetadata.of(Tests.getDeclaredMethod("plain"))
+        then:
+            metadata.testId == Optional.empty()
+            metadata.features == ["Search"]
+            metadata.stories.isEmpty()
+            metadata.groups == ["smoke"]
+    }
+
+    def "metadata is read once per method"() {
+        given:
+            def method = Tests.getDeclaredMethod("annotated")
+        expect:
+            TestMetadata.of(method).is(TestMetadata.of(method))
+            TestIdUtils.getIssueOrTestCaseIdValue(method).is(TestMetadata.of(method).testId)
+    }
+
+    def "equal Issue and TestCaseId values are the test id"() {
+        expect:
+            TestIdUtils.getIssueOrTestCaseIdValue(
+                    Tests.getDeclaredMethod("sameIds")) == Optional.of("TEST-2")
+    }
+
+    def "different Issue and TestCaseId values are rejected every time"() {
+        given:
+            def method = Tests.getDeclaredMethod("differentIds")
+        when:
+            TestMetadata.of(method)
+        then:
+            thrown(IllegalStateException)
+        when:
+            TestIdUtils.getIssueOrTestCaseIdValue(method)
+        then:
+            thrown(IllegalStateException)
+    }
+}
@@ -0,0 +1,101 @@
+package com.frameworkium.core.common.reporting.timeline
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+
+import java.nio.file.Files
+
+class TimelineSpec extends Specification {
+
+    def file = Files.createTempFile("timeline", ".json")
+
+    def setup() {
+        Timeline.setEnabled(true)
+        Timeline.write(file, "discard earlier spans")
+    }
+
+    def cleanup() {
+        Timeline.setEnabled(false)
+        Files.deleteIfExists(file)
+    }
+
+    def read() {
+        return new ObjectMapper().readValue(file.toFile(), Map)
+    }
+
+    def "closed spans are written as complete events of the thread"() {
+        when:
+            def outerSpan = Timeline.span("outer", "page")
+            def innerSpan = Timeline.span("inner", "wait", "visibility of foo")
+            sleep(5)
+            innerSpan.close()
+            outerSpan.close()
+            Timeline.write(file, "suite")
+        then:
+            def trace = read()
+            trace.otherData.title == "suite"
+            def events = trace.traceEvents
+            events[0].ph == "M"
+            events[0].args.name == Thread.currentThread().getName()
+            def inner = events.find { it.name == "inner" }
+            def outer = events.find { it.name == "outer" }
+            inner.ph == "X"
+            inner.cat == "wait"
+            inner.args.detail == "visibility of foo"
+            inner.dur >= 5000
+            inner.tid == Thread.currentThread().getId()
+            outer.ts <= inner.ts
+            outer.ts + outer.dur >= inner.ts + inner.dur
+    }
+
+    def "spans of each thread are written"() {
+        when:
+            def thread = Thread.start("timeline-test") {
+                Timeline.span("other", "test").close()
+            }
+            thread.join()
+            Timeline.span("this", "test").close()
+            Timeline.write(file, "suite")
+        then:
+            def names = read().traceEvents.findAll { it.ph == "M" }*.args.name
+            names.containsAll(["timeline-test", Thread.currentThread().getName()])
+    }
+
+    def "buffers of threads which have ended are dropped once written"() {
+        given:
+            def thread = Thread.start("timeline-ended") {
+                Timeline.span("ended", "test").close()
+            }
+            thread.join()
+            def buffered = Timeline.bufferedThreads()
+        when:
+            Timeline.write(file, "suite")
+        then:
+            read().traceEvents.any { it.name == "ended" }
+            Timeline.bufferedThreads() == buffered - 1
+    }
+
+    def "spans are only written once and closing twice records once"() {
+        given:
+            def span = Timeline.span("once", "test")
+        when:
+            span.close()
+            span.close()
+            Timeline.write(file, "first")
+            def first = read().traceEvents.findAll { it.name == "once" }
+            Timeline.write(file, "second")
+        then:
+            first.size() == 1
+            read().traceEvents.isEmpty()
+    }
+
+    def "nothing is recorded when disabled"() {
+        given:
+            Timeline.setEnabled(false)
+        when:
+            Timeline.span("disabled", "test").close()
+            Timeline.write(file, "suite")
+        then:
+            read().traceEvents.isEmpty()
+    }
+}
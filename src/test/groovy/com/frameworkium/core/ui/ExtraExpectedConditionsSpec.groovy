@@ -75,6 +75,25 @@ class ExtraExpectedConditionsSpec extends Specification {
             thrown(TimeoutException)
     }
 
+    // networkIdle(long)
+    def "waiting for networkIdle passes the quiet window to the instrumentation script"() {
+        given: "A driver which can be cast to JavascriptExecutor"
+            def mockWDWrapper = Mock(WebDriverWrapper, constructorArgs: [Mock(WebDriver)])
+            def jsWait = new FluentWait<>(mockWDWrapper, Mock(Clock), Mock(Sleeper))
+        when: "Waiting for the network to be idle"
+            jsWait.until(ExtraExpectedConditions.networkIdle(250))
+        then: "nothing is thrown if the network is idle"
+            1 * mockWDWrapper.executeScript({ it.contains("XMLHttpRequest") }, 250L) >> true
+            noExceptionThrown()
+
+        when: "Waiting for the network to be idle"
+            jsWait.until(ExtraExpectedConditions.networkIdle())
+        then: "Timeout is thrown if requests are in flight, or the script fails"
+            1 * mockWDWrapper.executeScript(_ as String,
+                    ExtraExpectedConditions.DEFAULT_NETWORK_QUIET_MILLIS) >> null
+            thrown(TimeoutException)
+    }
+
     def static listSize = 3
     def webElements = [mockElement] * listSize
 
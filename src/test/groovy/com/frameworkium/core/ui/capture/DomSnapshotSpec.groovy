@@ -0,0 +1,77 @@
+package com.frameworkium.core.ui.capture
+
+import com.frameworkium.core.ui.capture.model.Command
+import org.openqa.selenium.WebDriver
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.util.zip.GZIPInputStream
+
+class DomSnapshotSpec extends Specification {
+
+    def cleanup() {
+        CommandHistory.clear()
+    }
+
+    def "drivers which cannot run scripts fall back to the truncated page source"() {
+        given:
+            def driver = Stub(WebDriver) {
+                getPageSource() >> "<html><body>0123456789</body></html>"
+                getCurrentUrl() >> "http://example.com/"
+                getTitle() >> "Example"
+            }
+        when:
+            def snapshot = DomSnapshot.take(driver, 16, 1000)
+        then:
+            snapshot.truncated
+            snapshot.toHtml([]).endsWith("<html><body>0123")
+    }
+
+    def "the header describes the snapshot and the commands leading up to it"() {
+        given:
+            def snapshot = new DomSnapshot("http://example.com/", "a -- title", "<html></html>", false)
+        when:
+            def html = snapshot.toHtml(["12:00:00.000 click locator=id: submit"])
+        then:
+            html == """<!--
+URL: http://example.com/
+Title: a - - title
+Recent commands:
+12:00:00.000 click locator=id: submit
+-->
+<html></html>"""
+    }
+
+    def "the snapshot is written gzipped"() {
+        given:
+            def snapshot = new DomSnapshot("http://example.com/", "Example", "<html></html>", true)
+            def directory = Files.createTempDirectory("dom")
+            def file = directory.resolve("sub").resolve("failure.html.gz")
+        when:
+            snapshot.writeGzipped(file, ["command"])
+        then:
+            new GZIPInputStream(Files.newInputStream(file)).getText("UTF-8") ==
+                    snapshot.toHtml(["command"])
+        cleanup:
+            directory.toFile().deleteDir()
+    }
+
+    def "only the most recent commands are kept"() {
+        when:
+            (1..5).each { CommandHistory.record(new Command("click", "id", "$it"), 3) }
+        then:
+            CommandHistory.recent()*.split(" ")*.getAt(2) == ["id=3", "id=4", "id=5"]
+    }
+
+    def "commands are kept per thread"() {
+        given:
+            CommandHistory.record(new Command("click", "id", "main"), 3)
+        when:
+            List<String> other = null
+            def thread = Thread.start { other = CommandHistory.recent() }
+            thread.join()
+        then:
+            other == []
+            CommandHistory.recent().size() == 1
+    }
+}
@@ -0,0 +1,95 @@
+package com.frameworkium.core.ui.capture
+
+import spock.lang.Specification
+
+import javax.imageio.ImageIO
+import javax.imageio.ImageWriteParam
+import javax.imageio.ImageWriter
+import javax.imageio.IIOImage
+import java.awt.Color
+import java.awt.image.BufferedImage
+import java.nio.file.Files
+
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class LocalScreenshotStoreSpec extends Specification {
+
+    def directory = Files.createTempDirectory("screenshots")
+
+    def cleanup() {
+        directory.toFile().deleteDir()
+    }
+
+    /** @return an uncompressed PNG of the colour, as a driver might take */
+    static byte[] png(Color colour, int size = 100) {
+        def image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB)
+        def graphics = image.createGraphics()
+        graphics.setColor(colour)
+        graphics.fillRect(0, 0, size, size)
+        graphics.dispose()
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next()
+        def out = new ByteArrayOutputStream()
+        def imageOut = ImageIO.createImageOutputStream(out)
+        writer.setOutput(imageOut)
+        def param = writer.getDefaultWriteParam()
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT)
+            param.setCompressionQuality(1f)
+        }
+        writer.write(null, new IIOImage(image, null, null), param)
+        imageOut.close()
+        writer.dispose()
+        return out.toByteArray()
+    }
+
+    def "identical screenshots are written once under their hash"() {
+        given:
+            def store = new LocalScreenshotStore(directory, 0, false)
+            def red = png(Color.RED)
+        when:
+            def first = store.store("first", red).get(10, SECONDS)
+            def retry = store.store("retry", red).get(10, SECONDS)
+            def other = store.store("other", png(Color.BLUE)).get(10, SECONDS)
+            store.awaitWrites(10, SECONDS)
+        then:
+            first == retry
+            first != other
+            first.fileName.toString() ==~ /[0-9a-f]{64}\.png/
+            Files.readAllBytes(first) == red
+            Files.list(directory).count() == 3
+            directory.resolve("index.txt").readLines()*.split(" ")*.getAt(1) ==
+                    ["first", "retry", "other"]
+    }
+
+    def "the oldest screenshots are deleted when the quota is exceeded"() {
+        given:
+            def colours = [Color.RED, Color.GREEN, Color.BLUE]
+            def screenshots = colours.collect { png(it) }
+            def store = new LocalScreenshotStore(directory, screenshots[0].length * 2, false)
+        when:
+            def files = screenshots.withIndex().collect { screenshot, i ->
+                def file = store.store("test$i", screenshot).get(10, SECONDS)
+                store.awaitWrites(10, SECONDS)
+                return file
+            }
+        then: "the oldest is deleted, and no longer indexed"
+            !Files.exists(files[0])
+            Files.exists(files[1])
+            Files.exists(files[2])
+            directory.resolve("index.txt").readLines()*.split(" ")*.getAt(2) ==
+                    files[1..2]*.fileName*.toString()
+    }
+
+    def "recompression is lossless and no larger"() {
+        given:
+            def original = png(Color.ORANGE, 400)
+        when:
+            def recompressed = LocalScreenshotStore.recompress(original)
+        then:
+            recompressed.length <= original.length
+            def before = ImageIO.read(new ByteArrayInputStream(original))
+            def after = ImageIO.read(new ByteArrayInputStream(recompressed))
+            after.getRGB(0, 0, 400, 400, null, 0, 400) ==
+                    before.getRGB(0, 0, 400, 400, null, 0, 400)
+    }
+}
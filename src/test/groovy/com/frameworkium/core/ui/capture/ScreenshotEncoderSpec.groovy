@@ -0,0 +1,83 @@
+package com.frameworkium.core.ui.capture
+
+import spock.lang.Specification
+
+import javax.imageio.ImageIO
+import java.awt.Color
+import java.awt.Rectangle
+
+import static com.frameworkium.core.ui.capture.LocalScreenshotStoreSpec.png
+import static com.frameworkium.core.ui.capture.ScreenshotEncoder.Format.JPEG
+import static com.frameworkium.core.ui.capture.ScreenshotEncoder.Format.PNG
+
+class ScreenshotEncoderSpec extends Specification {
+
+    static decode(byte[] bytes) {
+        ImageIO.read(new ByteArrayInputStream(bytes))
+    }
+
+    def "full size PNG screenshots are not re-encoded"() {
+        given:
+            def encoder = new ScreenshotEncoder(true, 1, PNG, 1)
+            def screenshot = png(Color.RED)
+        expect:
+            encoder.encodeAsync(screenshot, null).join().is(screenshot)
+    }
+
+    def "screenshots are cropped to the element and its margin"() {
+        given:
+            def encoder = new ScreenshotEncoder(true, 1, PNG, 1)
+            def element = new ElementBounds(30, 40, 10, 5, 0, 0, 200, 1)
+        when:
+            def image = decode(encoder.encodeAsync(png(Color.RED, 200), element).join())
+        then:
+            image.width == 10 + 2 * ElementBounds.MARGIN
+            image.height == 5 + 2 * ElementBounds.MARGIN
+    }
+
+    def "screenshots are downscaled and encoded as JPEG"() {
+        given:
+            def encoder = new ScreenshotEncoder(false, 0.5, JPEG, 0.5f)
+            def screenshot = png(Color.BLUE, 200)
+        when:
+            def encoded = encoder.encodeAsync(screenshot, null).join()
+            def image = decode(encoded)
+        then:
+            encoded[0..1] == [0xFF, 0xD8] as byte[]
+            image.width == 100
+            image.height == 100
+    }
+
+    def "screenshot formats are parsed by name or extension, else PNG"() {
+        expect:
+            ScreenshotEncoder.parseFormat(value) == format
+        where:
+            value    || format
+            "png"    || ScreenshotEncoder.Format.PNG
+            "JPEG"   || ScreenshotEncoder.Format.JPEG
+            "jpg"    || ScreenshotEncoder.Format.JPEG
+            "webp"   || ScreenshotEncoder.Format.PNG
+    }
+
+    def "element bounds are converted to device pixels and clamped to the screenshot"() {
+        given: "a 2x display with the element at the bottom right"
+            def element = new ElementBounds(90, 90, 20, 20, 0, 0, 100, 2)
+        expect:
+            element.toImagePixels(200, 200) == new Rectangle(140, 140, 60, 60)
+    }
+
+    def "scroll offset is only added for whole page screenshots"() {
+        given: "an element at the top of the viewport, scrolled 500px down"
+            def element = new ElementBounds(0, 0, 100, 50, 0, 500, 300, 1)
+        expect:
+            element.toImagePixels(400, 300).y == 0
+            element.toImagePixels(400, 1000).y == 480
+    }
+
+    def "elements outside the screenshot give an empty crop"() {
+        given:
+            def element = new ElementBounds(0, 1000, 10, 10, 0, 0, 100, 1)
+        expect:
+            element.toImagePixels(100, 100).isEmpty()
+    }
+}
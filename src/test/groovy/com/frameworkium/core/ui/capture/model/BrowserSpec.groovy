@@ -0,0 +1,26 @@
+package com.frameworkium.core.ui.capture.model
+
+import spock.lang.Specification
+
+class BrowserSpec extends Specification {
+
+    static final String CHROME = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) " +
+            "AppleWebKit/537.36 (KHTML, like Gecko) Chrome/59.0.3071.115 Safari/537.36"
+
+    def "the browser is parsed from the user agent"() {
+        when:
+            def browser = Browser.fromUserAgent(CHROME)
+        then:
+            browser.name == "Chrome"
+            browser.version == "59.0.3071.115"
+            browser.device == "Personal computer"
+            browser.platform == "Windows"
+    }
+
+    def "each user agent is parsed once"() {
+        expect:
+            Browser.fromUserAgent(CHROME).is(Browser.fromUserAgent(CHROME))
+            !Browser.parse(CHROME).is(Browser.parse(CHROME))
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.frameworkium.core.ui.driver
+
+import com.frameworkium.core.ui.driver.stub.StubDom
+import com.frameworkium.core.ui.driver.stub.StubWebDriverServer
+import org.openqa.selenium.Dimension
+import org.openqa.selenium.remote.DesiredCapabilities
+import org.openqa.selenium.remote.DriverCommand
+import org.openqa.selenium.remote.RemoteWebDriver
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class BrowserEnvironmentSpec extends Specification {
+
+    static final String USER_AGENT = "Mozilla/5.0 (Stub) Chrome/59.0"
+
+    @Shared
+    def dom = new StubDom()
+
+    @Shared
+    @AutoCleanup
+    def server = new StubWebDriverServer(dom).start()
+
+    def setupSpec() {
+        dom.onScript("window.outerWidth", { args -> [USER_AGENT, 1280L, 800L] })
+    }
+
+    def "the environment is probed once per session"() {
+        given:
+            def driver = new WebDriverWrapper(
+                    new RemoteWebDriver(server.url, new DesiredCapabilities()))
+            server.resetCommandCounts()
+        when:
+            def environment = driver.getEnvironment()
+            driver.getEnvironment()
+            driver.getEnvironment()
+        then:
+            server.getCommandCount(DriverCommand.EXECUTE_SCRIPT) == 1
+            server.getTotalCommandCount() == 1
+            environment.is(driver.getEnvironment())
+        cleanup:
+            driver.quit()
+    }
+
+    def "the environment has the probed values and session capabilities"() {
+        given:
+            def driver = new WebDriverWrapper(
+                    new RemoteWebDriver(server.url, new DesiredCapabilities()))
+        when:
+            def environment = driver.getEnvironment()
+        then:
+            environment.userAgent == Optional.of(USER_AGENT)
+            environment.windowSize == Optional.of(new Dimension(1280, 800))
+            environment.browserName == Optional.of("stub")
+            environment.browserVersion == Optional.of("1.0")
+            environment.capabilities.takesScreenshot == true
+            BrowserEnvironment.getLastProbed().get().is(environment)
+            BrowserEnvironment.getProbedOnThisThread().get().is(environment)
+        cleanup:
+            driver.quit()
+    }
+
+    def "each thread sees the environment of its own session"() {
+        given:
+            def driver = new WebDriverWrapper(
+                    new RemoteWebDriver(server.url, new DesiredCapabilities()))
+            def environment = driver.getEnvironment()
+        when: "another thread probes its own session"
+            def other = null
+            def thread = Thread.start {
+                def otherDriver = new WebDriverWrapper(
+                        new RemoteWebDriver(server.url, new DesiredCapabilities()))
+                other = otherDriver.getEnvironment()
+                otherDriver.quit()
+            }
+            thread.join()
+        then:
+            BrowserEnvironment.getLastProbed().get().is(other)
+            BrowserEnvironment.getProbedOnThisThread().get().is(environment)
+        cleanup:
+            driver.quit()
+    }
+
+    def "an environment which cannot be probed is empty"() {
+        given:
+            def environment = new BrowserEnvironment(null, null, [platform: ""])
+        expect:
+            !environment.userAgent.isPresent()
+            !environment.windowSize.isPresent()
+            !environment.platform.isPresent()
+            !environment.browserName.isPresent()
+    }
+}
@@ -0,0 +1,111 @@
+package com.frameworkium.core.ui.driver.stub
+
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+import org.openqa.selenium.By
+import org.openqa.selenium.NoSuchElementException
+import org.openqa.selenium.StaleElementReferenceException
+import org.openqa.selenium.remote.DesiredCapabilities
+import org.openqa.selenium.remote.DriverCommand
+import org.openqa.selenium.remote.RemoteWebDriver
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+class StubWebDriverServerSpec extends Specification {
+
+    @Shared
+    def dom = new StubDom()
+
+    @Shared
+    @AutoCleanup
+    def server = new StubWebDriverServer(dom).start()
+
+    def driver
+
+    def setupSpec() {
+        def page = dom.addPage("http://stub/page", "Stub Page")
+        def form = page.addElement("form").locatedById("form")
+        form.addChild("input").locatedByCss("input.name").withAttribute("value", "x")
+        page.addElement("li").locatedByCss("li").withText("one")
+        page.addElement("li").locatedByCss("li").withText("two")
+        page.addElement("div").locatedById("gone").stale(true)
+        dom.onScript("return 1 + 1", { args -> 2L })
+    }
+
+    def setup() {
+        driver = new RemoteWebDriver(server.url, new DesiredCapabilities())
+        server.resetCommandCounts()
+    }
+
+    def cleanup() {
+        driver.quit()
+    }
+
+    def "a remote driver can navigate and find elements"() {
+        when:
+            driver.get("http://stub/page")
+        then:
+            driver.title == "Stub Page"
+            driver.currentUrl == "http://stub/page"
+            driver.findElements(By.cssSelector("li"))*.text == ["one", "two"]
+            driver.findElement(By.id("form"))
+                    .findElement(By.cssSelector("input.name"))
+                    .getAttribute("value") == "x"
+    }
+
+    def "missing and stale elements map to selenium exceptions"() {
+        given:
+            driver.get("http://stub/page")
+        when:
+            driver.findElement(By.id("missing"))
+        then:
+            thrown(NoSuchElementException)
+        when:
+            driver.findElement(By.id("gone")).click()
+        then:
+            thrown(StaleElementReferenceException)
+    }
+
+    def "scripts, history and command counts are supported"() {
+        when:
+            driver.get("http://stub/page")
+            driver.get("http://stub/other")
+            driver.navigate().back()
+        then:
+            driver.currentUrl == "http://stub/page"
+            driver.executeScript("return 1 + 1") == 2L
+            server.getCommandCount(DriverCommand.GET) == 2
+            server.getCommandCount(DriverCommand.EXECUTE_SCRIPT) == 1
+    }
+
+    def w3c(String method, String path, Map body = null) {
+        def connection = (HttpURLConnection) new URL("${server.url}$path").openConnection()
+        connection.requestMethod = method
+        if (body != null) {
+            connection.doOutput = true
+            connection.outputStream.withStream { it.write(JsonOutput.toJson(body).getBytes("UTF-8")) }
+        }
+        def stream = connection.responseCode < 400 ? connection.inputStream : connection.errorStream
+        return [status: connection.responseCode, body: new JsonSlurper().parse(stream)]
+    }
+
+    def "W3C sessions get W3C responses, element references and errors"() {
+        when: "a session is created with only W3C capabilities"
+            def session = w3c("POST", "/session", [capabilities: [alwaysMatch: [:]]])
+            def id = session.body.value.sessionId
+            w3c("POST", "/session/$id/url", [url: "http://stub/page"])
+            def found = w3c("POST", "/session/$id/elements", [using: "css selector", value: "li"])
+            def missing = w3c("POST", "/session/$id/element", [using: "css selector", value: "p"])
+        then: "responses only have a value"
+            session.body.keySet() == ["value"] as Set
+            session.body.value.capabilities.browserName == "stub"
+        and: "elements use the W3C key"
+            found.body.value*.keySet().flatten().unique() == ["element-6066-11e4-a52e-4f735466cecf"]
+        and: "errors use W3C codes and HTTP statuses"
+            missing.status == 404
+            missing.body.value.error == "no such element"
+        cleanup:
+            w3c("DELETE", "/session/$id")
+    }
+}
@@ -0,0 +1,91 @@
+package com.frameworkium.core.ui.pages
+
+import org.openqa.selenium.NoSuchElementException
+import org.openqa.selenium.StaleElementReferenceException
+import org.openqa.selenium.WebElement
+import org.openqa.selenium.support.pagefactory.ElementLocator
+import spock.lang.Specification
+
+class CachingElementLocatorSpec extends Specification {
+
+    def delegate = Mock(ElementLocator)
+    def cache = new ElementCache()
+    def element = Mock(WebElement)
+
+    def "element is found once and reused until the cache is invalidated"() {
+        given: "a caching locator"
+            def sut = new CachingElementLocator(delegate, cache, false)
+        when: "finding the element twice"
+            sut.findElement()
+            def found = sut.findElement()
+        then: "the delegate is only used once"
+            1 * delegate.findElement() >> element
+            found == element
+
+        when: "the cache is invalidated by a navigation then found again"
+            cache.beforeNavigateTo("http://example.com", null)
+            sut.findElement()
+        then: "the delegate is used again"
+            1 * delegate.findElement() >> element
+    }
+
+    def "a StaleElementReferenceException invalidates the cache"() {
+        given: "a caching locator with a cached element"
+            def sut = new CachingElementLocator(delegate, cache, false)
+            delegate.findElement() >> element
+            sut.findElement()
+        when: "a stale element exception is observed then the element is found"
+            cache.onException(new StaleElementReferenceException(""), null)
+            sut.findElement()
+        then: "the delegate is used again"
+            1 * delegate.findElement() >> element
+    }
+
+    def "a call failing on a stale cached element is retried on the element found again"() {
+        given: "a caching locator with a cached element"
+            def stale = Mock(WebElement)
+            def sut = new CachingElementLocator(delegate, cache, false)
+        when: "the element went stale, e.g. after a click navigated"
+            def text = sut.findElement().getText()
+        then: "it is found again and the call succeeds"
+            1 * delegate.findElement() >> stale
+            1 * stale.getText() >> { throw new StaleElementReferenceException("") }
+            1 * delegate.findElement() >> element
+            1 * element.getText() >> "found again"
+            text == "found again"
+    }
+
+    def "a call failing again after the retry throws"() {
+        given:
+            def sut = new CachingElementLocator(delegate, cache, false)
+            delegate.findElement() >> element
+            element.click() >> { throw new StaleElementReferenceException("") }
+        when:
+            sut.findElement().click()
+        then:
+            thrown(StaleElementReferenceException)
+    }
+
+    def "other exceptions do not invalidate the cache"() {
+        given:
+            def sut = new CachingElementLocator(delegate, cache, false)
+            delegate.findElement() >> element
+            sut.findElement()
+        when:
+            cache.onException(new NoSuchElementException(""), null)
+            sut.findElement()
+        then:
+            0 * delegate.findElement()
+    }
+
+    def "lists are only cached when requested"() {
+        given: "non-list and list caching locators"
+            def elementsOnly = new CachingElementLocator(delegate, cache, false)
+            def withLists = new CachingElementLocator(delegate, cache, true)
+        when: "finding elements twice with each"
+            2.times { elementsOnly.findElements() }
+            2.times { withLists.findElements() }
+        then: "the delegate is used for each uncached lookup"
+            3 * delegate.findElements() >> [element]
+    }
+}
@@ -0,0 +1,60 @@
+package com.frameworkium.core.ui.pages
+
+import com.frameworkium.core.ui.annotations.PageLoadBudget
+import spock.lang.Specification
+
+import static com.frameworkium.core.ui.pages.PageTiming.Metric.*
+
+class PageTimingSpec extends Specification {
+
+    @PageLoadBudget(load = 1000L, transferSize = 500_000L, fail = false)
+    static class BudgetedPage {}
+
+    static class OtherPage {}
+
+    def cleanup() {
+        PageTimingStats.clear()
+    }
+
+    static PageTiming timing(Map values) {
+        PageTiming.fromScriptResult(values).get()
+    }
+
+    def "timing is read from the script result, 0 meaning not reported"() {
+        when:
+            def timing = timing([ttfb: 120.6d, dcl: 800L, load: 0L, transfer: 300_000L, resources: 12L])
+        then:
+            timing.get(TIME_TO_FIRST_BYTE).asLong == 121
+            timing.get(DOM_CONTENT_LOADED).asLong == 800
+            !timing.get(LOAD).present
+            timing.get(TRANSFER_SIZE).asLong == 300_000
+            timing.get(RESOURCES).asLong == 12
+    }
+
+    def "there is no timing if the navigation was already timed"() {
+        expect:
+            !PageTiming.fromScriptResult(null).present
+    }
+
+    def "metrics over budget are described, unbudgeted metrics are not checked"() {
+        given:
+            def budget = BudgetedPage.getAnnotation(PageLoadBudget)
+        expect:
+            timing([ttfb: 5000L, load: 900L, transfer: 100L]).getOverBudget(budget).isEmpty()
+            timing([load: 1500L, transfer: 600_000L]).getOverBudget(budget) ==
+                    ["load_ms 1500 > 1000", "transfer_bytes 600000 > 500000"]
+    }
+
+    def "percentiles are aggregated per page class"() {
+        given:
+            (1..100).each { PageTimingStats.record(BudgetedPage, timing([load: it * 10L])) }
+            PageTimingStats.record(OtherPage, timing([ttfb: 50L]))
+        when:
+            def rows = PageTimingStats.toCsv().readLines()
+        then:
+            rows[0] == PageTimingStats.CSV_HEADER
+            rows.contains(BudgetedPage.name + ",load_ms,100,10,500,900,990,1000")
+            rows.contains(OtherPage.name + ",ttfb_ms,1,50,50,50,50,50")
+            rows.size() == 3
+    }
+}
@@ -0,0 +1,128 @@
+package com.frameworkium.core.ui.proxy
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.sun.net.httpserver.HttpServer
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+class EmbeddedProxySpec extends Specification {
+
+    def cacheDirectory = Files.createTempDirectory("proxy-cache")
+    def requests = new ConcurrentHashMap<String, AtomicInteger>()
+    HttpServer origin
+    EmbeddedProxy proxy
+    String base
+
+    def setup() {
+        origin = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0)
+        origin.createContext("/") { exchange ->
+            def path = exchange.requestURI.path
+            requests.computeIfAbsent(path, { new AtomicInteger() }).incrementAndGet()
+            def body = "body of $path".bytes
+            exchange.responseHeaders.add("Content-Type", "text/plain")
+            exchange.sendResponseHeaders(200, body.length)
+            exchange.responseBody.withStream { it.write(body) }
+        }
+        origin.start()
+        base = "http://127.0.0.1:${origin.address.port}"
+        proxy = new EmbeddedProxy(
+                new HostBlocklist(["blocked.example"]),
+                new AssetCache(cacheDirectory, 60_000)).start()
+    }
+
+    def cleanup() {
+        proxy.stop()
+        origin.stop(0)
+        cacheDirectory.toFile().deleteDir()
+    }
+
+    HttpURLConnection get(String url) {
+        def (host, port) = proxy.address.split(":")
+        def connection = (HttpURLConnection) new URL(url).openConnection(
+                new Proxy(Proxy.Type.HTTP, new InetSocketAddress(host, port as int)))
+        connection.useCaches = false
+        connection
+    }
+
+    def "requests are forwarded to the server"() {
+        when:
+            def connection = get("$base/page?query=1")
+        then:
+            connection.responseCode == 200
+            connection.inputStream.text == "body of /page"
+            connection.getHeaderField("Connection") == "close"
+    }
+
+    def "static assets are served from the cache after the first request"() {
+        when:
+            def first = get("$base/app.js").inputStream.text
+            def second = get("$base/app.js").inputStream.text
+            get("$base/page").inputStream.text
+            get("$base/page").inputStream.text
+        then:
+            first == "body of /app.js"
+            second == first
+            requests["/app.js"].get() == 1
+            requests["/page"].get() == 2
+    }
+
+    def "the cache is shared by proxies using the same directory"() {
+        given:
+            get("$base/app.css").inputStream.text
+            def other = new EmbeddedProxy(
+                    new HostBlocklist([]), new AssetCache(cacheDirectory, 60_000))
+        expect:
+            other.cache.get(URI.create("$base/app.css")).present
+    }
+
+    def "requests to blocked hosts and their subdomains are not sent"() {
+        expect:
+            get("http://tags.blocked.example/tag.js").responseCode == 204
+            requests.isEmpty()
+    }
+
+    def "HTTPS is tunnelled and blocked hosts are refused"() {
+        given:
+            def (host, port) = proxy.address.split(":")
+        when:
+            def socket = new Socket(host, port as int)
+            socket.outputStream << "CONNECT 127.0.0.1:${origin.address.port} HTTP/1.1\r\n\r\n"
+            socket.outputStream << "GET /tunnelled HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+            def response = socket.inputStream.text
+            socket.close()
+        then:
+            response.startsWith("HTTP/1.1 200 Connection Established")
+            response.endsWith("body of /tunnelled")
+        when:
+            def blocked = new Socket(host, port as int)
+            blocked.outputStream << "CONNECT ads.blocked.example:443 HTTP/1.1\r\n\r\n"
+            def refused = blocked.inputStream.text
+            blocked.close()
+        then:
+            refused.startsWith("HTTP/1.1 403")
+    }
+
+    def "requests are written as a HAR"() {
+        given:
+            get("$base/app.js").inputStream.text
+            get("$base/app.js").inputStream.text
+            get("http://blocked.example/").responseCode
+            def har = Files.createTempFile("proxy", ".har")
+        when:
+            proxy.writeHar(har)
+            def entries = new ObjectMapper().readTree(har.toFile()).get("log").get("entries")
+        then:
+            entries.size() == 3
+            entries*.get("request")*.get("url")*.asText() ==
+                    ["$base/app.js", "$base/app.js", "http://blocked.example/"]*.toString()
+            entries*.get("response")*.get("status")*.asInt() == [200, 200, 204]
+            entries*.get("comment")*.asText() == [null, "cached", "blocked"]
+            entries[0].get("response").get("content").get("mimeType").asText() == "text/plain"
+            entries[0].get("timings").get("connect").asLong() >= 0
+        cleanup:
+            Files.deleteIfExists(har)
+    }
+}
@@ -0,0 +1,73 @@
+package com.frameworkium.core.ui.tables
+
+import org.openqa.selenium.JavascriptExecutor
+import org.openqa.selenium.WebElement
+import spock.lang.Specification
+
+class TableReaderSpec extends Specification {
+
+    def mockDriver = Mock(JavascriptExecutor)
+    def mockTable = Mock(WebElement)
+
+    def sut = new TableReader(mockDriver)
+
+    def jsResult = [
+            headings  : ["Last Name", "First Name", "Due"],
+            columns   : [["Smith", "Bach", "Doe"], ["John", "Frank", "Jason"], ["50", "51", "100"]],
+            attributes: [class: [["a", "b", "c"], ["d", "e", "f"], ["g", "h", "i"]]]
+    ]
+
+    def "table is read with a single script call"() {
+        when: "reading a table with an attribute"
+            def contents = sut.read(mockTable, "class")
+        then: "one script is executed against the table"
+            1 * mockDriver.executeScript(_ as String, mockTable, ["class"]) >> jsResult
+        and: "the contents are column oriented"
+            contents.headings == ["Last Name", "First Name", "Due"]
+            contents.rowCount == 3
+            contents.getColumn("First Name") == ["John", "Frank", "Jason"]
+            contents.getAttributeColumn("Due", "class") == ["g", "h", "i"]
+            contents.getRow(1) == ["Last Name": "Bach", "First Name": "Frank", "Due": "51"]
+    }
+
+    def "sorting and filtering are applied locally"() {
+        given: "a table that has been read"
+            mockDriver.executeScript(*_) >> jsResult
+            def contents = sut.read(mockTable, "class")
+        when: "sorting and filtering the contents"
+            def sorted = contents.sortedBy("Last Name")
+            def byDue = contents.sortedBy("Due", { a, b -> (a as Integer) <=> (b as Integer) } as Comparator)
+            def filtered = contents.filter { row -> row["First Name"].startsWith("J") }
+        then: "no more scripts are executed"
+            0 * mockDriver._
+        and: "rows, including attributes, are reordered"
+            sorted.getColumn("Last Name") == ["Bach", "Doe", "Smith"]
+            sorted.getAttributeColumn("Last Name", "class") == ["b", "c", "a"]
+            byDue.getColumn("Due") == ["50", "51", "100"]
+            filtered.getColumn("Last Name") == ["Smith", "Doe"]
+        and: "the original contents are unchanged"
+            contents.getColumn("Last Name") == ["Smith", "Bach", "Doe"]
+    }
+
+    def "unknown headings and attributes throw an exception"() {
+        given:
+            mockDriver.executeScript(*_) >> jsResult
+            def contents = sut.read(mockTable)
+        when:
+            contents.getColumn("Web Site")
+        then:
+            thrown(IllegalArgumentException)
+        when:
+            contents.getAttributeColumn("Due", "href")
+        then:
+            thrown(IllegalArgumentException)
+    }
+
+    def "headings are read without reading the cells"() {
+        when:
+            def headings = sut.readHeadings(mockTable)
+        then:
+            1 * mockDriver.executeScript({ !it.contains("columnsOf") }, mockTable) >> ["Last Name", "Due"]
+            headings == ["Last Name", "Due"]
+    }
+}
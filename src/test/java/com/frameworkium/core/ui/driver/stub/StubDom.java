@@ -0,0 +1,83 @@
+package com.frameworkium.core.ui.driver.stub;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The scripted pages, elements and JavaScript results served by a
+ * {@link StubWebDriverServer}.
+ */
+public class StubDom {
+
+    /** Result of a script executed against the stub. */
+    @FunctionalInterface
+    public interface ScriptResult {
+
+        /**
+         * @param args the script arguments, with elements as {@link StubElement}s
+         * @return a String, Number, Boolean, {@link StubElement}, List, Map or null
+         */
+        Object apply(List<Object> args);
+    }
+
+    private static final String DEFAULT_USER_AGENT =
+            "Mozilla/5.0 (X11; Linux x86_64) StubWebDriver/1.0";
+
+    private final Map<String, StubPage> pages = new ConcurrentHashMap<>();
+    private final Map<String, StubElement> elements = new ConcurrentHashMap<>();
+    private final List<Map.Entry<String, ScriptResult>> scripts = new CopyOnWriteArrayList<>();
+    private volatile String userAgent = DEFAULT_USER_AGENT;
+
+    /**
+     * @param url   the URL at which the page is served
+     * @param title the page title
+     * @return the new, empty, page
+     */
+    public StubPage addPage(String url, String title) {
+        StubPage page = new StubPage(url, title, elements);
+        pages.put(url, page);
+        return page;
+    }
+
+    /**
+     * Scripts are matched in the order they were added, the first script
+     * containing the given fragment provides the result.
+     * Unmatched scripts return null.
+     *
+     * @param scriptFragment text contained by the script
+     * @param result         provides the result of the script
+     * @return this
+     */
+    public StubDom onScript(String scriptFragment, ScriptResult result) {
+        scripts.add(new AbstractMap.SimpleImmutableEntry<>(scriptFragment, result));
+        return this;
+    }
+
+    public StubDom withUserAgent(String userAgent) {
+        this.userAgent = userAgent;
+        return this;
+    }
+
+    /** @return the page for the URL, or a new blank page if none was added */
+    StubPage getPage(String url) {
+        return pages.computeIfAbsent(url, u -> new StubPage(u, "", elements));
+    }
+
+    Object executeScript(String script, List<Object> args) {
+        for (Map.Entry<String, ScriptResult> entry : scripts) {
+            if (script.contains(entry.getKey())) {
+                return entry.getValue().apply(args);
+            }
+        }
+        if (script.contains("navigator.userAgent")) {
+            return userAgent;
+        }
+        return null;
+    }
+
+    /** @return the element with the given id on any page, or null */
+    StubElement getElement(String id) {
+        return elements.get(id);
+    }
+}
@@ -0,0 +1,193 @@
+package com.frameworkium.core.ui.driver.stub;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An element of a {@link StubPage}, found by the locators it is declared with.
+ * <p>
+ * State is mutable so tests can script changes, e.g. an element becoming
+ * visible or stale, while a driver is using it.
+ */
+public class StubElement {
+
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
+    private final String id = "stub-" + ID_SEQUENCE.incrementAndGet();
+    private final String tagName;
+    private final Set<Locator> locators = new HashSet<>();
+    private final Map<String, String> attributes = new HashMap<>();
+    private final List<StubElement> children = new ArrayList<>();
+    private final Map<String, StubElement> registry;
+
+    private volatile String text = "";
+    private volatile boolean displayed = true;
+    private volatile boolean enabled = true;
+    private volatile boolean selected = false;
+    private volatile boolean stale = false;
+
+    StubElement(String tagName, Map<String, StubElement> registry) {
+        this.tagName = tagName;
+        this.registry = registry;
+        registry.put(id, this);
+    }
+
+    /**
+     * @param using the wire protocol locator strategy e.g. "css selector"
+     * @param value the locator value e.g. "div.example h3"
+     * @return this element
+     */
+    public StubElement locatedBy(String using, String value) {
+        locators.add(new Locator(using, value));
+        return this;
+    }
+
+    public StubElement locatedById(String id) {
+        attributes.put("id", id);
+        return locatedBy("id", id);
+    }
+
+    public StubElement locatedByCss(String css) {
+        return locatedBy("css selector", css);
+    }
+
+    public StubElement locatedByXpath(String xpath) {
+        return locatedBy("xpath", xpath);
+    }
+
+    public StubElement withText(String text) {
+        this.text = text;
+        return this;
+    }
+
+    public StubElement withAttribute(String name, String value) {
+        attributes.put(name, value);
+        return this;
+    }
+
+    public StubElement displayed(boolean displayed) {
+        this.displayed = displayed;
+        return this;
+    }
+
+    public StubElement enabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public StubElement selected(boolean selected) {
+        this.selected = selected;
+        return this;
+    }
+
+    /**
+     * @param stale whether commands for this element should fail with a
+     *              stale element reference error
+     * @return this element
+     */
+    public StubElement stale(boolean stale) {
+        this.stale = stale;
+        return this;
+    }
+
+    /**
+     * @param tagName the tag name of the new child element
+     * @return the new child, found when searching within this element
+     */
+    public StubElement addChild(String tagName) {
+        StubElement child = new StubElement(tagName, registry);
+        synchronized (children) {
+            children.add(child);
+        }
+        return child;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isSelected() {
+        return selected;
+    }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    void sendKeys(String keys) {
+        attributes.merge("value", keys, String::concat);
+    }
+
+    void clear() {
+        attributes.remove("value");
+    }
+
+    void click() {
+        if ("input".equalsIgnoreCase(tagName)) {
+            selected = !selected;
+        }
+    }
+
+    boolean isLocatedBy(String using, String value) {
+        return locators.contains(new Locator(using, value));
+    }
+
+    /** Depth-first search of descendants, including this element. */
+    void collect(String using, String value, List<StubElement> found) {
+        if (isLocatedBy(using, value)) {
+            found.add(this);
+        }
+        findWithin(using, value, found);
+    }
+
+    void findWithin(String using, String value, List<StubElement> found) {
+        synchronized (children) {
+            children.forEach(child -> child.collect(using, value, found));
+        }
+    }
+
+    private static final class Locator {
+
+        private final String using;
+        private final String value;
+
+        private Locator(String using, String value) {
+            this.using = using;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Locator)) {
+                return false;
+            }
+            Locator other = (Locator) o;
+            return using.equals(other.using) && value.equals(other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(using, value);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.frameworkium.core.ui.driver.stub;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** A page served by the {@link StubWebDriverServer} for a given URL. */
+public class StubPage {
+
+    private final String url;
+    private final List<StubElement> elements = new ArrayList<>();
+    private final Map<String, StubElement> registry;
+    private volatile String title;
+    private volatile String source = "<html><head></head><body></body></html>";
+
+    StubPage(String url, String title, Map<String, StubElement> registry) {
+        this.url = url;
+        this.title = title;
+        this.registry = registry;
+    }
+
+    /**
+     * @param tagName the tag name of the new element
+     * @return the new top-level element of this page
+     */
+    public StubElement addElement(String tagName) {
+        StubElement element = new StubElement(tagName, registry);
+        synchronized (elements) {
+            elements.add(element);
+        }
+        return element;
+    }
+
+    public StubPage withTitle(String title) {
+        this.title = title;
+        return this;
+    }
+
+    public StubPage withSource(String source) {
+        this.source = source;
+        return this;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    List<StubElement> find(String using, String value) {
+        List<StubElement> found = new ArrayList<>();
+        synchronized (elements) {
+            elements.forEach(element -> element.collect(using, value, found));
+        }
+        return found;
+    }
+}
@@ -0,0 +1,628 @@
+package com.frameworkium.core.ui.driver.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.ErrorCodes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process WebDriver endpoint, serving a {@link StubDom}.
+ * <p>
+ * Both dialects are spoken, chosen per session by the new session request:
+ * the JSON wire protocol, for <code>desiredCapabilities</code>, with
+ * <code>status</code> and <code>sessionId</code> in every response, and the
+ * W3C protocol, for <code>capabilities</code> alone, with only a
+ * <code>value</code>, W3C error codes and HTTP statuses, and W3C element
+ * references.
+ * <p>
+ * Useful for measuring and regression testing framework overhead without a
+ * browser, grid or network. Point a {@link org.openqa.selenium.remote.RemoteWebDriver}
+ * at {@link #getUrl()}, e.g. by starting the server on a known port and
+ * specifying the <code>gridURL</code> property.
+ * <p>
+ * Each command can be given a latency to simulate a real browser or grid,
+ * and the number of times each command was received is recorded.
+ * Command names are those of {@link DriverCommand}.
+ */
+public class StubWebDriverServer implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger();
+
+    private static final String ELEMENT_KEY = "ELEMENT";
+    private static final String W3C_ELEMENT_KEY = "element-6066-11e4-a52e-4f735466cecf";
+    private static final String WINDOW_HANDLE = "stub-window";
+    /** A 1x1 pixel PNG */
+    private static final String SCREENSHOT_BASE64 =
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=";
+
+    private static final List<Route> ROUTES = Arrays.asList(
+            new Route("POST", "/session", DriverCommand.NEW_SESSION),
+            new Route("GET", "/status", DriverCommand.STATUS),
+            new Route("GET", "/session/:sessionId", DriverCommand.GET_CAPABILITIES),
+            new Route("DELETE", "/session/:sessionId", DriverCommand.QUIT),
+            new Route("DELETE", "/session/:sessionId/window", DriverCommand.CLOSE),
+            new Route("POST", "/session/:sessionId/url", DriverCommand.GET),
+            new Route("GET", "/session/:sessionId/url", DriverCommand.GET_CURRENT_URL),
+            new Route("POST", "/session/:sessionId/back", DriverCommand.GO_BACK),
+            new Route("POST", "/session/:sessionId/forward", DriverCommand.GO_FORWARD),
+            new Route("POST", "/session/:sessionId/refresh", DriverCommand.REFRESH),
+            new Route("GET", "/session/:sessionId/title", DriverCommand.GET_TITLE),
+            new Route("GET", "/session/:sessionId/source", DriverCommand.GET_PAGE_SOURCE),
+            new Route("GET", "/session/:sessionId/screenshot", DriverCommand.SCREENSHOT),
+            new Route("POST", "/session/:sessionId/execute", DriverCommand.EXECUTE_SCRIPT),
+            new Route("POST", "/session/:sessionId/execute/sync", DriverCommand.EXECUTE_SCRIPT),
+            new Route("POST", "/session/:sessionId/execute_async", DriverCommand.EXECUTE_ASYNC_SCRIPT),
+            new Route("POST", "/session/:sessionId/execute/async", DriverCommand.EXECUTE_ASYNC_SCRIPT),
+            new Route("POST", "/session/:sessionId/timeouts", DriverCommand.SET_TIMEOUT),
+            new Route("POST", "/session/:sessionId/timeouts/async_script", DriverCommand.SET_SCRIPT_TIMEOUT),
+            new Route("POST", "/session/:sessionId/timeouts/implicit_wait", DriverCommand.IMPLICITLY_WAIT),
+            new Route("GET", "/session/:sessionId/window_handle", DriverCommand.GET_CURRENT_WINDOW_HANDLE),
+            new Route("GET", "/session/:sessionId/window_handles", DriverCommand.GET_WINDOW_HANDLES),
+            new Route("POST", "/session/:sessionId/window/:windowHandle/maximize", DriverCommand.MAXIMIZE_WINDOW),
+            new Route("POST", "/session/:sessionId/window/maximize", DriverCommand.MAXIMIZE_CURRENT_WINDOW),
+            new Route("GET", "/session/:sessionId/window/:windowHandle/size", DriverCommand.GET_WINDOW_SIZE),
+            new Route("POST", "/session/:sessionId/window/:windowHandle/size", DriverCommand.SET_WINDOW_SIZE),
+            new Route("GET", "/session/:sessionId/cookie", DriverCommand.GET_ALL_COOKIES),
+            new Route("DELETE", "/session/:sessionId/cookie", DriverCommand.DELETE_ALL_COOKIES),
+            new Route("POST", "/session/:sessionId/element", DriverCommand.FIND_ELEMENT),
+            new Route("POST", "/session/:sessionId/elements", DriverCommand.FIND_ELEMENTS),
+            new Route("POST", "/session/:sessionId/element/active", DriverCommand.GET_ACTIVE_ELEMENT),
+            new Route("POST", "/session/:sessionId/element/:id/element", DriverCommand.FIND_CHILD_ELEMENT),
+            new Route("POST", "/session/:sessionId/element/:id/elements", DriverCommand.FIND_CHILD_ELEMENTS),
+            new Route("POST", "/session/:sessionId/element/:id/click", DriverCommand.CLICK_ELEMENT),
+            new Route("POST", "/session/:sessionId/element/:id/clear", DriverCommand.CLEAR_ELEMENT),
+            new Route("POST", "/session/:sessionId/element/:id/value", DriverCommand.SEND_KEYS_TO_ELEMENT),
+            new Route("POST", "/session/:sessionId/element/:id/submit", DriverCommand.SUBMIT_ELEMENT),
+            new Route("GET", "/session/:sessionId/element/:id/text", DriverCommand.GET_ELEMENT_TEXT),
+            new Route("GET", "/session/:sessionId/element/:id/name", DriverCommand.GET_ELEMENT_TAG_NAME),
+            new Route("GET", "/session/:sessionId/element/:id/displayed", DriverCommand.IS_ELEMENT_DISPLAYED),
+            new Route("GET", "/session/:sessionId/element/:id/enabled", DriverCommand.IS_ELEMENT_ENABLED),
+            new Route("GET", "/session/:sessionId/element/:id/selected", DriverCommand.IS_ELEMENT_SELECTED),
+            new Route("GET", "/session/:sessionId/element/:id/attribute/:name", DriverCommand.GET_ELEMENT_ATTRIBUTE),
+            new Route("GET", "/session/:sessionId/element/:id/css/:propertyName", DriverCommand.GET_ELEMENT_VALUE_OF_CSS_PROPERTY),
+            new Route("GET", "/session/:sessionId/element/:id/location", DriverCommand.GET_ELEMENT_LOCATION),
+            new Route("GET", "/session/:sessionId/element/:id/location_in_view", DriverCommand.GET_ELEMENT_LOCATION_ONCE_SCROLLED_INTO_VIEW),
+            new Route("GET", "/session/:sessionId/element/:id/size", DriverCommand.GET_ELEMENT_SIZE),
+            new Route("GET", "/session/:sessionId/element/:id/rect", DriverCommand.GET_ELEMENT_RECT),
+            new Route("GET", "/session/:sessionId/element/:id/property/:name", DriverCommand.GET_ELEMENT_ATTRIBUTE),
+            new Route("GET", "/session/:sessionId/window", DriverCommand.GET_CURRENT_WINDOW_HANDLE),
+            new Route("GET", "/session/:sessionId/window/handles", DriverCommand.GET_WINDOW_HANDLES),
+            new Route("GET", "/session/:sessionId/window/rect", DriverCommand.GET_WINDOW_SIZE),
+            new Route("POST", "/session/:sessionId/window/rect", DriverCommand.SET_WINDOW_SIZE),
+            new Route("GET", "/session/:sessionId/element/:id/equals/:other", DriverCommand.ELEMENT_EQUALS));
+
+    private final StubDom dom;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Long> commandLatencyMillis = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> commandCounts = new ConcurrentHashMap<>();
+    private volatile long defaultLatencyMillis;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param dom the pages, elements and scripts to serve
+     */
+    public StubWebDriverServer(StubDom dom) {
+        this.dom = dom;
+    }
+
+    /** Starts the server on a free port of the loopback interface. */
+    public StubWebDriverServer start() {
+        return start(0);
+    }
+
+    /**
+     * @param port the port to listen on, or 0 for any free port
+     * @return this, started server
+     */
+    public StubWebDriverServer start(int port) {
+        try {
+            server = HttpServer.create(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to start stub WebDriver server", e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-webdriver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/wd/hub", this::handleWebDriverRequest);
+        server.createContext("/grid/api/testsession", this::handleTestSessionRequest);
+        server.start();
+        logger.debug("Stub WebDriver server started at {}", getUrl());
+        return this;
+    }
+
+    /** Stops the server, abandoning any in-flight requests. */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /** @return the remote WebDriver URL e.g. <code>http://127.0.0.1:4444/wd/hub</code> */
+    public URL getUrl() {
+        try {
+            InetSocketAddress address = server.getAddress();
+            return new URL(String.format("http://%s:%d/wd/hub",
+                    address.getAddress().getHostAddress(), address.getPort()));
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** @param millis latency added to every command without a specific latency */
+    public StubWebDriverServer withLatency(long millis) {
+        this.defaultLatencyMillis = millis;
+        return this;
+    }
+
+    /**
+     * @param command the {@link DriverCommand} name e.g. {@link DriverCommand#FIND_ELEMENT}
+     * @param millis  latency added to the given command
+     * @return this
+     */
+    public StubWebDriverServer withLatency(String command, long millis) {
+        commandLatencyMillis.put(command, millis);
+        return this;
+    }
+
+    /**
+     * @param command the {@link DriverCommand} name
+     * @return the number of times the command has been received
+     */
+    public long getCommandCount(String command) {
+        AtomicLong count = commandCounts.get(command);
+        return count == null ? 0 : count.get();
+    }
+
+    /** @return the total number of commands received */
+    public long getTotalCommandCount() {
+        return commandCounts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public void resetCommandCounts() {
+        commandCounts.clear();
+    }
+
+    private void handleTestSessionRequest(HttpExchange exchange) throws IOException {
+        JSONObject body = new JSONObject()
+                .put("success", true)
+                .put("proxyId", "http://" + exchange.getLocalAddress().getHostString()
+                        + ":" + exchange.getLocalAddress().getPort());
+        send(exchange, 200, body);
+    }
+
+    private void handleWebDriverRequest(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath().substring("/wd/hub".length());
+        String method = exchange.getRequestMethod();
+        String sessionId = null;
+        boolean w3c = false;
+        try {
+            JSONObject body = readBody(exchange);
+            Optional<Map.Entry<Route, Map<String, String>>> match = ROUTES.stream()
+                    .map(route -> new AbstractMap.SimpleImmutableEntry<>(
+                            route, route.match(method, path)))
+                    .filter(entry -> entry.getValue() != null)
+                    .map(entry -> (Map.Entry<Route, Map<String, String>>) entry)
+                    .findFirst();
+            if (!match.isPresent()) {
+                throw new StubException(ErrorCodes.UNKNOWN_COMMAND,
+                        "Unknown command: " + method + " " + path);
+            }
+            String command = match.get().getKey().command;
+            Map<String, String> params = match.get().getValue();
+            sessionId = params.get("sessionId");
+            Session existing = sessionId == null ? null : sessions.get(sessionId);
+            w3c = existing != null && existing.w3c;
+
+            commandCounts.computeIfAbsent(command, c -> new AtomicLong()).incrementAndGet();
+            simulateLatency(command);
+
+            Object value = execute(command, params, body);
+            if (DriverCommand.NEW_SESSION.equals(command)) {
+                Session session = (Session) value;
+                sessionId = session.id;
+                w3c = session.w3c;
+                value = w3c
+                        ? new JSONObject().put("sessionId", sessionId)
+                        .put("capabilities", capabilities())
+                        : capabilities();
+            }
+            sendResponse(exchange, w3c, 200, sessionId, ErrorCodes.SUCCESS, toJson(value, w3c));
+        } catch (StubException e) {
+            sendError(exchange, w3c, sessionId, e.status, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.debug("Stub WebDriver command failed", e);
+            sendError(exchange, w3c, sessionId, ErrorCodes.UNHANDLED_ERROR,
+                    String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void simulateLatency(String command) {
+        long latency = commandLatencyMillis.getOrDefault(command, defaultLatencyMillis);
+        if (latency > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Object execute(String command, Map<String, String> params, JSONObject body) {
+        if (DriverCommand.NEW_SESSION.equals(command)) {
+            // W3C clients send only capabilities, JSON wire clients desiredCapabilities
+            Session session = new Session(
+                    body.has("capabilities") && !body.has("desiredCapabilities"));
+            sessions.put(session.id, session);
+            return session;
+        }
+        if (DriverCommand.STATUS.equals(command)) {
+            return new JSONObject().put("ready", true);
+        }
+
+        Session session = sessions.get(params.get("sessionId"));
+        if (session == null) {
+            throw new StubException(ErrorCodes.NO_SUCH_SESSION,
+                    "No such session: " + params.get("sessionId"));
+        }
+        switch (command) {
+            case DriverCommand.GET_CAPABILITIES:
+                return capabilities();
+            case DriverCommand.QUIT:
+            case DriverCommand.CLOSE:
+                sessions.remove(session.id);
+                return null;
+            case DriverCommand.GET:
+                session.navigateTo(body.getString("url"));
+                return null;
+            case DriverCommand.GET_CURRENT_URL:
+                return session.page.getUrl();
+            case DriverCommand.GO_BACK:
+                session.back();
+                return null;
+            case DriverCommand.GO_FORWARD:
+                session.forward();
+                return null;
+            case DriverCommand.GET_TITLE:
+                return session.page.getTitle();
+            case DriverCommand.GET_PAGE_SOURCE:
+                return session.page.getSource();
+            case DriverCommand.SCREENSHOT:
+                return SCREENSHOT_BASE64;
+            case DriverCommand.EXECUTE_SCRIPT:
+            case DriverCommand.EXECUTE_ASYNC_SCRIPT:
+                return dom.executeScript(body.getString("script"), fromJson(body.optJSONArray("args")));
+            case DriverCommand.GET_CURRENT_WINDOW_HANDLE:
+                return WINDOW_HANDLE;
+            case DriverCommand.GET_WINDOW_HANDLES:
+                return Collections.singletonList(WINDOW_HANDLE);
+            case DriverCommand.GET_WINDOW_SIZE:
+                return size(1920, 1080).put("x", 0).put("y", 0);
+            case DriverCommand.GET_ALL_COOKIES:
+                return Collections.emptyList();
+            case DriverCommand.FIND_ELEMENT:
+                return first(session.page.find(body.getString("using"), body.getString("value")), body);
+            case DriverCommand.FIND_ELEMENTS:
+                return session.page.find(body.getString("using"), body.getString("value"));
+            case DriverCommand.FIND_CHILD_ELEMENT:
+                return first(findWithin(params, body), body);
+            case DriverCommand.FIND_CHILD_ELEMENTS:
+                return findWithin(params, body);
+            case DriverCommand.GET_ACTIVE_ELEMENT:
+                throw new StubException(ErrorCodes.NO_SUCH_ELEMENT, "No active element");
+            default:
+                return executeElementCommand(command, params, body);
+        }
+    }
+
+    private Object executeElementCommand(
+            String command, Map<String, String> params, JSONObject body) {
+
+        if (!params.containsKey("id")) {
+            // settings e.g. timeouts and window maximise are accepted and ignored
+            return null;
+        }
+        StubElement element = getElement(params.get("id"));
+        switch (command) {
+            case DriverCommand.CLICK_ELEMENT:
+            case DriverCommand.SUBMIT_ELEMENT:
+                element.click();
+                return null;
+            case DriverCommand.CLEAR_ELEMENT:
+                element.clear();
+                return null;
+            case DriverCommand.SEND_KEYS_TO_ELEMENT:
+                if (body.has("text")) {
+                    // W3C
+                    element.sendKeys(body.getString("text"));
+                    return null;
+                }
+                JSONArray keys = body.getJSONArray("value");
+                StringBuilder text = new StringBuilder();
+                for (int i = 0; i < keys.length(); i++) {
+                    text.append(keys.getString(i));
+                }
+                element.sendKeys(text.toString());
+                return null;
+            case DriverCommand.GET_ELEMENT_TEXT:
+                return element.getText();
+            case DriverCommand.GET_ELEMENT_TAG_NAME:
+                return element.getTagName();
+            case DriverCommand.IS_ELEMENT_DISPLAYED:
+                return element.isDisplayed();
+            case DriverCommand.IS_ELEMENT_ENABLED:
+                return element.isEnabled();
+            case DriverCommand.IS_ELEMENT_SELECTED:
+                return element.isSelected();
+            case DriverCommand.GET_ELEMENT_ATTRIBUTE:
+                return element.getAttribute(params.get("name"));
+            case DriverCommand.GET_ELEMENT_VALUE_OF_CSS_PROPERTY:
+                return "";
+            case DriverCommand.GET_ELEMENT_LOCATION:
+            case DriverCommand.GET_ELEMENT_LOCATION_ONCE_SCROLLED_INTO_VIEW:
+                return new JSONObject().put("x", 0).put("y", 0);
+            case DriverCommand.GET_ELEMENT_SIZE:
+                return size(100, 20);
+            case DriverCommand.GET_ELEMENT_RECT:
+                return size(100, 20).put("x", 0).put("y", 0);
+            case DriverCommand.ELEMENT_EQUALS:
+                return params.get("id").equals(params.get("other"));
+            default:
+                throw new StubException(ErrorCodes.UNKNOWN_COMMAND, "Unsupported: " + command);
+        }
+    }
+
+    private List<StubElement> findWithin(Map<String, String> params, JSONObject body) {
+        List<StubElement> found = new ArrayList<>();
+        getElement(params.get("id"))
+                .findWithin(body.getString("using"), body.getString("value"), found);
+        return found;
+    }
+
+    private StubElement getElement(String id) {
+        StubElement element = dom.getElement(id);
+        if (element == null) {
+            throw new StubException(ErrorCodes.NO_SUCH_ELEMENT, "No element with id " + id);
+        }
+        if (element.isStale()) {
+            throw new StubException(ErrorCodes.STALE_ELEMENT_REFERENCE,
+                    "Element " + id + " is stale");
+        }
+        return element;
+    }
+
+    private static StubElement first(List<StubElement> elements, JSONObject locator) {
+        if (elements.isEmpty()) {
+            throw new StubException(ErrorCodes.NO_SUCH_ELEMENT,
+                    "Unable to locate element: " + locator);
+        }
+        return elements.get(0);
+    }
+
+    private static JSONObject size(int width, int height) {
+        return new JSONObject().put("width", width).put("height", height);
+    }
+
+    private static JSONObject capabilities() {
+        return new JSONObject()
+                .put("browserName", "stub")
+                .put("version", "1.0")
+                .put("platform", "ANY")
+                .put("javascriptEnabled", true)
+                .put("takesScreenshot", true);
+    }
+
+    private Object toJson(Object value, boolean w3c) {
+        if (value == null) {
+            return JSONObject.NULL;
+        } else if (value instanceof StubElement) {
+            String id = ((StubElement) value).getId();
+            return new JSONObject().put(w3c ? W3C_ELEMENT_KEY : ELEMENT_KEY, id);
+        } else if (value instanceof Collection) {
+            JSONArray array = new JSONArray();
+            ((Collection<?>) value).forEach(item -> array.put(toJson(item, w3c)));
+            return array;
+        } else if (value instanceof Map) {
+            JSONObject object = new JSONObject();
+            ((Map<?, ?>) value).forEach((k, v) -> object.put(String.valueOf(k), toJson(v, w3c)));
+            return object;
+        } else {
+            return value;
+        }
+    }
+
+    private List<Object> fromJson(JSONArray array) {
+        List<Object> list = new ArrayList<>();
+        if (array != null) {
+            for (int i = 0; i < array.length(); i++) {
+                list.add(fromJson(array.get(i)));
+            }
+        }
+        return list;
+    }
+
+    private Object fromJson(Object value) {
+        if (value instanceof JSONArray) {
+            return fromJson((JSONArray) value);
+        } else if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            if (object.has(ELEMENT_KEY)) {
+                return getElement(object.getString(ELEMENT_KEY));
+            }
+            if (object.has(W3C_ELEMENT_KEY)) {
+                return getElement(object.getString(W3C_ELEMENT_KEY));
+            }
+            Map<String, Object> map = new LinkedHashMap<>();
+            object.keySet().forEach(key -> map.put(key, fromJson(object.get(key))));
+            return map;
+        } else if (JSONObject.NULL.equals(value)) {
+            return null;
+        } else {
+            return value;
+        }
+    }
+
+    private static JSONObject readBody(HttpExchange exchange) throws IOException {
+        String body = IOUtils.toString(exchange.getRequestBody(), StandardCharsets.UTF_8);
+        return body.trim().isEmpty() ? new JSONObject() : new JSONObject(body);
+    }
+
+    private static void sendResponse(HttpExchange exchange, boolean w3c,
+            int httpStatus, String sessionId, int status, Object value) throws IOException {
+
+        if (w3c) {
+            send(exchange, httpStatus, new JSONObject().put("value", value));
+            return;
+        }
+        JSONObject response = new JSONObject()
+                .put("sessionId", sessionId == null ? JSONObject.NULL : sessionId)
+                .put("status", status)
+                .put("value", value);
+        send(exchange, httpStatus, response);
+    }
+
+    private static void sendError(HttpExchange exchange, boolean w3c,
+            String sessionId, int status, String message) throws IOException {
+
+        if (!w3c) {
+            sendResponse(exchange, false, 500, sessionId, status,
+                    new JSONObject().put("message", message));
+            return;
+        }
+        String error;
+        int httpStatus = 404;
+        if (status == ErrorCodes.NO_SUCH_SESSION) {
+            error = "invalid session id";
+        } else if (status == ErrorCodes.NO_SUCH_ELEMENT) {
+            error = "no such element";
+        } else if (status == ErrorCodes.STALE_ELEMENT_REFERENCE) {
+            error = "stale element reference";
+        } else if (status == ErrorCodes.UNKNOWN_COMMAND) {
+            error = "unknown command";
+        } else {
+            error = "unknown error";
+            httpStatus = 500;
+        }
+        sendResponse(exchange, true, httpStatus, sessionId, status, new JSONObject()
+                .put("error", error)
+                .put("message", message)
+                .put("stacktrace", ""));
+    }
+
+    private static void send(HttpExchange exchange, int httpStatus, JSONObject body)
+            throws IOException {
+
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(httpStatus, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Browsing state of a single driver session. */
+    private final class Session {
+
+        private final String id = UUID.randomUUID().toString();
+        private final boolean w3c;
+        private final Deque<StubPage> backHistory = new ArrayDeque<>();
+        private final Deque<StubPage> forwardHistory = new ArrayDeque<>();
+        private volatile StubPage page = dom.getPage("about:blank");
+
+        private Session(boolean w3c) {
+            this.w3c = w3c;
+        }
+
+        private synchronized void navigateTo(String url) {
+            backHistory.push(page);
+            forwardHistory.clear();
+            page = dom.getPage(url);
+        }
+
+        private synchronized void back() {
+            if (!backHistory.isEmpty()) {
+                forwardHistory.push(page);
+                page = backHistory.pop();
+            }
+        }
+
+        private synchronized void forward() {
+            if (!forwardHistory.isEmpty()) {
+                backHistory.push(page);
+                page = forwardHistory.pop();
+            }
+        }
+    }
+
+    /** Maps a HTTP method and path template to a {@link DriverCommand}. */
+    private static final class Route {
+
+        private final String method;
+        private final String[] segments;
+        private final String command;
+
+        private Route(String method, String template, String command) {
+            this.method = method;
+            this.segments = template.substring(1).split("/");
+            this.command = command;
+        }
+
+        /** @return path parameters if the request matches this route, else null */
+        private Map<String, String> match(String requestMethod, String path) {
+            if (!method.equals(requestMethod)) {
+                return null;
+            }
+            String[] pathSegments = path.replaceAll("^/|/$", "").split("/");
+            if (pathSegments.length != segments.length) {
+                return null;
+            }
+            Map<String, String> params = new HashMap<>();
+            for (int i = 0; i < segments.length; i++) {
+                if (segments[i].startsWith(":")) {
+                    params.put(segments[i].substring(1), pathSegments[i]);
+                } else if (!segments[i].equals(pathSegments[i])) {
+                    return null;
+                }
+            }
+            return params;
+        }
+    }
+
+    private static final class StubException extends RuntimeException {
+
+        private final int status;
+
+        private StubException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
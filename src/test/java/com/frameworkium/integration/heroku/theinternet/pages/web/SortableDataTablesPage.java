@@ -2,6 +2,7 @@ package com.frameworkium.integration.heroku.theinternet.pages.web;
 
 import com.frameworkium.core.ui.annotations.Visible;
 import com.frameworkium.core.ui.pages.BasePage;
+import com.frameworkium.core.ui.tables.TableReader;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import ru.yandex.qatools.allure.annotations.Step;
@@ -45,8 +46,9 @@ public class SortableDataTablesPage extends BasePage<SortableDataTablesPage> {
 
     @Step("Sort table {0} by column name {1}")
     private SortableDataTablesPage sortTableByColumnName(Table table, String colHeader) {
+        List<String> headings = new TableReader().readHeadings(table);
         table.getHeadings()
-                .get(table.getHeadingsAsString().indexOf(colHeader))
+                .get(headings.indexOf(colHeader))
                 .click();
         return this;
     }
@@ -54,8 +56,7 @@ public class SortableDataTablesPage extends BasePage<SortableDataTablesPage> {
     @Step("Get column contents of column {1} in table {0}")
     private List<String> getColumnContents(Table table, String colHeader) {
 
-        int colIndex = table.getHeadingsAsString().indexOf(colHeader);
-        return table.getColumnsAsString().get(colIndex);
+        return new TableReader().read(table).getColumn(colHeader);
     }
 
 }
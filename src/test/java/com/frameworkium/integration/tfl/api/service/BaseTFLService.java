@@ -2,7 +2,8 @@ package com.frameworkium.integration.tfl.api.service;
 
 import com.frameworkium.core.api.services.BaseService;
 import com.frameworkium.integration.tfl.api.constant.TFLEndpoint;
-import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.builder.ResponseSpecBuilder;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
 import org.apache.http.HttpStatus;
@@ -10,13 +11,23 @@ import org.apache.http.HttpStatus;
 /** Base Service for TFL specific services. */
 public class BaseTFLService extends BaseService {
 
+    private static final RequestSpecification REQUEST_SPEC =
+            new RequestSpecBuilder()
+                    .setBaseUri(TFLEndpoint.BASE_URI.getUrl())
+                    .build();
+
+    private static final ResponseSpecification RESPONSE_SPEC =
+            new ResponseSpecBuilder()
+                    .expectStatusCode(HttpStatus.SC_OK)
+                    .build();
+
     /**
      * @return a Rest Assured {@link RequestSpecification} with the baseUri
      * (and anything else required by most TFL services).
      */
     @Override
     protected RequestSpecification getRequestSpec() {
-        return RestAssured.given().baseUri(TFLEndpoint.BASE_URI.getUrl());
+        return REQUEST_SPEC;
     }
 
     /**
@@ -25,7 +36,7 @@ public class BaseTFLService extends BaseService {
      */
     @Override
     protected ResponseSpecification getResponseSpec() {
-        return RestAssured.expect().response().statusCode(HttpStatus.SC_OK);
+        return RESPONSE_SPEC;
     }
 
 }
@@ -2,7 +2,7 @@ package com.frameworkium.integration.tfl.api.service.journeyplanner;
 
 import com.frameworkium.integration.tfl.api.dto.journeyplanner.DisambiguationResult;
 import com.frameworkium.integration.tfl.api.service.BaseTFLService;
-import io.restassured.RestAssured;
+import io.restassured.builder.ResponseSpecBuilder;
 import io.restassured.specification.ResponseSpecification;
 import org.apache.http.HttpStatus;
 
@@ -10,9 +10,13 @@ import static com.frameworkium.integration.tfl.api.constant.TFLEndpoint.JOURNEY_
 
 public class DisambiguationService extends BaseTFLService {
 
+    private static final ResponseSpecification RESPONSE_SPEC =
+            new ResponseSpecBuilder()
+                    .expectStatusCode(HttpStatus.SC_MULTIPLE_CHOICES)
+                    .build();
+
     public DisambiguationResult getDisambiguationResult(String from, String to) {
-        return request(JOURNEY_PLANNER.getUrl(from, to))
-                .as(DisambiguationResult.class);
+        return readAs(request(JOURNEY_PLANNER.getUrl(from, to)), DisambiguationResult.class);
     }
 
     /**
@@ -21,8 +25,7 @@ public class DisambiguationService extends BaseTFLService {
      */
     @Override
     protected ResponseSpecification getResponseSpec() {
-        return RestAssured.expect()
-                .statusCode(HttpStatus.SC_MULTIPLE_CHOICES);
+        return RESPONSE_SPEC;
     }
 
 }
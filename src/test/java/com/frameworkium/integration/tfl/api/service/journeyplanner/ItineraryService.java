@@ -14,7 +14,6 @@ public class ItineraryService extends BaseTFLService {
     @Step("Get national itinerary from {0} to {1}")
     public Itinerary getNationalItinerary(String from, String to) {
         Map<String, String> params = ImmutableMap.of("nationalSearch", "true");
-        return request(params, JOURNEY_PLANNER.getUrl(from, to))
-                .as(Itinerary.class);
+        return readAs(request(params, JOURNEY_PLANNER.getUrl(from, to)), Itinerary.class);
     }
 }